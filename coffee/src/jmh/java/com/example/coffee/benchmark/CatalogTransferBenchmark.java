@@ -0,0 +1,195 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.CoffeeApplication;
+import com.example.coffee.dto.CatalogImportResponse;
+import com.example.coffee.service.CatalogExportService;
+import com.example.coffee.service.CatalogFormat;
+import com.example.coffee.service.CatalogImportService;
+import com.example.coffee.service.LowStockIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 100,000 개(옵션 2개씩) 카탈로그 가져오기 / 내보내기. 애플리케이션을 it 프로필(H2 + it-seed.sql)로 띄워
+ * 서비스를 직접 호출한다. 이미지는 넣지 않는다 (저장소 I/O 는 UploadServingBenchmark 쪽).
+ *
+ * importCatalog: chunkSize=1 은 상품마다 트랜잭션 하나 (폼으로 한 개씩 등록하는 것과 같은 커밋 수),
+ *                500 은 청크당 트랜잭션 하나 + 테이블별 JDBC 배치. 반복마다 가져온 상품은 지운다.
+ * exportCatalog: 미리 가져온 100,000 개를 버리는 스트림으로 내보낸다.
+ * 끝나면 상품당 SQL 문 수(Hibernate 통계)와 초당 상품 수를 출력한다.
+ *
+ * 실행: ./mvnw -Pjmh -DskipTests verify -Djmh.args="CatalogTransferBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogTransferBenchmark {
+
+    static final int PRODUCTS = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class ImportState {
+
+        @Param({"csv", "ndjson"})
+        private String format;
+
+        @Param({"1", "500"})
+        private int chunkSize;
+
+        private ConfigurableApplicationContext context;
+        private CatalogImportService importService;
+        private Statistics statistics;
+        private Path file;
+        private long seededMaxId;
+        private long statementsBefore;
+        private long started;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            context = start("app.catalog.import.chunk-size=" + chunkSize);
+            importService = context.getBean(CatalogImportService.class);
+            statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            seededMaxId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MAX(product_id) FROM product", Long.class);
+            file = generate(CatalogFormat.of(format, null));
+        }
+
+        @Setup(Level.Iteration)
+        public void before() {
+            statementsBefore = statistics.getPrepareStatementCount();
+            started = System.nanoTime();
+        }
+
+        /* 가져온 상품을 지워서 반복마다 같은 크기의 DB 에서 시작 */
+        @TearDown(Level.Iteration)
+        public void after() {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%n[%s, chunk=%d] SQL 문/상품 %.2f, 상품/초 %.0f%n", format, chunkSize,
+                    (double) (statistics.getPrepareStatementCount() - statementsBefore) / PRODUCTS, PRODUCTS / seconds);
+
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            for (String table : new String[]{"product_variant", "product_option", "product_image", "product"}) {
+                jdbc.update("DELETE FROM " + table + " WHERE product_id > ?", seededMaxId);
+            }
+            context.getBean(EntityManagerFactory.class).getCache().evictAll();
+            context.getBean(LowStockIndex.class).resync();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            context.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExportState {
+
+        @Param({"csv", "ndjson"})
+        private String format;
+
+        private ConfigurableApplicationContext context;
+        private CatalogExportService exportService;
+        private CatalogFormat catalogFormat;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            context = start();
+            exportService = context.getBean(CatalogExportService.class);
+            catalogFormat = CatalogFormat.of(format, null);
+
+            Path file = generate(catalogFormat);
+            try (InputStream in = Files.newInputStream(file)) {
+                context.getBean(CatalogImportService.class).importCatalog(in, catalogFormat, null, false);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public CatalogImportResponse importCatalog(ImportState state) throws IOException {
+        try (InputStream in = Files.newInputStream(state.file)) {
+            CatalogImportResponse response = state.importService.importCatalog(
+                    in, CatalogFormat.of(state.format, null), null, false);
+            if (response.getImported() != PRODUCTS) {
+                throw new IllegalStateException("가져오기 실패: " + response.getErrors());
+            }
+            return response;
+        }
+    }
+
+    @Benchmark
+    public long exportCatalog(ExportState state) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        state.exportService.export(state.catalogFormat, out);
+        return out.bytes;
+    }
+
+    private static ConfigurableApplicationContext start(String... properties) {
+        String[] all = new String[properties.length + 3];
+        all[0] = "server.port=0";
+        all[1] = "logging.level.root=warn";
+        all[2] = "app.admission.enabled=false";
+        System.arraycopy(properties, 0, all, 3, properties.length);
+        return new SpringApplicationBuilder(CoffeeApplication.class)
+                .profiles("it")
+                .properties(all)
+                .run();
+    }
+
+    /* 상품 PRODUCTS 개, 옵션 2개씩 */
+    private static Path generate(CatalogFormat format) throws IOException {
+        Path file = Files.createTempFile("catalog-bench-", "." + format.extension());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format == CatalogFormat.CSV) {
+                out.write("productName,basePrice,type,continent,nationality,options\n");
+            }
+            for (int i = 1; i <= PRODUCTS; i++) {
+                int price = 12000 + (i % 20) * 500;
+                int stock = i % 200;
+                if (format == CatalogFormat.CSV) {
+                    out.write("벤치마크 원두 " + i + "," + price + ",워시드,아프리카,에티오피아,"
+                            + "200g:0:" + stock + "|500g:8000:" + (stock + 10) + "\n");
+                } else {
+                    out.write("{\"productName\":\"벤치마크 원두 " + i + "\",\"basePrice\":" + price
+                            + ",\"type\":\"워시드\",\"continent\":\"아프리카\",\"nationality\":\"에티오피아\",\"options\":["
+                            + "{\"optionValue\":\"200g\",\"extraPrice\":0,\"stock\":" + stock + "},"
+                            + "{\"optionValue\":\"500g\",\"extraPrice\":8000,\"stock\":" + (stock + 10) + "}]}\n");
+                }
+            }
+        }
+        return file;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
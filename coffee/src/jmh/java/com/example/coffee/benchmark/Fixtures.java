@@ -0,0 +1,171 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.entity.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 벤치마크용 합성 데이터. 실제 화면과 비슷한 크기(옵션 3개, 상세 이미지 4장, 주문 품목 3개)로 만든다.
+ * 항상 같은 seed 를 사용해서 실행마다 같은 데이터가 나온다.
+ */
+public final class Fixtures {
+
+    private static final String[] NATIONS = {"에티오피아", "콜롬비아", "브라질", "케냐", "과테말라", "인도네시아"};
+    private static final String[] TYPES = {"워시드", "내추럴", "허니"};
+    private static final String[] WEIGHTS = {"200g", "500g", "1kg"};
+
+    private Fixtures() {
+    }
+
+    public static ProductGraph product(long id, Random random) {
+        Product product = Product.builder()
+                .productId(id)
+                .productName(NATIONS[(int) (id % NATIONS.length)] + " 싱글오리진 " + id)
+                .basePrice(12_000 + random.nextInt(20) * 500)
+                .type(TYPES[random.nextInt(TYPES.length)])
+                .continent("아프리카")
+                .nationality(NATIONS[(int) (id % NATIONS.length)])
+                .thumbnailImg("thumbnail/ab/cd/" + hash(id, 0) + ".jpg")
+                .thumbnailWidths("320,640,1024")
+                .build();
+
+        List<ProductImage> images = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            images.add(ProductImage.builder()
+                    .imageId(id * 10 + i)
+                    .imageUrl("detail/ef/01/" + hash(id, i + 1) + ".jpg")
+                    .widths("320,640")
+                    .sortOrder(i)
+                    .product(product)
+                    .build());
+        }
+
+        List<ProductOption> options = new ArrayList<>();
+        List<ProductVariant> variants = new ArrayList<>();
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            ProductOption option = ProductOption.builder()
+                    .optionId(id * 10 + i)
+                    .product(product)
+                    .optionValue(WEIGHTS[i])
+                    .extraPrice(i * 8_000)
+                    .build();
+            options.add(option);
+            variants.add(ProductVariant.builder()
+                    .variantId(id * 10 + i)
+                    .product(product)
+                    .option(option)
+                    .stock(random.nextInt(200))
+                    .build());
+        }
+        return new ProductGraph(product, images, options, variants);
+    }
+
+    public static OrderGraph order(long id, Random random, List<ProductGraph> catalog) {
+        Member member = Member.builder()
+                .memberId(id % 1000)
+                .email("member" + (id % 1000) + "@example.com")
+                .name("회원" + (id % 1000))
+                .phone("010-1234-" + String.format("%04d", id % 10000))
+                .build();
+
+        Order order = Order.builder()
+                .orderId(id)
+                .member(member)
+                .status(OrderStatus.values()[(int) (id % OrderStatus.values().length)])
+                .shippingAddress("서울특별시 강남구 테헤란로 " + id)
+                .orderDate(LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(id))
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(id + 30))
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < 3; i++) {
+            ProductGraph product = catalog.get(random.nextInt(catalog.size()));
+            ProductVariant variant = product.variants().get(random.nextInt(product.variants().size()));
+            int unitPrice = product.product().getBasePrice() + variant.getOption().getExtraPrice();
+            int quantity = 1 + random.nextInt(3);
+            items.add(OrderItem.builder()
+                    .orderItemId(id * 10 + i)
+                    .order(order)
+                    .variant(variant)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .build());
+            total += unitPrice * quantity;
+        }
+        order.setTotalAmount(total);
+        return new OrderGraph(order, items);
+    }
+
+    public static List<ProductGraph> catalog(int size) {
+        Random random = new Random(42);
+        List<ProductGraph> catalog = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            catalog.add(product(i, random));
+        }
+        return catalog;
+    }
+
+    public static List<OrderGraph> orders(int size, List<ProductGraph> catalog) {
+        Random random = new Random(7);
+        List<OrderGraph> orders = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            orders.add(order(i, random, catalog));
+        }
+        return orders;
+    }
+
+    public static OrderRequest orderRequest(int itemCount) {
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderRequest.OrderItemRequest.builder()
+                    .variantId(1000L + i)
+                    .quantity(1 + i % 3)
+                    .build());
+        }
+        return OrderRequest.builder()
+                .memberId(17L)
+                .shippingAddress("서울특별시 강남구 테헤란로 123, 4층")
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Spring Data 리포지토리 인터페이스의 가짜 구현. 메서드 이름 → 응답 함수로 지정하고,
+     * 지정하지 않은 메서드를 부르면 예외 (벤치마크 대상이 예상 밖의 쿼리를 하면 바로 드러나도록).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "(fixture)";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static String hash(long id, int n) {
+        return String.format("%016x%016x%016x%016x", id, n, id * 31 + n, id ^ 0x5DEECE66DL);
+    }
+
+    public record ProductGraph(Product product, List<ProductImage> images,
+                               List<ProductOption> options, List<ProductVariant> variants) {
+    }
+
+    public record OrderGraph(Order order, List<OrderItem> items) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.service.FieldSelection;
+import com.example.coffee.service.ImageDerivativeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson 직렬화/역직렬화 비용. ObjectMapper 는 Spring MVC 와 같은 방식(Jackson2ObjectMapperBuilder)으로 만든다.
+ * 응답은 HTTP 응답처럼 스트림으로 쓰고 (응답 byte[] 할당 제외), 요청은 byte[] 본문에서 읽는다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    // WebConfig 처럼 응답 DTO 의 기본 필터(전부 직렬화)를 건다
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .filters(FieldSelection.SERIALIZE_ALL).build();
+
+    @State(Scope.Benchmark)
+    public static class Responses {
+
+        @Param({"20", "200", "1000"})
+        int size;
+
+        ObjectWriter productListWriter;
+        ObjectWriter orderListWriter;
+        List<ProductResponse> products;
+        List<OrderResponse> orders;
+
+        @Setup
+        public void setup() {
+            productListWriter = MAPPER.writerFor(new TypeReference<List<ProductResponse>>() {});
+            orderListWriter = MAPPER.writerFor(new TypeReference<List<OrderResponse>>() {});
+
+            List<Fixtures.ProductGraph> catalog = Fixtures.catalog(size);
+            products = catalog.stream().map(JsonBenchmark::toProductResponse).toList();
+            orders = Fixtures.orders(size, catalog).stream().map(JsonBenchmark::toOrderResponse).toList();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        @Param({"1", "10", "50"})
+        int orderItems;
+
+        ObjectReader orderRequestReader;
+        byte[] orderRequestBody;
+
+        @Setup
+        public void setup() throws IOException {
+            orderRequestReader = MAPPER.readerFor(OrderRequest.class);
+            orderRequestBody = MAPPER.writeValueAsBytes(Fixtures.orderRequest(orderItems));
+        }
+    }
+
+    @Benchmark
+    public void writeProductList(Responses state) throws IOException {
+        state.productListWriter.writeValue(OutputStream.nullOutputStream(), state.products);
+    }
+
+    @Benchmark
+    public void writeOrderList(Responses state) throws IOException {
+        state.orderListWriter.writeValue(OutputStream.nullOutputStream(), state.orders);
+    }
+
+    @Benchmark
+    public OrderRequest readOrderRequest(Requests state) throws IOException {
+        return state.orderRequestReader.readValue(state.orderRequestBody);
+    }
+
+    /* 서비스 변환 로직과 같은 모양의 DTO (필드 값만 필요하므로 서비스를 거치지 않음) */
+    static ProductResponse toProductResponse(Fixtures.ProductGraph graph) {
+        return ProductResponse.builder()
+                .productId(graph.product().getProductId())
+                .productName(graph.product().getProductName())
+                .basePrice(graph.product().getBasePrice())
+                .type(graph.product().getType())
+                .continent(graph.product().getContinent())
+                .nationality(graph.product().getNationality())
+                .thumbnailImg(graph.product().getThumbnailImg())
+                .thumbnailWidths(ImageDerivativeService.parseWidths(graph.product().getThumbnailWidths()))
+                .detailImages(graph.images().stream()
+                        .map(img -> ProductResponse.ImageResponse.builder()
+                                .imageId(img.getImageId())
+                                .imageUrl(img.getImageUrl())
+                                .widths(ImageDerivativeService.parseWidths(img.getWidths()))
+                                .sortOrder(img.getSortOrder())
+                                .build())
+                        .toList())
+                .options(graph.variants().stream()
+                        .map(v -> ProductResponse.OptionResponse.builder()
+                                .optionId(v.getOption().getOptionId())
+                                .variantId(v.getVariantId())
+                                .optionValue(v.getOption().getOptionValue())
+                                .extraPrice(v.getOption().getExtraPrice())
+                                .stock(v.getStock())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    static OrderResponse toOrderResponse(Fixtures.OrderGraph graph) {
+        return OrderResponse.builder()
+                .orderId(graph.order().getOrderId())
+                .member(OrderResponse.MemberSummary.builder()
+                        .memberId(graph.order().getMember().getMemberId())
+                        .name(graph.order().getMember().getName())
+                        .email(graph.order().getMember().getEmail())
+                        .phone(graph.order().getMember().getPhone())
+                        .build())
+                .status(graph.order().getStatus().name())
+                .statusDisplayName(graph.order().getStatus().getDisplayName())
+                .totalAmount(graph.order().getTotalAmount())
+                .shippingAddress(graph.order().getShippingAddress())
+                .orderDate(graph.order().getOrderDate())
+                .updatedAt(graph.order().getUpdatedAt())
+                .items(graph.items().stream()
+                        .map(item -> OrderResponse.OrderItemResponse.builder()
+                                .orderItemId(item.getOrderItemId())
+                                .variantId(item.getVariant().getVariantId())
+                                .productName(item.getVariant().getProduct().getProductName())
+                                .optionValue(item.getVariant().getOption().getOptionValue())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .subtotal(item.getUnitPrice() * item.getQuantity())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
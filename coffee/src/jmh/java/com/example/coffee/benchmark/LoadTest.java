@@ -0,0 +1,228 @@
+package com.example.coffee.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 중인 서버에 부하를 주는 closed-loop 부하 테스트. 플랫폼/가상 스레드 모드 비교용.
+ *
+ * concurrency 명의 가상 사용자가 응답을 받는 즉시 다음 요청을 보낸다 (비동기 HttpClient 라
+ * 클라이언트 스레드 수가 동시 요청 수를 제한하지 않음). 상품 목록, 주문 단건 조회, 주문 생성을
+ * 가중치대로 섞어 보내고, 엔드포인트별 처리량 / 지연 시간 / 입장 제한(429, 503) 수를 출력한 뒤
+ * target/loadtest.csv 에 한 줄씩 추가한다. id 범위(--order-ids, --member-ids, --variant-ids)는
+ * 대상 DB 의 데이터에 맞춰 지정한다 (기본값은 it-seed.sql 규모).
+ *
+ * <pre>
+ * VIRTUAL_THREADS=false ./mvnw spring-boot:run     # 또는 true (JDK 21)
+ * ./mvnw -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.coffee.benchmark.LoadTest -Dexec.args="--label=platform --concurrency=400"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Path REPORT = Paths.get("target", "loadtest.csv");
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final URI baseUri;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int totalWeight;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.baseUri = URI.create(option("base-url", "http://localhost:8080"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        int orders = Integer.parseInt(option("order-ids", "2000"));
+        int members = Integer.parseInt(option("member-ids", "1000"));
+        int variants = Integer.parseInt(option("variant-ids", "900"));
+
+        endpoints.add(new Endpoint("GET /api/products", intOption("weight-products", 2),
+                r -> get("/api/products")));
+        endpoints.add(new Endpoint("GET /api/orders/{id}", intOption("weight-order-get", 6),
+                r -> get("/api/orders/" + (1 + r.nextInt(orders)))));
+        endpoints.add(new Endpoint("POST /api/orders", intOption("weight-order-create", 2),
+                r -> post("/api/orders", "{\"memberId\":" + (1 + r.nextInt(members))
+                        + ",\"shippingAddress\":\"서울특별시 중구 세종대로 110\",\"items\":["
+                        + "{\"variantId\":" + (1 + r.nextInt(variants)) + ",\"quantity\":1},"
+                        + "{\"variantId\":" + (1 + r.nextInt(variants)) + ",\"quantity\":2}]}")));
+        endpoints.removeIf(e -> e.weight <= 0);
+        this.totalWeight = endpoints.stream().mapToInt(e -> e.weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("가중치가 모두 0 입니다.");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--name=value 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws InterruptedException, IOException {
+        int concurrency = intOption("concurrency", 200);
+        long warmupMillis = intOption("warmup", 10) * 1000L;
+        long durationMillis = intOption("duration", 60) * 1000L;
+        String label = option("label", "run");
+
+        System.out.printf("%s: %s, 동시 사용자 %d, 워밍업 %ds, 측정 %ds%n",
+                label, baseUri, concurrency, warmupMillis / 1000, durationMillis / 1000);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMillis * 1_000_000L;
+        long end = measureFrom + durationMillis * 1_000_000L;
+
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            fire(measureFrom, end, done);
+        }
+        done.await();
+
+        double seconds = durationMillis / 1000.0;
+        List<String> rows = new ArrayList<>();
+        System.out.printf("%-24s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "req/s", "errors", "shed", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        for (Endpoint e : endpoints) {
+            long[] latencies = e.latencies();
+            Arrays.sort(latencies);
+            double rps = latencies.length / seconds;
+            System.out.printf("%-24s %9.1f %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    e.name, rps, e.errors.get(), e.rejected.get(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.95),
+                    percentile(latencies, 0.99), percentile(latencies, 1.0));
+            rows.add(String.join(",", label, "\"" + e.name + "\"", String.valueOf(concurrency),
+                    String.format(Locale.ROOT, "%.1f", rps),
+                    String.valueOf(e.errors.get()), String.valueOf(e.rejected.get()),
+                    format(percentile(latencies, 0.50)), format(percentile(latencies, 0.95)),
+                    format(percentile(latencies, 0.99)), format(percentile(latencies, 1.0))));
+        }
+
+        Files.createDirectories(REPORT.getParent());
+        if (!Files.exists(REPORT)) {
+            Files.writeString(REPORT, "label,endpoint,concurrency,rps,errors,shed,p50_ms,p95_ms,p99_ms,max_ms\n");
+        }
+        Files.write(REPORT, rows, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    /* 가상 사용자 한 명: 응답을 받으면 종료 시각 전까지 다음 요청을 보낸다 */
+    private void fire(long measureFrom, long end, CountDownLatch done) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint endpoint = pick(random.nextInt(totalWeight));
+        HttpRequest request = endpoint.request.build(random);
+
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long received = System.nanoTime();
+            if (sent >= measureFrom && received <= end) {
+                if (error == null && (response.statusCode() == 429 || response.statusCode() == 503)) {
+                    endpoint.rejected.incrementAndGet();
+                } else if (error != null || response.statusCode() >= 400) {
+                    endpoint.errors.incrementAndGet();
+                } else {
+                    endpoint.record(received - sent);
+                }
+            }
+            if (received < end) {
+                fire(measureFrom, end, done);
+            } else {
+                done.countDown();
+            }
+        });
+    }
+
+    private Endpoint pick(int n) {
+        for (Endpoint e : endpoints) {
+            n -= e.weight;
+            if (n < 0) return e;
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(sorted.length * p) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest build(Random random);
+    }
+
+    /* 엔드포인트별 지연 시간 기록 (성공 응답만) */
+    private static final class Endpoint {
+        private static final int MAX_SAMPLES = 1_000_000;
+
+        final String name;
+        final int weight;
+        final RequestFactory request;
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        private final long[] samples = new long[MAX_SAMPLES];
+        private final AtomicLong count = new AtomicLong();
+
+        Endpoint(String name, int weight, RequestFactory request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        void record(long nanos) {
+            long i = count.getAndIncrement();
+            if (i < MAX_SAMPLES) samples[(int) i] = nanos;
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(samples, (int) Math.min(count.get(), MAX_SAMPLES));
+        }
+    }
+}
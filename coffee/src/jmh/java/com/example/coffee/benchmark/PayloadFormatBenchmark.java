@@ -0,0 +1,111 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.service.FieldSelection;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 응답 형식별 직렬화 CPU 와 크기 (상품 / 주문 목록). ObjectMapper 는 WebConfig 와 같은 설정으로 만든다.
+ * gzip 은 Tomcat 압축과 같은 기본 레벨. 형식별 바이트 수와 JSON 대비 비율은 시작할 때 출력하고
+ * target/payload-sizes.csv 에 추가한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    private static final Path REPORT = Paths.get("target", "payload-sizes.csv");
+
+    @Param({"json", "json+gzip", "smile", "smile+gzip", "cbor"})
+    private String format;
+
+    @Param({"products", "orders"})
+    private String payload;
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ObjectWriter writer;
+    private boolean gzip;
+    private List<?> data;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Fixtures.ProductGraph> catalog = Fixtures.catalog(size);
+        data = payload.equals("products")
+                ? catalog.stream().map(JsonBenchmark::toProductResponse).toList()
+                : Fixtures.orders(size, catalog).stream().map(JsonBenchmark::toOrderResponse).toList();
+
+        gzip = format.endsWith("+gzip");
+        writer = writer(mapper(format.replace("+gzip", "")));
+        buffer = new ByteArrayOutputStream(1 << 20);
+
+        int bytes = serialize();
+        int jsonBytes = writer(mapper("json")).writeValueAsBytes(data).length;
+        System.out.printf("%n%s %s x%d: %,d bytes (JSON 대비 %.0f%%)%n",
+                format, payload, size, bytes, 100.0 * bytes / jsonBytes);
+
+        Files.createDirectories(REPORT.getParent());
+        if (!Files.exists(REPORT)) {
+            Files.writeString(REPORT, "format,payload,size,bytes,json_bytes\n");
+        }
+        Files.writeString(REPORT, String.join(",", format, payload, String.valueOf(size),
+                        String.valueOf(bytes), String.valueOf(jsonBytes)) + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        buffer.reset();
+        // writeValue 가 스트림을 닫으므로 gzip 트레일러까지 포함된다
+        OutputStream out = gzip ? new GZIPOutputStream(buffer, 8192) : buffer;
+        writer.writeValue(out, data);
+        return buffer.size();
+    }
+
+    private ObjectWriter writer(ObjectMapper mapper) {
+        return payload.equals("products")
+                ? mapper.writerFor(new TypeReference<List<ProductResponse>>() {})
+                : mapper.writerFor(new TypeReference<List<OrderResponse>>() {});
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "json" -> builder().build();
+            case "smile" -> builder().factory(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build()).build();
+            case "cbor" -> builder().factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException("알 수 없는 형식: " + format);
+        };
+    }
+
+    // WebConfig 처럼 응답 DTO 의 기본 필터(전부 직렬화)를 건다
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().filters(FieldSelection.SERIALIZE_ALL);
+    }
+}
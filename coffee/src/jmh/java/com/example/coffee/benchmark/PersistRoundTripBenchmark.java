@@ -0,0 +1,129 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.CoffeeApplication;
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.service.OrderService;
+import com.example.coffee.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 생성(품목 5개) / 상품 생성(옵션 4개)의 요청당 SQL 문 수와 지연 시간.
+ * 애플리케이션을 it 프로필(H2 + it-seed.sql)로 띄워 서비스를 직접 호출한다.
+ *
+ * batchSize=1 은 INSERT 를 한 건씩 보내던 IDENTITY 시절과 같은 왕복 수, 50 은 테이블별로 묶인 배치.
+ * 끝나면 호출당 prepareStatement 수(Hibernate 통계 = 드라이버로 보낸 SQL 문 수)를 출력한다.
+ * pooled 는 이와 별도로 id 50개당 id_block 예약 한 번(별도 풀)이 더해진다.
+ * H2 는 프로세스 안이라 지연 시간 차이는 작고, 네트워크 너머 MySQL(rewriteBatchedStatements=true)에서 커진다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistRoundTripBenchmark {
+
+    private static final int ORDER_ITEMS = 5;
+    private static final int PRODUCT_OPTIONS = 4;
+
+    @Param({"pooled", "snowflake"})
+    private String strategy;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private ProductService productService;
+    private Statistics statistics;
+    private int members;
+    private int variants;
+
+    private long orderCalls;
+    private long orderStatements;
+    private long productCalls;
+    private long productStatements;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(CoffeeApplication.class)
+                .profiles("it")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=warn",
+                        "app.admission.enabled=false",
+                        "app.id.strategy=" + strategy,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize)
+                .run();
+        orderService = context.getBean(OrderService.class);
+        productService = context.getBean(ProductService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        // 측정 중 재고 부족으로 실패하지 않도록 (아직 아무것도 캐시되지 않은 시점)
+        jdbc.update("UPDATE product_variant SET stock = 1000000000");
+        members = jdbc.queryForObject("SELECT COUNT(*) FROM member", Integer.class);
+        variants = jdbc.queryForObject("SELECT COUNT(*) FROM product_variant", Integer.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[%s, batch_size=%d] SQL 문/호출: createOrder %.1f, createProduct %.1f%n",
+                strategy, batchSize,
+                (double) orderStatements / Math.max(1, orderCalls),
+                (double) productStatements / Math.max(1, productCalls));
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>(ORDER_ITEMS);
+        for (int i = 0; i < ORDER_ITEMS; i++) {
+            items.add(new OrderRequest.OrderItemRequest((long) (1 + random.nextInt(variants)), 1));
+        }
+        OrderRequest request = new OrderRequest((long) (1 + random.nextInt(members)), "서울특별시 중구 세종대로 110", items);
+
+        long before = statistics.getPrepareStatementCount();
+        OrderResponse response = orderService.createOrder(request);
+        orderStatements += statistics.getPrepareStatementCount() - before;
+        orderCalls++;
+        return response;
+    }
+
+    @Benchmark
+    public ProductResponse createProduct() {
+        List<ProductRequest.OptionRequest> options = new ArrayList<>(PRODUCT_OPTIONS);
+        for (int i = 0; i < PRODUCT_OPTIONS; i++) {
+            options.add(new ProductRequest.OptionRequest((200 * (i + 1)) + "g", 5000 * i, 100));
+        }
+        ProductRequest request = ProductRequest.builder()
+                .productName("벤치마크 원두")
+                .basePrice(18000)
+                .type("Washed")
+                .continent("Africa")
+                .nationality("Ethiopia")
+                .options(options)
+                .build();
+
+        long before = statistics.getPrepareStatementCount();
+        ProductResponse response = productService.createProduct(request);
+        productStatements += statistics.getPrepareStatementCount() - before;
+        productCalls++;
+        return response;
+    }
+}
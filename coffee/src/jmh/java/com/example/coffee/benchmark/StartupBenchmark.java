@@ -0,0 +1,164 @@
+package com.example.coffee.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 기동 시간 / 첫 요청까지 걸리는 시간 비교 (JVM, AOT, CDS, AOT + CDS, native).
+ *
+ * 모드마다 서버 프로세스를 runs 번 새로 띄워, 프로세스 시작부터 --path 가 처음 200 을 돌려줄 때까지의 시간과
+ * 로그의 "Started CoffeeApplication in N seconds" 를 기록한다. 결과는 모드별 중앙값을 출력하고
+ * target/startup.csv 에 한 줄씩 추가한다. 서버는 실제 DB 를 쓰므로 DB_URL 등 환경 변수를 그대로 넘긴다.
+ *
+ * <pre>
+ * ./mvnw -Pfast-startup -DskipTests package            # target/fast-startup (+ -Pnative native:compile)
+ * ./mvnw -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.coffee.benchmark.StartupBenchmark -Dexec.args="--runs=5"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Path REPORT = Paths.get("target", "startup.csv");
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--name=value 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        Path dir = Paths.get(option("dir", "target/fast-startup")).toAbsolutePath();
+        String jar = option("jar", "coffee-0.0.1-SNAPSHOT.jar");
+        Path nativeImage = Paths.get(option("native", "target/coffee")).toAbsolutePath();
+        int runs = Integer.parseInt(option("runs", "5"));
+        String path = option("path", "/api/products");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jvm", List.of("java", "-jar", jar));
+        modes.put("aot", List.of("java", "-Dspring.aot.enabled=true", "-jar", jar));
+        modes.put("cds", List.of("java", "-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off", "-jar", jar));
+        modes.put("aot+cds", List.of("java", "-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off",
+                "-Dspring.aot.enabled=true", "-jar", jar));
+        if (Files.isExecutable(nativeImage)) {
+            modes.put("native", List.of(nativeImage.toString()));
+        }
+        Set<String> selected = new HashSet<>(Arrays.asList(option("modes", String.join(",", modes.keySet())).split(",")));
+        modes.keySet().retainAll(selected);
+
+        Files.createDirectories(REPORT.getParent());
+        if (!Files.exists(REPORT)) {
+            Files.writeString(REPORT, "mode,run,started_s,first_request_ms\n");
+        }
+
+        System.out.printf("%-8s %14s %18s%n", "mode", "started(s)", "first request(ms)");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            double[] started = new double[runs];
+            long[] firstRequest = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                Sample sample = launch(mode.getValue(), dir, path);
+                started[i] = sample.startedSeconds();
+                firstRequest[i] = sample.firstRequestMillis();
+                Files.writeString(REPORT, String.join(",", mode.getKey(), String.valueOf(i + 1),
+                                String.valueOf(sample.startedSeconds()), String.valueOf(sample.firstRequestMillis())) + "\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            }
+            Arrays.sort(started);
+            Arrays.sort(firstRequest);
+            System.out.printf("%-8s %14.2f %18d%n", mode.getKey(), started[runs / 2], firstRequest[runs / 2]);
+        }
+    }
+
+    /* 서버 하나를 띄워 첫 200 응답까지 기다린 뒤 종료 */
+    private Sample launch(List<String> command, Path dir, String path) throws Exception {
+        int port = freePort();
+        List<String> full = new ArrayList<>(command);
+        full.add("--server.port=" + port);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(full).directory(dir.toFile()).redirectErrorStream(true).start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    Matcher m = STARTED.matcher(line);
+                    if (m.find()) started.complete(Double.parseDouble(m.group(1)));
+                }
+            } catch (IOException ignored) {
+                // 프로세스 종료
+            }
+        });
+        reader.start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = start + Duration.ofSeconds(Integer.parseInt(option("timeout", "120"))).toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("서버가 종료되었습니다 (exit " + process.exitValue() + "): " + full);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long firstRequest = (System.nanoTime() - start) / 1_000_000;
+                        // 포트는 "Started" 로그보다 먼저 열리므로 로그가 나올 때까지 잠시 기다린다
+                        return new Sample(started.get(10, TimeUnit.SECONDS), firstRequest);
+                    }
+                } catch (IOException notYet) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("시간 안에 응답하지 않았습니다: " + full);
+        } finally {
+            process.destroy();
+            process.waitFor();
+            reader.join();
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Sample(double startedSeconds, long firstRequestMillis) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.service.UploadFileSender;
+import com.example.coffee.storage.LocalBlobStore;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * /uploads/** 서빙 처리량 (UploadFileSender + LocalBlobStore).
+ * 응답 본문은 버리는 스트림에 쓰므로 네트워크 없이 메타데이터 조회 / 조건부 요청 / Range / transferTo 비용만 잰다.
+ * sendfile 은 Tomcat 커넥터가 처리하므로 여기서는 측정하지 않는다 (sendfile 미지원 요청으로 실행).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UploadServingBenchmark {
+
+    private static final String KEY = "detail/ab/cd/abcd" + "0".repeat(60) + ".jpg";
+
+    @Param({"4096", "262144", "4194304"})
+    private int fileSize;
+
+    private Path root;
+    private UploadFileSender sender;
+    private String etag;
+
+    @Setup
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("upload-bench");
+        LocalBlobStore store = new LocalBlobStore();
+        ReflectionTestUtils.setField(store, "uploadDir", root.toString());
+        store.init();
+
+        byte[] content = new byte[fileSize];
+        new Random(1).nextBytes(content);
+        store.put(KEY, new ByteArrayInputStream(content));
+
+        sender = new UploadFileSender(store);
+        ReflectionTestUtils.setField(sender, "maxAge", 31536000L);
+        ReflectionTestUtils.setField(sender, "metadataCacheSize", 1024);
+        ReflectionTestUtils.setField(sender, "metadataTtlMillis", 60000L);
+        ReflectionTestUtils.setField(sender, "sendfileThreshold", 49152L);
+
+        DiscardingResponse response = new DiscardingResponse();
+        sender.send(KEY, new MockHttpServletRequest("GET", "/uploads/" + KEY), response);
+        etag = response.getHeader(HttpHeaders.ETAG);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int fullBody() throws IOException {
+        DiscardingResponse response = new DiscardingResponse();
+        sender.send(KEY, new MockHttpServletRequest("GET", "/uploads/" + KEY), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int rangeRequest() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + KEY);
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-" + (fileSize / 2 - 1));
+        DiscardingResponse response = new DiscardingResponse();
+        sender.send(KEY, request, response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int notModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + KEY);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        DiscardingResponse response = new DiscardingResponse();
+        sender.send(KEY, request, response);
+        return response.getStatus();
+    }
+
+    /* 본문을 메모리에 모으지 않고 버리는 응답 */
+    static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream sink = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return sink;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.coffee.benchmark;
+
+import com.example.coffee.CoffeeApplication;
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.entity.ProductVariant;
+import com.example.coffee.service.OrderService;
+import com.example.coffee.service.VariantPriceTable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 가격 계산 / 주문 응답 조립: 엔티티 경로(variant → 상품/옵션, 2차 캐시) vs VariantPriceTable.
+ * 애플리케이션을 it 프로필(H2 + it-seed.sql)로 띄워 서비스를 직접 호출한다. path=entity 는 가격표를 끈다.
+ *
+ * priceLines: 품목 5개의 단가 + 상품명/옵션값. entity 는 요청마다 영속성 컨텍스트를 열고 find (2차 캐시 적중),
+ *             table 은 표 조회만.
+ * getOrder / createOrder: 서비스 호출 전체 (createOrder 는 품목 5개, 재고 잠금 조회는 두 경로 모두 같다).
+ * 끝나면 호출당 SQL 문 수(Hibernate 통계)를 출력한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantPriceTableBenchmark {
+
+    private static final int ORDER_ITEMS = 5;
+    private static final int ORDERS = 200;
+
+    @Param({"entity", "table"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private VariantPriceTable priceTable;
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private int members;
+    private int variants;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    private long getCalls;
+    private long getStatements;
+    private long createCalls;
+    private long createStatements;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(CoffeeApplication.class)
+                .profiles("it")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=warn",
+                        "app.admission.enabled=false",
+                        "app.catalog.price-table.enabled=" + path.equals("table"))
+                .run();
+        orderService = context.getBean(OrderService.class);
+        priceTable = context.getBean(VariantPriceTable.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        // 측정 중 재고 부족으로 실패하지 않도록 (아직 아무것도 캐시되지 않은 시점)
+        jdbc.update("UPDATE product_variant SET stock = 1000000000");
+        members = jdbc.queryForObject("SELECT COUNT(*) FROM member", Integer.class);
+        variants = jdbc.queryForObject("SELECT COUNT(*) FROM product_variant", Integer.class);
+
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.createOrder(randomOrder()).getOrderId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[%s] SQL 문/호출: getOrder %.1f, createOrder %.1f%n", path,
+                (double) getStatements / Math.max(1, getCalls),
+                (double) createStatements / Math.max(1, createCalls));
+        context.close();
+    }
+
+    @Benchmark
+    public long priceLines() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sum = 0;
+        VariantPriceTable.Snapshot table = priceTable.snapshot();
+        if (table != null) {
+            for (int i = 0; i < ORDER_ITEMS; i++) {
+                int slot = table.indexOf(1 + random.nextInt(variants));
+                sum += table.price(slot) + table.productName(slot).length() + table.optionValue(slot).length();
+            }
+            return sum;
+        }
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            for (int i = 0; i < ORDER_ITEMS; i++) {
+                ProductVariant variant = entityManager.find(ProductVariant.class, (long) (1 + random.nextInt(variants)));
+                sum += variant.getProduct().getBasePrice() + variant.getOption().getExtraPrice()
+                        + variant.getProduct().getProductName().length() + variant.getOption().getOptionValue().length();
+            }
+            return sum;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public OrderResponse getOrder() {
+        Long orderId = orderIds.get(ThreadLocalRandom.current().nextInt(orderIds.size()));
+
+        long before = statistics.getPrepareStatementCount();
+        OrderResponse response = orderService.getOrder(orderId, null, null);
+        getStatements += statistics.getPrepareStatementCount() - before;
+        getCalls++;
+        return response;
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        OrderRequest request = randomOrder();
+
+        long before = statistics.getPrepareStatementCount();
+        OrderResponse response = orderService.createOrder(request);
+        createStatements += statistics.getPrepareStatementCount() - before;
+        createCalls++;
+        return response;
+    }
+
+    private OrderRequest randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>(ORDER_ITEMS);
+        for (int i = 0; i < ORDER_ITEMS; i++) {
+            items.add(new OrderRequest.OrderItemRequest((long) (1 + random.nextInt(variants)), 1));
+        }
+        return new OrderRequest((long) (1 + random.nextInt(members)), "서울특별시 중구 세종대로 110", items);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.coffee.service;
+
+import com.example.coffee.benchmark.Fixtures;
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.entity.Order;
+import com.example.coffee.entity.Product;
+import com.example.coffee.repository.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entity → DTO 변환 비용 (ProductService.toResponse / OrderService.toResponse).
+ * 리포지토리는 미리 만든 목록을 바로 돌려주는 가짜 구현이라 DB 비용은 포함되지 않는다.
+ * 주문 가격표는 비워 두므로 주문은 엔티티 경로로 조립한다 (가격표와의 비교는 VariantPriceTableBenchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoAssemblyBenchmark {
+
+    @Param({"20", "200", "1000"})
+    private int size;
+
+    private ProductService productService;
+    private OrderService orderService;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        List<Fixtures.ProductGraph> catalog = Fixtures.catalog(size);
+        List<Fixtures.OrderGraph> orderGraphs = Fixtures.orders(size, catalog);
+
+        Map<Long, Fixtures.ProductGraph> byProduct = catalog.stream()
+                .collect(Collectors.toMap(g -> g.product().getProductId(), Function.identity()));
+        Map<Long, Fixtures.OrderGraph> byOrder = orderGraphs.stream()
+                .collect(Collectors.toMap(g -> g.order().getOrderId(), Function.identity()));
+
+        ProductImageRepository imageRepository = Fixtures.repository(ProductImageRepository.class, Map.of(
+                "findByProductOrderBySortOrder", args -> byProduct.get(((Product) args[0]).getProductId()).images()));
+        ProductOptionRepository optionRepository = Fixtures.repository(ProductOptionRepository.class, Map.of(
+                "findByProduct", args -> byProduct.get(((Product) args[0]).getProductId()).options()));
+        ProductVariantRepository variantRepository = Fixtures.repository(ProductVariantRepository.class, Map.of(
+                "findByProduct", args -> byProduct.get(((Product) args[0]).getProductId()).variants()));
+        OrderItemRepository orderItemRepository = Fixtures.repository(OrderItemRepository.class, Map.of(
+                "findByOrderWithDetails", args -> byOrder.get(((Order) args[0]).getOrderId()).items()));
+
+        productService = new ProductService(
+                Fixtures.repository(ProductRepository.class, Map.of()),
+                optionRepository, variantRepository, imageRepository, null, null, null, null);
+        orderService = new OrderService(
+                Fixtures.repository(OrderRepository.class, Map.of()),
+                orderItemRepository,
+                Fixtures.repository(MemberRepository.class, Map.of()),
+                variantRepository, null, new VariantPriceTable(variantRepository, null));
+
+        products = catalog.stream().map(Fixtures.ProductGraph::product).toList();
+        orders = orderGraphs.stream().map(Fixtures.OrderGraph::order).toList();
+    }
+
+    @Benchmark
+    public List<ProductResponse> productList() {
+        List<ProductResponse> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            result.add(productService.toResponse(product));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<OrderResponse> orderList() {
+        List<OrderResponse> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            result.add(orderService.toResponse(order));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.coffee.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * DB 를 쓰는 API 의 동시 처리 수 제한 (엔드포인트 묶음별 칸막이).
+ *
+ * 가상 스레드 모드에서는 Tomcat 스레드 수가 더 이상 상한이 아니어서, 몰려든 요청이 전부 커넥션 풀에서
+ * 대기하다 connection-timeout 으로 한꺼번에 실패한다. 또 200MB 멀티파트 업로드가 몰리면 스레드와 커넥션을
+ * 붙잡아 주문까지 함께 멈춘다. 그래서 요청을 세 묶음으로 나눠 각자의 Bulkhead 에서만 자리를 얻게 한다.
+ *
+ * - orders: 주문 생성(POST /api/orders). 한도가 줄어도 orders.reserved 칸은 항상 남는다
+ * - uploads: 멀티파트 요청과 분할 업로드(/api/uploads/**). 한도와 대기열이 작다
+ * - default: paths 의 나머지
+ *
+ * 대기열이 차 있으면 기다리지 않고 429, 대기열에서 queue-timeout 을 넘기면 503. 둘 다 Retry-After 를 준다.
+ *
+ * 들여보낸 요청은 커넥션을 바로 얻어야 하므로 세 묶음의 max 합계는 DB 풀 크기를 넘을 수 없다 (넘으면 기동 실패).
+ * max / min 을 지정하지 않으면 풀 크기에서 나눠 정한다: orders 30%, uploads 10%, 나머지는 default.
+ * orders.reserved 는 orders max 안의 몫이라 다른 묶음이 풀을 다 써도 그만큼의 커넥션은 남는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.queue-timeout-ms:2000}")
+    private long queueTimeoutMillis;
+
+    @Value("${app.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${app.admission.paths:/api/products/**,/api/orders/**,/api/members/**,/api/uploads/**,/api/images/**,/api/admin/catalog/import}")
+    private List<String> paths;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    // 0 = 풀 크기에서 계산 (아래 init)
+    @Value("${app.admission.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${app.admission.min-concurrent:0}")
+    private int minConcurrent;
+
+    @Value("${app.admission.max-queue:200}")
+    private int maxQueue;
+
+    @Value("${app.admission.target-latency-ms:500}")
+    private long targetLatencyMillis;
+
+    @Value("${app.admission.orders.reserved:0}")
+    private int ordersReserved;
+
+    @Value("${app.admission.orders.max-concurrent:0}")
+    private int ordersMaxConcurrent;
+
+    @Value("${app.admission.orders.max-queue:100}")
+    private int ordersMaxQueue;
+
+    @Value("${app.admission.orders.target-latency-ms:500}")
+    private long ordersTargetLatencyMillis;
+
+    @Value("${app.admission.uploads.min-concurrent:1}")
+    private int uploadsMinConcurrent;
+
+    @Value("${app.admission.uploads.max-concurrent:0}")
+    private int uploadsMaxConcurrent;
+
+    @Value("${app.admission.uploads.max-queue:4}")
+    private int uploadsMaxQueue;
+
+    @Value("${app.admission.uploads.target-latency-ms:30000}")
+    private long uploadsTargetLatencyMillis;
+
+    @Value("${app.admission.uploads.retry-after-seconds:5}")
+    private int uploadsRetryAfterSeconds;
+
+    private Bulkhead orders;
+    private Bulkhead uploads;
+    private Bulkhead general;
+
+    @PostConstruct
+    public void init() {
+        int ordersMax = orDerived(ordersMaxConcurrent, poolSize * 3 / 10);
+        int uploadsMax = orDerived(uploadsMaxConcurrent, poolSize / 10);
+        int generalMax = orDerived(maxConcurrent, poolSize - ordersMax - uploadsMax);
+        if (enabled) {
+            checkPoolSize(poolSize, ordersMax, uploadsMax, generalMax);
+        }
+
+        orders = register(new Bulkhead("orders", orDerived(ordersReserved, ordersMax / 2), ordersMax,
+                ordersMaxQueue, ordersTargetLatencyMillis));
+        uploads = register(new Bulkhead("uploads", Math.min(uploadsMinConcurrent, uploadsMax), uploadsMax,
+                uploadsMaxQueue, uploadsTargetLatencyMillis));
+        general = register(new Bulkhead("default", orDerived(minConcurrent, generalMax / 5), generalMax,
+                maxQueue, targetLatencyMillis));
+    }
+
+    /* 들여보낸 요청이 커넥션 풀에서 다시 기다리지 않도록, 묶음별 max 합계는 풀 크기 이하여야 한다 */
+    static void checkPoolSize(int poolSize, int ordersMax, int uploadsMax, int generalMax) {
+        int total = ordersMax + uploadsMax + generalMax;
+        if (ordersMax < 1 || uploadsMax < 1 || generalMax < 1 || total > poolSize) {
+            throw new IllegalStateException("입장 제한이 DB 풀 크기(" + poolSize + ")와 맞지 않습니다: orders="
+                    + ordersMax + ", uploads=" + uploadsMax + ", default=" + generalMax
+                    + " (합계 " + total + "). app.admission.*max-concurrent 또는 DB_POOL_SIZE 를 조정하세요.");
+        }
+    }
+
+    private static int orDerived(int configured, int derived) {
+        return configured > 0 ? configured : Math.max(1, derived);
+    }
+
+    private Bulkhead register(Bulkhead bulkhead) {
+        Gauge.builder("coffee.admission.inflight", bulkhead, Bulkhead::inflight)
+                .tag("group", bulkhead.name()).register(meterRegistry);
+        Gauge.builder("coffee.admission.limit", bulkhead, Bulkhead::limit)
+                .tag("group", bulkhead.name()).register(meterRegistry);
+        Gauge.builder("coffee.admission.queued", bulkhead, Bulkhead::waiting)
+                .tag("group", bulkhead.name()).register(meterRegistry);
+        return bulkhead;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) return true;
+        String uri = path(request);
+        for (String pattern : paths) {
+            if (MATCHER.match(pattern.trim(), uri)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Bulkhead bulkhead = route(request);
+        Bulkhead.Admission admission;
+        try {
+            admission = bulkhead.acquire(queueTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admission = Bulkhead.Admission.TIMED_OUT;
+        }
+        if (admission != Bulkhead.Admission.ADMITTED) {
+            reject(bulkhead, admission, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            bulkhead.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private Bulkhead route(HttpServletRequest request) {
+        String uri = path(request);
+        if (HttpMethod.POST.matches(request.getMethod()) && MATCHER.match("/api/orders", uri)) {
+            return orders;
+        }
+        String contentType = request.getContentType();
+        if ((contentType != null && contentType.toLowerCase().startsWith("multipart/"))
+                || MATCHER.match("/api/uploads/**", uri)) {
+            return uploads;
+        }
+        return general;
+    }
+
+    private void reject(Bulkhead bulkhead, Bulkhead.Admission admission,
+                        HttpServletResponse response) throws IOException {
+        boolean queueFull = admission == Bulkhead.Admission.QUEUE_FULL;
+        Counter.builder("coffee.admission.rejected")
+                .tag("group", bulkhead.name())
+                .tag("reason", queueFull ? "queue_full" : "timeout")
+                .register(meterRegistry)
+                .increment();
+
+        int retryAfter = bulkhead == uploads ? uploadsRetryAfterSeconds : retryAfterSeconds;
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        // sendError 는 /error 로 다시 디스패치되므로 (보안 필터를 또 거침) 직접 쓴다
+        response.setStatus(queueFull ? 429 : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("서버가 혼잡합니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.coffee.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 엔드포인트 묶음 하나의 동시 처리 칸막이. 대기열 길이가 정해져 있고, 동시 처리 한도는 관측한 지연 시간에 따라
+ * AIMD 로 움직인다.
+ *
+ * - 요청이 target-latency 안에 끝나고 한도를 절반 이상 쓰고 있으면 한도를 1/limit 씩 늘린다 (한도만큼 끝나면 +1).
+ * - target-latency 를 넘기거나 5xx 로 끝나면 한도를 backoff 배로 줄인다. 같은 혼잡으로 동시에 끝난 요청들이
+ *   한도를 연달아 깎지 않도록, 줄이는 것은 직전 감소 이후 그 요청의 처리 시간만큼 지났을 때만 한다.
+ * - 한도는 min ~ max 사이. min 은 혼잡해도 남겨 두는 몫이다.
+ */
+final class Bulkhead {
+
+    enum Admission { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    private static final double BACKOFF = 0.9;
+
+    private final String name;
+    private final int min;
+    private final int max;
+    private final int maxQueue;
+    private final long targetNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private volatile double limit;
+    private volatile int inflight;
+    private volatile int waiting;
+    private long lastDecrease;
+
+    Bulkhead(String name, int min, int max, int maxQueue, long targetLatencyMillis) {
+        if (min < 1 || max < min || maxQueue < 0) {
+            throw new IllegalArgumentException("잘못된 동시 처리 한도 (" + name + "): min=" + min
+                    + ", max=" + max + ", max-queue=" + maxQueue);
+        }
+        this.name = name;
+        this.min = min;
+        this.max = max;
+        this.maxQueue = maxQueue;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.limit = max;
+        // 첫 감소는 바로 일어나도록
+        this.lastDecrease = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+    }
+
+    /* 한도 안이면 바로, 아니면 대기열에서 timeout 까지 기다린다. 대기열도 차 있으면 기다리지 않는다 */
+    Admission acquire(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inflight < (int) limit) {
+                inflight++;
+                return Admission.ADMITTED;
+            }
+            if (waiting >= maxQueue) {
+                return Admission.QUEUE_FULL;
+            }
+            waiting++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+                while (inflight >= (int) limit) {
+                    if (remaining <= 0) return Admission.TIMED_OUT;
+                    remaining = available.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+            inflight++;
+            // 한도가 늘었으면 다음 대기자도 들어올 수 있다
+            if (waiting > 0 && inflight < (int) limit) available.signal();
+            return Admission.ADMITTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long elapsedNanos, boolean failed) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (failed || elapsedNanos > targetNanos) {
+                if (now - lastDecrease >= elapsedNanos) {
+                    limit = Math.max(min, limit * BACKOFF);
+                    lastDecrease = now;
+                }
+            } else if (inflight * 2 >= limit) {
+                limit = Math.min(max, limit + 1 / limit);
+            }
+            inflight--;
+            if (waiting > 0) available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inflight() {
+        return inflight;
+    }
+
+    int waiting() {
+        return waiting;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.coffee.config;
+
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.id.AppId;
+import com.example.coffee.id.AppIdGenerator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.*;
+
+/**
+ * AOT / native image 에서 Spring 이 스스로 찾지 못하는 리플렉션 / 리소스 / 프록시.
+ *
+ * 엔티티, 컨트롤러의 요청/응답 DTO 는 Spring AOT 가 등록한다. 여기에는 그 밖의 경로만 적는다.
+ * - Hibernate 가 @AppId 로 리플렉션 생성하는 AppIdGenerator
+ * - ProductController 가 직접 파싱하는 options JSON (ProductRequest.OptionRequest)
+ * - 2차 캐시 설정 ehcache.xml
+ * - 요청 추적(TracingDataSource)의 JDBC 인터페이스 프록시
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(AppIdGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(AppId.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        bindingRegistrar.registerReflectionHints(hints.reflection(), ProductRequest.OptionRequest.class);
+
+        hints.resources().registerPattern("ehcache.xml");
+
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(Statement.class);
+        hints.proxies().registerJdkProxy(PreparedStatement.class);
+        hints.proxies().registerJdkProxy(CallableStatement.class);
+        hints.proxies().registerJdkProxy(ResultSet.class);
+    }
+}
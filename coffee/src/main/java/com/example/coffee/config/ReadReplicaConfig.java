@@ -0,0 +1,89 @@
+package com.example.coffee.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 복제본 라우팅. app.datasource.replica.urls 가 비어 있으면 적용하지 않고
+ * Spring Boot 기본 DataSource(spring.datasource.*) 하나만 쓴다.
+ *
+ * primary 는 spring.datasource.* / spring.datasource.hikari.* 로 만들고,
+ * 복제본 풀은 primary 풀 설정을 복사한 뒤 URL / 계정 / 연결 대기 시간만 바꾼다.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    // 쓰기 후 이 시간 동안은 같은 클라이언트의 읽기도 primary 로 (복제 지연보다 길게)
+    @Value("${app.datasource.replica.sticky-ms:5000}")
+    private long stickyMillis;
+
+    // 연결에 실패한 복제본을 다시 시도하기까지의 시간
+    @Value("${app.datasource.replica.retry-ms:30000}")
+    private long retryMillis;
+
+    // 복제본 장애 시 primary 로 넘어가기까지 기다리는 시간 (primary 의 connection-timeout 보다 짧게)
+    @Value("${app.datasource.replica.connection-timeout-ms:500}")
+    private long connectionTimeoutMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setConnectionTimeout(connectionTimeoutMillis);
+            // 복제본이 내려가 있어도 애플리케이션은 뜨도록 (primary 로 읽음)
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry ->
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, stickyMillis, retryMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
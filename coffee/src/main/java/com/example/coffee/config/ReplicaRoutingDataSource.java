@@ -0,0 +1,170 @@
+package com.example.coffee.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본, 나머지는 primary 로 보내는 DataSource.
+ *
+ * 커넥션을 꺼내는 시점에 현재 트랜잭션이 readOnly 인지로 판단하므로 반드시 LazyConnectionDataSourceProxy 로
+ * 감싸서 쓴다 (JpaTransactionManager 는 readOnly 플래그를 세우기 전에 커넥션을 요청한다).
+ *
+ * - 복제본은 라운드로빈. 커넥션을 얻지 못한 복제본은 retryMillis 동안 제외하고 다음 복제본 → primary 순으로 넘어간다.
+ * - read-your-writes: 쓰기 트랜잭션이 커밋되면 같은 요청의 이후 읽기와, 쿠키를 가진 클라이언트의
+ *   stickyMillis 동안의 읽기를 primary 로 보낸다 (복제 지연 동안 방금 쓴 내용이 안 보이는 문제 방지).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    static final String STICKY_COOKIE = "rw-primary-until";
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".wrote";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long stickyMillis;
+    private final long retryMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // 복제본별 "이 시각까지 제외" (epoch millis, 0 = 사용 가능)
+    private final AtomicLongArray downUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    long stickyMillis, long retryMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.stickyMillis = stickyMillis;
+        this.retryMillis = retryMillis;
+        this.downUntil = new AtomicLongArray(this.replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    /* 같은 규칙으로 고른 DataSource 에 사용자 / 비밀번호를 넘긴다 (지원 여부는 그 DataSource 에 따름) */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!routeToReplica()) {
+            return connector.connect(primary);
+        }
+
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            if (downUntil.get(index) > now) continue;
+            try {
+                Connection connection = connector.connect(replicas.get(index));
+                downUntil.set(index, 0);
+                return connection;
+            } catch (SQLException e) {
+                downUntil.set(index, now + retryMillis);
+                log.warn("복제본 #{} 연결 실패, {}ms 동안 제외합니다: {}", index, retryMillis, e.getMessage());
+            }
+        }
+        // 사용할 수 있는 복제본이 없으면 primary 에서 읽는다
+        return connector.connect(primary);
+    }
+
+    /* 사용 중인 복제본 수 (제외된 복제본 빼고) */
+    public int availableReplicas() {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            if (downUntil.get(i) <= now) count++;
+        }
+        return count;
+    }
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 트랜잭션 밖 (스키마 확인, 초기화 SQL 등)
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            onWrite();
+            return false;
+        }
+        return !replicas.isEmpty() && !sticky();
+    }
+
+    /* 쓰기 트랜잭션이 커밋되면 이 요청과 이 클라이언트를 잠시 primary 에 고정 */
+    private void onWrite() {
+        if (stickyMillis <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attributes.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+                HttpServletResponse response = attributes.getResponse();
+                if (response != null && !response.isCommitted()) {
+                    Cookie cookie = new Cookie(STICKY_COOKIE,
+                            String.valueOf(System.currentTimeMillis() + stickyMillis));
+                    cookie.setPath("/");
+                    cookie.setHttpOnly(true);
+                    cookie.setMaxAge((int) Math.max(1, (stickyMillis + 999) / 1000));
+                    response.addCookie(cookie);
+                }
+            }
+        });
+    }
+
+    private boolean sticky() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        if (attributes.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return false;
+        for (Cookie cookie : cookies) {
+            if (STICKY_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.coffee.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 백그라운드 정리 작업(@Scheduled) 활성화.
+ * app.scheduling.enabled=false 면 끈다 (쿼리 수를 세는 통합 테스트 등).
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,32 @@
+package com.example.coffee.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 기동 시 Flyway 마이그레이션 적용 여부 (app.schema.migrate-on-startup).
+ *
+ * spring.flyway.enabled 는 AOT 빌드에서 빌드 시점에 고정되므로, 실행할 때 끌 수 있도록 여기서 판단한다.
+ * 끄는 경우: DB 없이 기동하는 CDS 학습 실행, 배포 파이프라인에서 마이그레이션을 따로 돌리는 경우.
+ */
+@Slf4j
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Value("${app.schema.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("app.schema.migrate-on-startup=false: 스키마 마이그레이션을 건너뜁니다");
+            }
+        };
+    }
+}
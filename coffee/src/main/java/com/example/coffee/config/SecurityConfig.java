@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -22,9 +23,16 @@ public class SecurityConfig {
             .and()
             .csrf().disable()
             .authorizeHttpRequests(auth -> auth
+                // 운영용 API (요청 추적, 캐시 비우기, 업로드 경로 이동, 카탈로그 가져오기 등)는 관리자만.
+                // /api/** 보다 먼저 와야 한다
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/**").permitAll()
+                // 헬스 체크 / Prometheus 수집 (나머지 actuator 는 노출하지 않음)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
-            );
+            )
+            // 관리자 계정은 spring.security.user.* (application.properties)
+            .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
@@ -0,0 +1,43 @@
+package com.example.coffee.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 요청 처리 / 백그라운드 작업 스레드 종류.
+ *
+ * spring.threads.virtual.enabled=true 이고 JDK 21 이상이면 가상 스레드를 쓴다.
+ * (Tomcat 요청 처리와 @Scheduled 는 Spring Boot 가 같은 조건으로 전환하고,
+ * 직접 만드는 executor 는 여기서 스레드 팩토리를 받아 맞춘다.) JDK 17 에서는 설정과 관계없이 플랫폼 스레드.
+ */
+@Component
+@RequiredArgsConstructor
+public class ThreadMode {
+
+    private final Environment environment;
+
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * prefix 뒤에 번호를 붙인 이름의 스레드를 만든다. 플랫폼 스레드는 daemon.
+     */
+    public ThreadFactory factory(String prefix) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -1,17 +1,21 @@
 package com.example.coffee.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.example.coffee.service.FieldSelection;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
-
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -21,11 +25,30 @@ public class WebConfig implements WebMvcConfigurer {
             .allowCredentials(true);
     }
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // serve uploaded files from configured upload directory
-        String location = "file:" + uploadDir + "/";
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(location);
+    // 업로드 파일(/uploads/**)은 UploadController 에서 직접 서빙
+
+    /* 응답 DTO 의 @JsonFilter 기본값 (전부 직렬화). ?fields= 가 있으면 FieldSelection.view 가 요청마다 바꾼다.
+       builder 에 걸어 두므로 JSON / CBOR / Smile 이 모두 같은 기본 필터를 쓴다 */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilter() {
+        return builder -> builder.filters(FieldSelection.SERIALIZE_ALL);
+    }
+
+    /* =========================
+       바이너리 응답 형식 (Accept 헤더 또는 ?format=cbor|smile)
+       JSON 과 같은 Jackson 설정(날짜 형식 등)을 쓰도록 Boot 의 builder 로 만든다
+       ========================= */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // 키 이름은 기본으로 공유되고, 값도 공유하면 반복되는 상태명 / 상품명 / 옵션명이 한 번만 실린다
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
     }
 }
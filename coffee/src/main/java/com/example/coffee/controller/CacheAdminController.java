@@ -0,0 +1,32 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.CacheRegionStatsResponse;
+import com.example.coffee.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final CacheStatsService cacheStatsService;
+
+    // =========================
+    // 2차 캐시 리전별 hit ratio
+    // =========================
+    @GetMapping("/stats")
+    public List<CacheRegionStatsResponse> stats() {
+        return cacheStatsService.regionStats();
+    }
+
+    // =========================
+    // 전체 캐시 비우기 (DB 를 직접 수정한 경우)
+    // =========================
+    @PostMapping("/evict")
+    public void evictAll() {
+        cacheStatsService.evictAll();
+    }
+}
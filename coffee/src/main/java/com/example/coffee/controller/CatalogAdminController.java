@@ -0,0 +1,53 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.CatalogImportResponse;
+import com.example.coffee.service.CatalogExportService;
+import com.example.coffee.service.CatalogFormat;
+import com.example.coffee.service.CatalogImportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@RequiredArgsConstructor
+public class CatalogAdminController {
+
+    private final CatalogImportService catalogImportService;
+    private final CatalogExportService catalogExportService;
+
+    // =========================
+    // 일괄 가져오기 (CSV / NDJSON, 이미지는 선택적으로 ZIP)
+    // fileFormat(csv / ndjson)을 생략하면 파일 확장자로, dryRun=true 면 검증만 하고 등록하지 않음
+    // (format 파라미터는 응답 형식 협상에 쓰이므로 fileFormat)
+    // =========================
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CatalogImportResponse importCatalog(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart(value = "images", required = false) MultipartFile images,
+            @RequestParam(value = "fileFormat", required = false) String format,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun
+    ) throws IOException {
+        return catalogImportService.importCatalog(file, images, format, dryRun);
+    }
+
+    // =========================
+    // 내보내기 (페이지 단위로 읽으면서 바로 스트리밍, 가져오기 형식과 같음)
+    // =========================
+    @GetMapping("/export")
+    public void export(@RequestParam(value = "fileFormat", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        CatalogFormat catalogFormat = CatalogFormat.of(format, null);
+        response.setContentType(catalogFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"catalog." + catalogFormat.extension() + "\"");
+        catalogExportService.export(catalogFormat, response.getOutputStream());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.UploadSessionRequest;
+import com.example.coffee.dto.UploadSessionResponse;
+import com.example.coffee.dto.UploadTokenResponse;
+import com.example.coffee.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    // =========================
+    // 분할 업로드 시작 → uploadId, chunkSize, chunkCount
+    // =========================
+    @PostMapping
+    public UploadSessionResponse createSession(@RequestBody UploadSessionRequest req) {
+        return chunkedUploadService.createSession(req);
+    }
+
+    // =========================
+    // 받은 조각 조회 (연결이 끊긴 뒤 이어서 보낼 때)
+    // =========================
+    @GetMapping("/{uploadId}")
+    public UploadSessionResponse getSession(@PathVariable String uploadId) throws IOException {
+        return chunkedUploadService.getSession(uploadId);
+    }
+
+    // =========================
+    // 조각 전송 (본문 = 조각 바이트 그대로, application/octet-stream)
+    // =========================
+    @PutMapping("/{uploadId}/chunks/{index}")
+    public void putChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            HttpServletRequest request) throws IOException {
+        chunkedUploadService.putChunk(uploadId, index, request.getInputStream());
+    }
+
+    // =========================
+    // 완료 → 스테이징 토큰 (상품 등록/수정의 thumbnailToken / detailImageTokens 로 사용)
+    // =========================
+    @PostMapping("/{uploadId}/complete")
+    public UploadTokenResponse complete(@PathVariable String uploadId) throws IOException {
+        return UploadTokenResponse.builder()
+                .token(chunkedUploadService.complete(uploadId))
+                .build();
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public void abort(@PathVariable String uploadId) {
+        chunkedUploadService.abort(uploadId);
+    }
+}
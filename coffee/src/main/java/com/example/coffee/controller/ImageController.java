@@ -0,0 +1,72 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.UploadTokenResponse;
+import com.example.coffee.service.FileStorageService;
+import com.example.coffee.service.ImageDerivativeService;
+import com.example.coffee.service.UploadFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final String PREFIX = "/api/images/";
+    private static final Set<String> ALLOWED_SUBDIRS = Set.of("thumbnail", "detail");
+
+    private final ImageDerivativeService imageDerivativeService;
+    private final UploadFileSender uploadFileSender;
+    private final FileStorageService fileStorageService;
+
+    // =========================
+    // 이미지 미리 업로드 (stage) → 상품 등록/수정 시 thumbnailToken / detailImageTokens 로 사용
+    // =========================
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public UploadTokenResponse stageImage(
+            @RequestParam("type") String type,
+            @RequestPart("file") MultipartFile file) throws IOException {
+        return UploadTokenResponse.builder()
+                .token(fileStorageService.stage(file, type))
+                .build();
+    }
+
+    // =========================
+    // 이미지 조회 (size: 원하는 너비, 없으면 원본)
+    // 예) /api/images/thumbnail/ab/cd/abcd....png?size=320
+    // =========================
+    @GetMapping("/**")
+    public void getImage(
+            @RequestParam(value = "size", required = false) Integer size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (uri.length() <= PREFIX.length()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String relativePath = UriUtils.decode(uri.substring(PREFIX.length()), StandardCharsets.UTF_8);
+        int slash = relativePath.indexOf('/');
+        if (slash <= 0 || !ALLOWED_SUBDIRS.contains(relativePath.substring(0, slash))
+                || !FileStorageService.isSafeKey(relativePath)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String key = imageDerivativeService.resolve(relativePath, size);
+
+        // 아직 리사이즈 버전이 없어서 원본을 준 경우는 오래 캐시하지 않음
+        boolean exact = size == null || !key.equals(relativePath);
+        uploadFileSender.send(key, request, response, exact);
+    }
+}
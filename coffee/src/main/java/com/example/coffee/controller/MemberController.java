@@ -1,7 +1,9 @@
 package com.example.coffee.controller;
 
+import com.example.coffee.dto.MemberPageResponse;
 import com.example.coffee.dto.MemberRequest;
 import com.example.coffee.dto.MemberResponse;
+import com.example.coffee.dto.MemberSearchResponse;
 import com.example.coffee.service.MemberService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +27,20 @@ public class MemberController {
         return memberService.getAllMembers();
     }
 
+    @GetMapping("/page")
+    public MemberPageResponse getMemberPage(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+        return memberService.getMemberPage(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<MemberSearchResponse> searchMembers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        return memberService.searchMembers(query, limit);
+    }
+
     @GetMapping("/{id}")
     public MemberResponse getMember(@PathVariable Long id) {
         return memberService.getMember(id);
@@ -1,13 +1,15 @@
 package com.example.coffee.controller;
 
+import com.example.coffee.dto.BulkDeleteRequest;
+import com.example.coffee.dto.BulkDeleteResponse;
 import com.example.coffee.dto.OrderRequest;
 import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.service.FieldSelection;
 import com.example.coffee.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -20,14 +22,22 @@ public class OrderController {
         return orderService.createOrder(request);
     }
 
+    // ?fields=orderId,status,totalAmount 처럼 필요한 필드만, ?expand=items,member 로 하위 리소스를 고른다. 둘 다 없으면 전부
     @GetMapping
-    public List<OrderResponse> getOrders() {
-        return orderService.getAllOrders();
+    public MappingJacksonValue getOrders(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        FieldSelection selection = orderService.selectFields(fields, expand);
+        return selection.view(orderService.getAllOrders(selection));
     }
 
     @GetMapping("/{id}")
-    public OrderResponse getOrder(@PathVariable Long id) {
-        return orderService.getOrder(id);
+    public MappingJacksonValue getOrder(
+            @PathVariable Long id,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        FieldSelection selection = orderService.selectFields(fields, expand);
+        return selection.view(orderService.getOrder(id, selection));
     }
 
     @PatchMapping("/{id}/status")
@@ -41,4 +51,10 @@ public class OrderController {
     public void deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
     }
+
+    // {"ids": [1, 2, 3]}. 출고 전 주문의 재고는 돌려놓는다
+    @PostMapping("/bulk-delete")
+    public BulkDeleteResponse deleteOrders(@RequestBody BulkDeleteRequest request) {
+        return orderService.deleteOrders(request.getIds());
+    }
 }
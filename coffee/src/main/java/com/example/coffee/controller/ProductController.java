@@ -1,12 +1,17 @@
 package com.example.coffee.controller;
 
+import com.example.coffee.dto.BulkDeleteRequest;
+import com.example.coffee.dto.BulkDeleteResponse;
 import com.example.coffee.dto.ProductRequest;
 import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.service.FieldSelection;
+import com.example.coffee.service.FileStorageService;
 import com.example.coffee.service.ProductService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,6 +24,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final FileStorageService fileStorageService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // =========================
@@ -32,6 +38,8 @@ public class ProductController {
             @RequestParam(value = "continent", required = false) String continent,
             @RequestParam(value = "nationality", required = false) String nationality,
             @RequestParam(value = "options", required = false) String optionsJson,
+            @RequestParam(value = "thumbnailToken", required = false) String thumbnailToken,
+            @RequestParam(value = "detailImageTokens", required = false) List<String> detailImageTokens,
             @RequestPart(value = "thumbnail", required = false) MultipartFile thumbnail,
             @RequestPart(value = "detailImages", required = false) List<MultipartFile> detailImages
     ) throws IOException {
@@ -52,7 +60,8 @@ public class ProductController {
             req.setOptions(opts);
         }
 
-        return productService.createProduct(req, thumbnail, detailImages);
+        stageImages(req, thumbnailToken, detailImageTokens, thumbnail, detailImages);
+        return productService.createProduct(req);
     }
 
     // =========================
@@ -67,6 +76,8 @@ public class ProductController {
             @RequestParam(value = "continent", required = false) String continent,
             @RequestParam(value = "nationality", required = false) String nationality,
             @RequestParam(value = "options", required = false) String optionsJson,
+            @RequestParam(value = "thumbnailToken", required = false) String thumbnailToken,
+            @RequestParam(value = "detailImageTokens", required = false) List<String> detailImageTokens,
             @RequestPart(value = "thumbnail", required = false) MultipartFile thumbnail,
             @RequestPart(value = "detailImages", required = false) List<MultipartFile> detailImages
     ) throws IOException {
@@ -87,7 +98,24 @@ public class ProductController {
             req.setOptions(opts);
         }
 
-        return productService.updateProduct(id, req, thumbnail, detailImages);
+        stageImages(req, thumbnailToken, detailImageTokens, thumbnail, detailImages);
+        return productService.updateProduct(id, req);
+    }
+
+    // 파일이 함께 오면 트랜잭션 시작 전에 병렬로 stage 해서 토큰으로 바꾼다
+    private void stageImages(
+            ProductRequest req,
+            String thumbnailToken,
+            List<String> detailImageTokens,
+            MultipartFile thumbnail,
+            List<MultipartFile> detailImages
+    ) throws IOException {
+        req.setThumbnailToken(thumbnail != null && !thumbnail.isEmpty()
+                ? fileStorageService.stage(thumbnail, "thumbnail")
+                : thumbnailToken);
+        req.setDetailImageTokens(detailImages != null && !detailImages.isEmpty()
+                ? fileStorageService.stageAll(detailImages, "detail")
+                : detailImageTokens);
     }
 
     // =========================
@@ -98,11 +126,25 @@ public class ProductController {
         productService.deleteProduct(id);
     }
 
+    // =========================
+    // 상품 일괄 삭제 {"ids": [1, 2, 3]}
+    // 주문 내역이 있는 상품이 하나라도 있으면 아무것도 지우지 않는다
+    // =========================
+    @PostMapping("/bulk-delete")
+    public BulkDeleteResponse deleteProducts(@RequestBody BulkDeleteRequest request) {
+        return productService.deleteProducts(request.getIds());
+    }
+
     // =========================
     // 전체 상품 조회
+    // ?fields=productId,productName,basePrice,thumbnailImg 처럼 필요한 필드만,
+    // ?expand=options 로 하위 리소스(detailImages, options)를 고른다. 둘 다 없으면 전부
     // =========================
     @GetMapping
-    public List<ProductResponse> getProducts() {
-        return productService.getAllProducts();
+    public MappingJacksonValue getProducts(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        FieldSelection selection = productService.selectFields(fields, expand);
+        return selection.view(productService.getAllProducts(selection));
     }
 }
@@ -0,0 +1,38 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.LowStockResponse;
+import com.example.coffee.dto.StockAlertResponse;
+import com.example.coffee.service.LowStockIndex;
+import com.example.coffee.service.StockAlertFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/stock")
+@RequiredArgsConstructor
+public class StockAdminController {
+
+    private final LowStockIndex lowStockIndex;
+    private final StockAlertFeed stockAlertFeed;
+
+    // =========================
+    // 재고가 below 미만인 variant (재고가 적은 것부터, 메모리 인덱스에서만 읽음)
+    // below 를 생략하면 app.stock.low-threshold
+    // =========================
+    @GetMapping("/low")
+    public List<LowStockResponse> low(@RequestParam(required = false) Integer below,
+                                      @RequestParam(defaultValue = "100") int limit) {
+        return lowStockIndex.below(below != null ? below : lowStockIndex.threshold(), limit);
+    }
+
+    // =========================
+    // 재고 알림 (부족 / 품절 / 재입고). 마지막으로 받은 id 를 after 로 넘기면 그 뒤의 것만
+    // =========================
+    @GetMapping("/alerts")
+    public List<StockAlertResponse> alerts(@RequestParam(defaultValue = "0") long after,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        return stockAlertFeed.after(after, limit);
+    }
+}
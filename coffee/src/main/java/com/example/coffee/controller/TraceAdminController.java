@@ -0,0 +1,39 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.dto.RequestTraceResponse;
+import com.example.coffee.dto.RequestTraceSummaryResponse;
+import com.example.coffee.trace.SlowRequestLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class TraceAdminController {
+
+    private final SlowRequestLog slowRequestLog;
+
+    // =========================
+    // 느린 요청 목록 (최근 것부터, app.trace.enabled=true 일 때만 쌓임)
+    // =========================
+    @GetMapping
+    public List<RequestTraceSummaryResponse> recent(@RequestParam(defaultValue = "50") int limit) {
+        return slowRequestLog.recent(limit);
+    }
+
+    // =========================
+    // 요청 하나의 SQL / 저장소 I/O 상세
+    // =========================
+    @GetMapping("/{id}")
+    public RequestTraceResponse get(@PathVariable long id) {
+        return slowRequestLog.find(id)
+                .orElseThrow(() -> new RuntimeException("추적 기록을 찾을 수 없습니다. (이미 밀려났을 수 있습니다)"));
+    }
+
+    @DeleteMapping
+    public void clear() {
+        slowRequestLog.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.service.UploadLayoutMigrator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/uploads")
+@RequiredArgsConstructor
+public class UploadAdminController {
+
+    private final UploadLayoutMigrator uploadLayoutMigrator;
+
+    // =========================
+    // flat → sharded 디렉토리 마이그레이션 (한 번에 batchSize 개, done=true 가 될 때까지 반복 호출)
+    // =========================
+    @PostMapping("/migrate-layout")
+    public Map<String, Object> migrateLayout(
+            @RequestParam(value = "batchSize", required = false, defaultValue = "500") int batchSize
+    ) throws IOException {
+        int size = Math.max(1, Math.min(batchSize, 5000));
+        int migrated = uploadLayoutMigrator.migrateBatch(size);
+        return Map.of(
+                "migrated", migrated,
+                "done", migrated < size
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.coffee.controller;
+
+import com.example.coffee.service.FileStorageService;
+import com.example.coffee.service.UploadFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final UploadFileSender uploadFileSender;
+
+    // =========================
+    // 업로드 파일 서빙 (Range / ETag / immutable 캐시)
+    // =========================
+    @GetMapping("/uploads/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (uri.length() <= PREFIX.length()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String relative = UriUtils.decode(uri.substring(PREFIX.length()), StandardCharsets.UTF_8);
+
+        // 경로 탐색 공격 방지 + 임시/스테이징 영역 노출 방지
+        if (!FileStorageService.isSafeKey(relative)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        uploadFileSender.send(relative, request, response);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteRequest {
+    private List<Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResponse {
+    // 요청한 id 수 (중복 제외) / 실제로 지운 수 (없는 id 는 건너뛴다)
+    private int requested;
+    private int deleted;
+    // 커밋 후 삭제 큐에 넣은 파일 수 (주문은 0)
+    private int filesScheduled;
+}
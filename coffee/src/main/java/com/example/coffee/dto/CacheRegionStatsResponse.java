@@ -0,0 +1,17 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsResponse {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    // hit / (hit + miss), 조회가 없으면 0
+    private double hitRatio;
+    private long elementCountInMemory;
+}
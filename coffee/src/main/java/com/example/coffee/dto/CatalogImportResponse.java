@@ -0,0 +1,33 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportResponse {
+    private String format;
+    private boolean dryRun;
+    // 읽은 행 수 / 등록한 상품 수 (dryRun 이면 검증을 통과한 수) / 실패한 행 수
+    private int rows;
+    private int imported;
+    private int failed;
+    // 실패한 행 (최대 max-errors 개, 넘으면 errorsTruncated)
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private long elapsedMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        // 행이 시작하는 줄 번호 (1부터, CSV 헤더 포함)
+        private int line;
+        private String productName;
+        private String message;
+    }
+}
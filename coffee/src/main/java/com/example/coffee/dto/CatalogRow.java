@@ -0,0 +1,26 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 카탈로그 가져오기/내보내기의 한 행 (상품 1개 + 옵션/재고 + 이미지).
+ * 이미지는 함께 올린 ZIP 안의 파일 이름이거나 이미 저장된 경로(thumbnail/..., detail/...).
+ * productId 는 내보낼 때만 채워지고 가져올 때는 무시한다 (항상 새 상품으로 등록).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogRow {
+    private Long productId;
+    private String productName;
+    private Integer basePrice;
+    private String type;
+    private String continent;
+    private String nationality;
+    private List<ProductRequest.OptionRequest> options;
+    private String thumbnail;
+    private List<String> detailImages;
+}
@@ -0,0 +1,15 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockResponse {
+    private Long variantId;
+    private Long productId;
+    private String productName;
+    private String optionValue;
+    private Integer stock;
+}
@@ -0,0 +1,14 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberPageResponse {
+    private List<MemberResponse> members;
+    private Long nextCursor;
+    private boolean hasNext;
+}
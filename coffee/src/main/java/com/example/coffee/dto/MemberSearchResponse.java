@@ -0,0 +1,14 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberSearchResponse {
+    private Long memberId;
+    private String email;
+    private String name;
+    private String phone;
+}
@@ -1,9 +1,12 @@
 package com.example.coffee.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// ?fields= / ?expand= 로 고르지 않은 필드는 응답에서 뺀다 (FieldSelection.FILTER, 선택이 없으면 전부)
+@JsonFilter("fieldSelection")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +16,10 @@ public class ProductRequest {
     private String nationality;
     private List<OptionRequest> options;
 
+    // 미리 업로드(stage)된 이미지 토큰
+    private String thumbnailToken;
+    private List<String> detailImageTokens;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
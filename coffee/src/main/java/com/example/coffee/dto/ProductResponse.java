@@ -1,5 +1,6 @@
 package com.example.coffee.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,8 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+// ?fields= / ?expand= 로 고르지 않은 필드는 응답에서 뺀다 (FieldSelection.FILTER, 선택이 없으면 전부)
+@JsonFilter("fieldSelection")
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,6 +22,7 @@ public class ProductResponse {
     private String continent;
     private String nationality;
     private String thumbnailImg;
+    private List<Integer> thumbnailWidths;
     private List<ImageResponse> detailImages;
     private List<OptionResponse> options;
 
@@ -29,6 +33,7 @@ public class ProductResponse {
     public static class ImageResponse {
         private Long imageId;
         private String imageUrl;
+        private List<Integer> widths;
         private Integer sortOrder;
     }
 
@@ -0,0 +1,53 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestTraceResponse {
+    private RequestTraceSummaryResponse summary;
+    // 같은 SQL 끼리 묶어 총 시간이 큰 순서
+    private List<SqlGroup> sqlGroups;
+    // 실행 순서대로 (app.trace.max-statements 까지)
+    private List<SqlStatement> statements;
+    // 목록에서 빠진 SQL 수 (합계에는 포함)
+    private int droppedStatements;
+    private List<StorageIo> storageIo;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SqlStatement {
+        private String sql;
+        private double durationMs;
+        // -1 = 알 수 없음
+        private long rows;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SqlGroup {
+        private String sql;
+        private int count;
+        private double totalMs;
+        private long rows;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StorageIo {
+        private String operation;
+        private long count;
+        private double totalMs;
+        private long bytes;
+    }
+}
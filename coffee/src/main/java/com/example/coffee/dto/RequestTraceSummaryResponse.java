@@ -0,0 +1,23 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestTraceSummaryResponse {
+    private long id;
+    private String method;
+    private String uri;
+    // 처리한 컨트롤러 메서드 (예: "OrderController#getOrder")
+    private String handler;
+    private int status;
+    private LocalDateTime startedAt;
+    private double durationMs;
+    private int sqlCount;
+    private double sqlMs;
+    private double ioMs;
+}
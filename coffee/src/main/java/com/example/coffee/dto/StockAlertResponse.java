@@ -0,0 +1,22 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAlertResponse {
+    private long id;
+    private String type;            // LOW, OUT_OF_STOCK, RESTOCKED
+    private Long variantId;
+    private Long productId;
+    private String productName;
+    private String optionValue;
+    private Integer previousStock;  // 새로 생긴 재고면 null
+    private Integer stock;
+    private int threshold;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionRequest {
+    private String type;          // thumbnail / detail
+    private String filename;      // 확장자 검증용
+    private String contentType;   // image/jpeg 등
+    private long totalSize;
+}
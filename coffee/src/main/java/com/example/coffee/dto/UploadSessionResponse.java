@@ -0,0 +1,19 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+    private String uploadId;
+    private long totalSize;
+    private int chunkSize;
+    private int chunkCount;
+
+    // 이미 받은 조각 번호 (재개 시 나머지만 전송)
+    private List<Integer> receivedChunks;
+}
@@ -0,0 +1,16 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantPriceRow {
+    private Long variantId;
+    private Long productId;
+    private Integer basePrice;
+    private Integer extraPrice;
+    private String productName;
+    private String optionValue;
+}
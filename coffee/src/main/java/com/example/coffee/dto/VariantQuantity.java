@@ -0,0 +1,13 @@
+package com.example.coffee.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantQuantity {
+    private Long variantId;
+    // JPQL SUM 결과라 Long
+    private Long quantity;
+}
@@ -1,5 +1,6 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 public class Member {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "member", column = "member_id")
     @Column(name = "member_id")
     private Long memberId;
 
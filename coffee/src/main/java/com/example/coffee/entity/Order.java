@@ -1,5 +1,6 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -16,7 +17,7 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "orders", column = "order_id")
     @Column(name = "order_id")
     private Long orderId;
 
@@ -1,5 +1,6 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,7 +14,7 @@ import lombok.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "order_item", column = "order_item_id")
     @Column(name = "order_item_id")
     private Long orderItemId;
 
@@ -1,13 +1,18 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "product")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +21,7 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "product", column = "product_id")
     @Column(name = "product_id")
     private Long productId;
 
@@ -38,6 +43,10 @@ public class Product {
     @Column(name = "thumbnail_img", length = 250)
     private String thumbnailImg;
 
+    // 생성된 리사이즈 버전 너비 목록 (예: "320,640")
+    @Column(name = "thumbnail_widths", length = 100)
+    private String thumbnailWidths;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("sortOrder ASC")
     private List<ProductImage> detailImages = new ArrayList<>();
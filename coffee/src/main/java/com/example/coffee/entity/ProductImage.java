@@ -1,5 +1,6 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,13 +14,17 @@ import lombok.*;
 public class ProductImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "product_image", column = "image_id")
     @Column(name = "image_id")
     private Long imageId;
 
     @Column(name = "image_url", length = 250)
     private String imageUrl;
 
+    // 생성된 리사이즈 버전 너비 목록 (예: "320,640")
+    @Column(name = "widths", length = 100)
+    private String widths;
+
     @Column(name = "sort_order")
     private Integer sortOrder;
 
@@ -1,10 +1,15 @@
 package com.example.coffee.entity;
 
+import com.example.coffee.id.AppId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "product_variant")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +18,7 @@ import lombok.*;
 public class ProductVariant {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AppId(table = "product_variant", column = "variant_id")
     @Column(name = "variant_id")
     private Long variantId;
     
@@ -25,6 +30,7 @@ public class ProductVariant {
     @JoinColumn(name = "option_id", nullable = false)
     private ProductOption option;
     
+    // 2차 캐시 값은 화면 표시용. 주문 시 재고 확인/차감은 ProductVariantRepository.findAllForReservation 으로 DB 에서 잠그고 읽는다
     @Column(name = "stock", nullable = false)
     private Integer stock = 0;
 }
\ No newline at end of file
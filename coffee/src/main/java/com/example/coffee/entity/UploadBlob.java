@@ -0,0 +1,38 @@
+package com.example.coffee.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadBlob {
+
+    // 예: "detail/{sha256}.jpg"
+    @Id
+    @Column(name = "path", length = 250)
+    private String path;
+
+    @Column(name = "digest", nullable = false, length = 64)
+    private String digest;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    // product.thumbnail_img / product_image.image_url 에서 참조하는 수
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.coffee.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 분할(재개 가능) 업로드 세션. 받은 조각 목록은 저장소(.chunks/{id}/)가 기준이다.
+ */
+@Entity
+@Table(name = "upload_session")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    // UUID
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "sub_dir", nullable = false, length = 20)
+    private String subDir;
+
+    // 검증된 확장자 (예: ".jpg")
+    @Column(name = "ext", nullable = false, length = 10)
+    private String ext;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public int getChunkCount() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    /* 마지막 조각만 chunkSize 보다 작을 수 있다 */
+    public long expectedSize(int index) {
+        return Math.min(chunkSize, totalSize - (long) index * chunkSize);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.coffee.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 애플리케이션 id 생성 (IDENTITY 대신). 방식은 app.id.strategy 로 고른다 (IdAllocator).
+ *
+ * IDENTITY 는 INSERT 를 실행해야 id 를 알 수 있어서 Hibernate 가 save() 마다 바로 INSERT 를 보내고
+ * JDBC 배치를 끈다. 미리 받아 둔 id 를 쓰면 INSERT 가 flush 까지 미뤄져 테이블별로 묶여 나간다.
+ */
+@IdGeneratorType(AppIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AppId {
+
+    /* 테이블 이름. id 블록 이름으로도 쓴다 */
+    String table();
+
+    /* id 컬럼. 처음 블록을 만들 때 이 컬럼의 MAX 다음부터 시작한다 */
+    String column();
+}
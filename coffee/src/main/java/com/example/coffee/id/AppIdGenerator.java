@@ -0,0 +1,46 @@
+package com.example.coffee.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * @AppId 가 붙은 id 를 IdAllocator 에서 받아 채운다.
+ *
+ * Hibernate 가 직접 만드는 객체라 Spring 빈을 주입받을 수 없으므로, IdAllocator 가 JPA 설정에 자신을 넣어 두고
+ * (HibernatePropertiesCustomizer) 여기서 세션 팩토리 설정으로 찾는다. 컨텍스트가 여러 개여도 섞이지 않는다.
+ */
+public class AppIdGenerator implements IdentifierGenerator {
+
+    static final String ALLOCATOR_SETTING = "com.example.coffee.id.allocator";
+
+    private final String table;
+    private final String column;
+
+    private volatile IdAllocator allocator;
+
+    public AppIdGenerator(AppId config) {
+        this.table = config.table();
+        this.column = config.column();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return allocator(session).next(table, column);
+    }
+
+    private IdAllocator allocator(SharedSessionContractImplementor session) {
+        IdAllocator current = allocator;
+        if (current == null) {
+            Object setting = session.getFactory().getServiceRegistry()
+                    .requireService(ConfigurationService.class)
+                    .getSettings()
+                    .get(ALLOCATOR_SETTING);
+            if (!(setting instanceof IdAllocator found)) {
+                throw new IllegalStateException("IdAllocator 가 JPA 설정에 등록되지 않았습니다: " + table);
+            }
+            allocator = current = found;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.coffee.id;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @AppId 엔티티의 id 발급 (app.id.strategy).
+ *
+ * - pooled (기본): id_block 테이블에서 테이블별로 block-size 개씩 구간을 예약해 두고 메모리에서 나눠 준다.
+ *   DB 왕복은 block-size 개당 한 번. 처음 예약할 때는 기존 행(AUTO_INCREMENT 로 만든 id) 다음부터 시작한다.
+ *   노드가 여러 개여도 구간이 겹치지 않는다 (SELECT ... FOR UPDATE). 재시작하면 남은 구간은 버려져 번호가 건너뛴다.
+ * - snowflake: DB 를 거치지 않는 시간순 id (SnowflakeIds). 노드마다 app.id.node-id 를 다르게 준다.
+ *
+ * 구간 예약은 요청 트랜잭션과 별개의 작은 풀(id-allocator)로 한다. 메인 풀을 쓰면 요청이 커넥션을 쥔 채
+ * 또 커넥션을 기다리게 되고, 요청 트랜잭션이 롤백돼도 예약한 구간은 그대로 커밋되어야 하기 때문.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdAllocator implements HibernatePropertiesCustomizer {
+
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${app.id.strategy:pooled}")
+    private String strategy;
+
+    @Value("${app.id.block-size:50}")
+    private int blockSize;
+
+    @Value("${app.id.node-id:0}")
+    private int nodeId;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private HikariDataSource blockDataSource;
+    private SnowflakeIds snowflake;
+
+    @PostConstruct
+    public void init() {
+        switch (strategy) {
+            case "snowflake" -> snowflake = new SnowflakeIds(nodeId);
+            case "pooled" -> initBlockPool();
+            default -> throw new IllegalArgumentException("app.id.strategy 는 pooled 또는 snowflake 입니다: " + strategy);
+        }
+        log.info("id 생성 방식: {}", snowflake != null ? "snowflake (node " + nodeId + ")" : "pooled (블록 " + blockSize + ")");
+    }
+
+    @PreDestroy
+    public void close() {
+        if (blockDataSource != null) {
+            blockDataSource.close();
+        }
+    }
+
+    /* AppIdGenerator 가 세션 팩토리 설정에서 찾을 수 있게 등록 */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AppIdGenerator.ALLOCATOR_SETTING, this);
+    }
+
+    public long next(String table, String column) {
+        if (snowflake != null) {
+            return snowflake.next();
+        }
+        return blocks.computeIfAbsent(table, name -> new Block()).next(table, column);
+    }
+
+    private void initBlockPool() {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("app.id.block-size 는 1 이상이어야 합니다: " + blockSize);
+        }
+        blockDataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        blockDataSource.setPoolName("id-allocator");
+        blockDataSource.setMaximumPoolSize(2);
+        blockDataSource.setMinimumIdle(0);
+        blockDataSource.setAutoCommit(false);
+        // id_block 테이블은 Flyway 마이그레이션(V3__id_block.sql)이 만든다. 첫 예약은 기동이 끝난 뒤라 순서 문제가 없다
+    }
+
+    /* 구간 하나를 예약하고 시작 값을 돌려준다 */
+    private long allocate(String table, String column) {
+        for (int attempt = 0; ; attempt++) {
+            try (Connection connection = blockDataSource.getConnection()) {
+                try {
+                    long start = reserve(connection, table, column);
+                    connection.commit();
+                    return start;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    // 두 노드가 동시에 첫 행을 넣으면 한쪽은 PK 충돌 → 다시 읽으면 잠금 후 이어서 예약한다
+                    if (attempt == 0 && e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                        continue;
+                    }
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("id 구간을 예약하지 못했습니다: " + table, e);
+            }
+        }
+    }
+
+    private long reserve(Connection connection, String table, String column) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT next_val FROM id_block WHERE name = ? FOR UPDATE")) {
+            select.setString(1, table);
+            try (ResultSet rs = select.executeQuery()) {
+                if (rs.next()) {
+                    long start = rs.getLong(1);
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE id_block SET next_val = ? WHERE name = ?")) {
+                        update.setLong(1, start + blockSize);
+                        update.setString(2, table);
+                        update.executeUpdate();
+                    }
+                    return start;
+                }
+            }
+        }
+
+        // 처음 예약: 기존 행 다음부터 (table / column 은 @AppId 에 적힌 상수)
+        long start;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            rs.next();
+            start = rs.getLong(1);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO id_block (name, next_val) VALUES (?, ?)")) {
+            insert.setString(1, table);
+            insert.setLong(2, start + blockSize);
+            insert.executeUpdate();
+        }
+        return start;
+    }
+
+    /* 테이블별로 예약해 둔 구간 [next, limit) */
+    private final class Block {
+
+        // 가상 스레드에서 synchronized 안의 JDBC 대기는 캐리어 스레드를 붙잡으므로 ReentrantLock
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long limit;
+
+        long next(String table, String column) {
+            lock.lock();
+            try {
+                if (next >= limit) {
+                    next = allocate(table, column);
+                    limit = next + blockSize;
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
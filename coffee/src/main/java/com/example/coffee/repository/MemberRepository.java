@@ -1,11 +1,34 @@
 package com.example.coffee.repository;
 
+import com.example.coffee.dto.MemberResponse;
+import com.example.coffee.dto.MemberSearchResponse;
 import com.example.coffee.entity.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // 엔티티 대신 DTO로 바로 조회 (password 미조회, 영속성 컨텍스트 미등록). 순서는 예전 findAll() 처럼 id 오름차순
+    @Query("SELECT new com.example.coffee.dto.MemberResponse(" +
+           "m.memberId, m.email, m.name, m.phone, m.address, m.createdAt, m.updatedAt) " +
+           "FROM Member m ORDER BY m.memberId ASC")
+    List<MemberResponse> findAllResponses();
+
+    // 키셋 페이징: cursor 보다 작은 id 부터 최신순
+    @Query("SELECT new com.example.coffee.dto.MemberResponse(" +
+           "m.memberId, m.email, m.name, m.phone, m.address, m.createdAt, m.updatedAt) " +
+           "FROM Member m WHERE m.memberId < :cursor ORDER BY m.memberId DESC")
+    List<MemberResponse> findResponsesBefore(@Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("SELECT new com.example.coffee.dto.MemberSearchResponse(" +
+           "m.memberId, m.email, m.name, m.phone) " +
+           "FROM Member m WHERE m.memberId > :cursor ORDER BY m.memberId ASC")
+    List<MemberSearchResponse> findSearchEntriesAfter(@Param("cursor") Long cursor, Pageable pageable);
 }
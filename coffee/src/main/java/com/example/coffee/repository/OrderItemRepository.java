@@ -2,10 +2,14 @@ package com.example.coffee.repository;
 
 import com.example.coffee.entity.Order;
 import com.example.coffee.entity.OrderItem;
+import com.example.coffee.dto.VariantQuantity;
+import com.example.coffee.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -18,4 +22,17 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
            "JOIN FETCH v.option " +
            "WHERE oi.order = :order")
     List<OrderItem> findByOrderWithDetails(@Param("order") Order order);
+
+    // 일괄 삭제: 돌려놓을 재고 (주어진 상태의 주문만, variant id 오름차순)
+    @Query("SELECT new com.example.coffee.dto.VariantQuantity(oi.variant.variantId, SUM(oi.quantity)) " +
+           "FROM OrderItem oi " +
+           "WHERE oi.order.orderId IN :orderIds AND oi.order.status IN :statuses " +
+           "GROUP BY oi.variant.variantId ORDER BY oi.variant.variantId")
+    List<VariantQuantity> sumQuantities(@Param("orderIds") Collection<Long> orderIds,
+                                        @Param("statuses") Collection<OrderStatus> statuses);
+
+    // 일괄 삭제 (주문보다 먼저)
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.orderId IN :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
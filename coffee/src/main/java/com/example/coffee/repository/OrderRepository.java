@@ -4,8 +4,11 @@ import com.example.coffee.entity.Order;
 import com.example.coffee.entity.Member;
 import com.example.coffee.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -15,4 +18,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o JOIN FETCH o.member ORDER BY o.orderDate DESC")
     List<Order> findAllWithMember();
+
+    // 일괄 삭제 (주문 품목을 먼저 지운 뒤)
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.orderId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
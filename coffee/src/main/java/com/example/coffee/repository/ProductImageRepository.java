@@ -3,12 +3,41 @@ package com.example.coffee.repository;
 import com.example.coffee.entity.Product;
 import com.example.coffee.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     void deleteByProduct(Product product);
     List<ProductImage> findByProductOrderBySortOrder(Product product);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductImage i SET i.widths = :widths WHERE i.imageUrl = :path")
+    int updateWidths(@Param("path") String path, @Param("widths") String widths);
+
+    @Modifying
+    @Query("UPDATE ProductImage i SET i.imageUrl = :newPath WHERE i.imageUrl = :oldPath")
+    int renameImageUrl(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    @Query("SELECT i.imageUrl FROM ProductImage i WHERE i.imageUrl IN :paths")
+    List<String> findReferencedUrls(@Param("paths") Collection<String> paths);
+
+    // 카탈로그 내보내기: 한 페이지 상품들의 상세 이미지를 한 번에
+    @Query("SELECT i FROM ProductImage i WHERE i.product.productId IN :productIds ORDER BY i.sortOrder")
+    List<ProductImage> findByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // 일괄 삭제: 지울 상품들의 상세 이미지 경로
+    @Query("SELECT i.imageUrl FROM ProductImage i WHERE i.product.productId IN :productIds")
+    List<String> findUrlsByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductImage i WHERE i.product.productId IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
 }
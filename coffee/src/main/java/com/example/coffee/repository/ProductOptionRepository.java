@@ -2,11 +2,24 @@ package com.example.coffee.repository;
 
 import com.example.coffee.entity.Product;
 import com.example.coffee.entity.ProductOption;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductOptionRepository extends JpaRepository<ProductOption, Long> {
+    // 쿼리 캐시: product_option 테이블이 바뀌면 자동으로 무효화
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ProductOption> findByProduct(Product product);
     void deleteByProduct(Product product);
-}
\ No newline at end of file
+
+    // 일괄 삭제 (variant 를 먼저 지운 뒤)
+    @Modifying
+    @Query("DELETE FROM ProductOption o WHERE o.product.productId IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+}
@@ -1,7 +1,44 @@
 package com.example.coffee.repository;
 
 import com.example.coffee.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.thumbnailWidths = :widths WHERE p.thumbnailImg = :path")
+    int updateThumbnailWidths(@Param("path") String path, @Param("widths") String widths);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.thumbnailImg = :newPath WHERE p.thumbnailImg = :oldPath")
+    int renameThumbnail(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    @Query("SELECT p.thumbnailImg FROM Product p WHERE p.thumbnailImg IN :paths")
+    List<String> findReferencedThumbnails(@Param("paths") Collection<String> paths);
+
+    // 카탈로그 내보내기 (product_id keyset 페이징). 전체를 훑는 조회가 2차 캐시의 자주 쓰는 항목을 밀어내지 않도록 캐시를 거치지 않는다
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("SELECT p FROM Product p WHERE p.productId > :cursor ORDER BY p.productId")
+    List<Product> findPageAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    // 일괄 삭제: 지울 상품들의 썸네일 경로
+    @Query("SELECT p.thumbnailImg FROM Product p WHERE p.productId IN :ids AND p.thumbnailImg IS NOT NULL")
+    List<String> findThumbnailsByIds(@Param("ids") Collection<Long> ids);
+
+    // 일괄 삭제 (옵션 / variant / 상세 이미지를 먼저 지운 뒤)
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.productId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
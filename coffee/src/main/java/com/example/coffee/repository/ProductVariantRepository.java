@@ -1,15 +1,66 @@
 package com.example.coffee.repository;
 
+import com.example.coffee.dto.LowStockResponse;
+import com.example.coffee.dto.VariantPriceRow;
 import com.example.coffee.entity.Product;
 import com.example.coffee.entity.ProductOption;
 import com.example.coffee.entity.ProductVariant;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
     Optional<ProductVariant> findByProductAndOption(Product product, ProductOption option);
+
+    // 쿼리 캐시: 재고가 바뀌면(product_variant 갱신) 자동으로 무효화
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ProductVariant> findByProduct(Product product);
+
     void deleteByOption(ProductOption option);
-}
\ No newline at end of file
+
+    // 재고 예약/반환용: 2차 캐시를 거치지 않고 행 잠금(SELECT ... FOR UPDATE)으로 DB 의 현재 재고를 읽는다.
+    // 여러 variant 를 한 문장으로 잠그고, 교착 상태를 피하려고 id 오름차순
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ProductVariant v WHERE v.variantId IN :ids ORDER BY v.variantId")
+    List<ProductVariant> findAllForReservation(@Param("ids") Collection<Long> ids);
+
+    // 일괄 삭제 전 확인: 주문 품목이 참조하는 상품 (order_item 외래 키 때문에 지울 수 없다)
+    @Query("SELECT DISTINCT v.product.productId FROM ProductVariant v " +
+           "WHERE v.product.productId IN :productIds " +
+           "AND EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.variant = v)")
+    List<Long> findOrderedProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // 일괄 삭제 (옵션 / 상품보다 먼저)
+    @Modifying
+    @Query("DELETE FROM ProductVariant v WHERE v.product.productId IN :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // 재고 부족 인덱스 적재/재동기화용 (variant id keyset 페이징)
+    @Query("SELECT new com.example.coffee.dto.LowStockResponse(v.variantId, p.productId, p.productName, o.optionValue, v.stock) " +
+           "FROM ProductVariant v JOIN v.product p JOIN v.option o " +
+           "WHERE v.variantId > :cursor ORDER BY v.variantId")
+    List<LowStockResponse> findStockEntriesAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    // 주문 가격표 적재/새로고침용 (variant id keyset 페이징)
+    @Query("SELECT new com.example.coffee.dto.VariantPriceRow(v.variantId, p.productId, p.basePrice, o.extraPrice, " +
+           "p.productName, o.optionValue) " +
+           "FROM ProductVariant v JOIN v.product p JOIN v.option o " +
+           "WHERE v.variantId > :cursor ORDER BY v.variantId")
+    List<VariantPriceRow> findPriceRowsAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    // 카탈로그 내보내기: 한 페이지 상품들의 variant + 옵션을 한 번에
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.option o " +
+           "WHERE v.product.productId IN :productIds ORDER BY o.optionId")
+    List<ProductVariant> findWithOptionByProductIds(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,70 @@
+package com.example.coffee.repository;
+
+import com.example.coffee.entity.UploadBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // 없으면 ref_count = 1 로 생성, 있으면 +1 (행 잠금으로 동시 삭제와 직렬화)
+    @Modifying
+    @Query(value = "INSERT INTO upload_blob (path, digest, size, ref_count, created_at) " +
+                   "VALUES (:path, :digest, :size, 1, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+           nativeQuery = true)
+    int acquire(@Param("path") String path, @Param("digest") String digest, @Param("size") long size);
+
+    // 기록 없이 저장돼 있던 파일(upload_blob 이전 UUID 경로)을 기존 참조 수로 등록. 그 사이 생겼으면 +1
+    @Modifying
+    @Query(value = "INSERT INTO upload_blob (path, digest, size, ref_count, created_at) " +
+                   "VALUES (:path, :digest, :size, :refCount, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+           nativeQuery = true)
+    int adopt(@Param("path") String path, @Param("digest") String digest, @Param("size") long size,
+              @Param("refCount") int refCount);
+
+    // 이미 저장된 파일을 하나 더 참조 (카탈로그 가져오기에서 기존 경로를 그대로 쓸 때). 없으면 0
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount + 1 WHERE b.path = :path")
+    int retain(@Param("path") String path);
+
+    @Modifying
+    @Query(value = "UPDATE upload_blob SET path = :newPath WHERE path = :oldPath", nativeQuery = true)
+    int renamePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    @Query("SELECT b.path FROM UploadBlob b WHERE b.path IN :paths")
+    List<String> findExistingPaths(@Param("paths") Collection<String> paths);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM UploadBlob b WHERE b.path = :path")
+    Optional<UploadBlob> findLockedByPath(@Param("path") String path);
+
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount - 1 WHERE b.path = :path AND b.refCount > 0")
+    int release(@Param("path") String path);
+
+    @Modifying
+    @Query("DELETE FROM UploadBlob b WHERE b.path = :path AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("path") String path);
+
+    // 일괄 삭제: 여러 경로의 참조를 count 씩 줄인다 (0 밑으로는 내려가지 않음)
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = CASE WHEN b.refCount > :count THEN b.refCount - :count ELSE 0 END " +
+           "WHERE b.path IN :paths AND b.refCount > 0")
+    int releaseAll(@Param("paths") Collection<String> paths, @Param("count") int count);
+
+    @Query("SELECT b.path FROM UploadBlob b WHERE b.path IN :paths AND b.refCount <= 0")
+    List<String> findUnreferencedPaths(@Param("paths") Collection<String> paths);
+
+    @Modifying
+    @Query("DELETE FROM UploadBlob b WHERE b.path IN :paths AND b.refCount <= 0")
+    int deleteUnreferenced(@Param("paths") Collection<String> paths);
+}
@@ -0,0 +1,16 @@
+package com.example.coffee.repository;
+
+import com.example.coffee.entity.UploadSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    @Query("SELECT s.id FROM UploadSession s WHERE s.createdAt < :cutoff ORDER BY s.createdAt")
+    List<String> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
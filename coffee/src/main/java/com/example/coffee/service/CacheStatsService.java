@@ -0,0 +1,56 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.CacheRegionStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hibernate 2차 캐시 / 쿼리 캐시 리전별 통계 (시작 이후 누적).
+ * 같은 값이 hibernate_second_level_cache_* 메트릭으로도 나가므로, 이쪽은 운영 중 바로 확인하는 용도.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsResponse> regionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheRegionStatsResponse> result = new ArrayList<>();
+        for (String region : regions) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) continue;
+            long hits = stats.getHitCount();
+            long misses = stats.getMissCount();
+            result.add(CacheRegionStatsResponse.builder()
+                    .region(region)
+                    .hitCount(hits)
+                    .missCount(misses)
+                    .putCount(stats.getPutCount())
+                    .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .elementCountInMemory(stats.getElementCountInMemory())
+                    .build());
+        }
+        return result;
+    }
+
+    /* DB 를 직접 고친 뒤 등: 모든 리전(엔티티 + 쿼리 결과)을 비운다 */
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
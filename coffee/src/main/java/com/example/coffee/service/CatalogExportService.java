@@ -0,0 +1,113 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.CatalogRow;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.entity.Product;
+import com.example.coffee.entity.ProductImage;
+import com.example.coffee.entity.ProductVariant;
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.ProductVariantRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 카탈로그 내보내기. 상품을 page-size 개씩 product_id keyset 으로 읽어 바로 써 내보낸다.
+ * 페이지마다 상품 / variant+옵션 / 상세 이미지 세 번 조회하고, 읽기 전용 트랜잭션(복제본이 있으면 복제본)이
+ * 페이지마다 끝나므로 영속성 컨텍스트가 상품 수만큼 커지지 않는다. 결과는 CatalogImportService 로 다시 가져올 수 있다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final ProductImageRepository productImageRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.catalog.export.page-size:500}")
+    private int pageSize;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /* 내보낸 상품 수 */
+    public long export(CatalogFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        CatalogWriter catalog = new CatalogWriter(format, writer, objectMapper);
+        catalog.writeHeader();
+
+        long cursor = 0L;
+        long count = 0;
+        while (true) {
+            long after = cursor;
+            List<CatalogRow> page = readOnly.execute(status -> loadPage(after));
+            if (page == null || page.isEmpty()) break;
+
+            for (CatalogRow row : page) {
+                catalog.write(row);
+            }
+            count += page.size();
+            cursor = page.get(page.size() - 1).getProductId();
+            // 페이지마다 내보내서 클라이언트가 바로 받기 시작하도록
+            writer.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private List<CatalogRow> loadPage(long cursor) {
+        List<Product> products = productRepository.findPageAfter(cursor, PageRequest.of(0, pageSize));
+        if (products.isEmpty()) return List.of();
+
+        List<Long> ids = products.stream().map(Product::getProductId).toList();
+
+        // 연관 상품은 프록시 id 만 읽으므로 추가 조회가 없다
+        Map<Long, List<ProductRequest.OptionRequest>> options = new HashMap<>();
+        for (ProductVariant variant : variantRepository.findWithOptionByProductIds(ids)) {
+            options.computeIfAbsent(variant.getProduct().getProductId(), id -> new ArrayList<>())
+                    .add(ProductRequest.OptionRequest.builder()
+                            .optionValue(variant.getOption().getOptionValue())
+                            .extraPrice(variant.getOption().getExtraPrice())
+                            .stock(variant.getStock())
+                            .build());
+        }
+        Map<Long, List<String>> images = new HashMap<>();
+        for (ProductImage image : productImageRepository.findByProductIds(ids)) {
+            images.computeIfAbsent(image.getProduct().getProductId(), id -> new ArrayList<>())
+                    .add(image.getImageUrl());
+        }
+
+        List<CatalogRow> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(CatalogRow.builder()
+                    .productId(product.getProductId())
+                    .productName(product.getProductName())
+                    .basePrice(product.getBasePrice())
+                    .type(product.getType())
+                    .continent(product.getContinent())
+                    .nationality(product.getNationality())
+                    .options(options.getOrDefault(product.getProductId(), List.of()))
+                    .thumbnail(product.getThumbnailImg())
+                    .detailImages(images.getOrDefault(product.getProductId(), List.of()))
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.coffee.service;
+
+import java.util.Locale;
+
+/**
+ * 카탈로그 가져오기/내보내기 형식. 둘 다 상품 하나가 한 행이다.
+ *
+ * - CSV: 헤더 행 필수 (productName, basePrice, type, continent, nationality, options, thumbnail, detailImages).
+ *   options 는 "옵션값:추가금액:재고" 를 | 로 이은 것 (예: 200g:0:50|500g:8000:30), detailImages 는 | 로 구분
+ * - NDJSON: 줄마다 CatalogRow JSON 하나 (options 는 [{"optionValue":..,"extraPrice":..,"stock":..}])
+ */
+public enum CatalogFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    CatalogFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /* format 이 있으면 그것으로, 없으면 파일 이름의 확장자로 (.csv / .ndjson / .jsonl) */
+    public static CatalogFormat of(String format, String filename) {
+        String name = format;
+        if (name == null || name.isBlank()) {
+            String file = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+            name = file.substring(file.lastIndexOf('.') + 1);
+        }
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "ndjson", "jsonl" -> NDJSON;
+            default -> throw new IllegalArgumentException("지원하지 않는 카탈로그 형식입니다: " + name + " (csv, ndjson)");
+        };
+    }
+}
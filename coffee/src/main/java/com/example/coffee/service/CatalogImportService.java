@@ -0,0 +1,304 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.CatalogImportResponse;
+import com.example.coffee.dto.CatalogRow;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.storage.BoundedInputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 카탈로그 일괄 가져오기 (CSV / NDJSON + 선택적으로 이미지 ZIP).
+ *
+ * 파일을 한 행씩 읽어 검증하고, 통과한 행을 chunk-size 개씩 모아 트랜잭션 하나로 등록한다.
+ * id 는 IdAllocator 에서 미리 받으므로 청크의 INSERT 는 flush 때 테이블별 JDBC 배치로 나간다.
+ * 청크가 실패하면(DB 제약, 없는 이미지 등) 그 청크만 한 행씩 다시 등록해서 실패한 행만 보고한다.
+ *
+ * 이미지 칸은 ZIP 안의 파일 이름이거나 이미 저장된 경로(내보내기 결과를 그대로 다시 가져오는 경우)다.
+ * ZIP 의 이미지는 트랜잭션 밖에서 stage 하고 트랜잭션 안에서는 토큰만 확정한다 (상품 등록 폼과 같은 방식).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final Map<String, String> IMAGE_TYPES = Map.of(
+            ".jpg", "image/jpeg", ".jpeg", "image/jpeg", ".png", "image/png",
+            ".gif", "image/gif", ".webp", "image/webp");
+
+    private final ProductService productService;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.catalog.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.catalog.import.max-image-size:10485760}")
+    private long maxImageSize;
+
+    /* 업로드된 파일로 가져오기. ZIP 은 이름으로 찾아야 하므로 임시 파일로 받는다 */
+    public CatalogImportResponse importCatalog(MultipartFile file, MultipartFile images,
+                                               String format, boolean dryRun) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("가져올 카탈로그 파일이 없습니다.");
+        }
+        CatalogFormat catalogFormat = CatalogFormat.of(format, file.getOriginalFilename());
+
+        Path zip = null;
+        try {
+            if (images != null && !images.isEmpty()) {
+                zip = Files.createTempFile("catalog-images-", ".zip");
+                images.transferTo(zip);
+            }
+            try (InputStream in = file.getInputStream()) {
+                return importCatalog(in, catalogFormat, zip, dryRun);
+            }
+        } finally {
+            if (zip != null) Files.deleteIfExists(zip);
+        }
+    }
+
+    public CatalogImportResponse importCatalog(InputStream content, CatalogFormat format,
+                                               Path imagesZip, boolean dryRun) throws IOException {
+        long start = System.nanoTime();
+        try (ZipFile zip = imagesZip == null ? null : new ZipFile(imagesZip.toFile())) {
+            Run run = new Run(zip, dryRun);
+            CatalogReader reader = new CatalogReader(format,
+                    new InputStreamReader(content, StandardCharsets.UTF_8), objectMapper);
+
+            List<Pending> chunk = new ArrayList<>(chunkSize);
+            CatalogReader.Entry entry;
+            while ((entry = reader.next()) != null) {
+                run.rows++;
+                String error;
+                try {
+                    error = entry.error() != null ? entry.error() : validate(entry.row(), zip);
+                } catch (RuntimeException e) {
+                    error = run.message(e);
+                }
+                if (error != null) {
+                    run.fail(entry.line(), entry.row(), error);
+                    continue;
+                }
+                chunk.add(new Pending(entry.line(), entry.row()));
+                if (chunk.size() >= chunkSize) {
+                    run.write(chunk);
+                    chunk.clear();
+                }
+            }
+            run.write(chunk);
+
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("카탈로그 가져오기 ({}{}): {} 행, 등록 {}, 실패 {} ({} ms)", format,
+                    dryRun ? ", dry run" : "", run.rows, run.imported, run.failed, elapsedMs);
+            return CatalogImportResponse.builder()
+                    .format(format.name())
+                    .dryRun(dryRun)
+                    .rows(run.rows)
+                    .imported(run.imported)
+                    .failed(run.failed)
+                    .errors(run.errors)
+                    .errorsTruncated(run.failed > run.errors.size())
+                    .elapsedMs(elapsedMs)
+                    .build();
+        }
+    }
+
+    /* 엔티티 컬럼 길이 / 값 범위. 통과하면 null */
+    private String validate(CatalogRow row, ZipFile zip) {
+        if (row.getProductName() == null || row.getProductName().isBlank()) return "상품명이 없습니다.";
+        if (row.getProductName().length() > 200) return "상품명은 200자까지입니다.";
+        if (row.getBasePrice() != null && row.getBasePrice() < 0) return "basePrice 는 0 이상이어야 합니다.";
+        if (tooLong(row.getType(), 100)) return "type 은 100자까지입니다.";
+        if (tooLong(row.getContinent(), 50)) return "continent 는 50자까지입니다.";
+        if (tooLong(row.getNationality(), 100)) return "nationality 는 100자까지입니다.";
+
+        if (row.getOptions() != null) {
+            Set<String> values = new HashSet<>();
+            for (ProductRequest.OptionRequest option : row.getOptions()) {
+                if (option == null) return "빈 옵션이 있습니다.";
+                String value = option.getOptionValue();
+                if (value == null || value.isBlank()) return "옵션값이 없습니다.";
+                if (value.length() > 50) return "옵션값은 50자까지입니다: " + value;
+                if (!values.add(value)) return "옵션값이 중복됩니다: " + value;
+                if (option.getExtraPrice() < 0) return "추가금액은 0 이상이어야 합니다: " + value;
+                if (option.getStock() < 0) return "재고는 0 이상이어야 합니다: " + value;
+            }
+        }
+
+        String error = validateImage(row.getThumbnail(), zip);
+        if (error == null && row.getDetailImages() != null) {
+            for (String image : row.getDetailImages()) {
+                error = validateImage(image, zip);
+                if (error != null) break;
+            }
+        }
+        return error;
+    }
+
+    /* ZIP 에 있거나 저장된 경로 형식이어야 한다 (경로가 실제로 있는지는 등록할 때 확인) */
+    private String validateImage(String image, ZipFile zip) {
+        if (image == null || image.isBlank()) return null;
+        if (zip != null && zip.getEntry(image) != null) {
+            String ext = extension(image);
+            return IMAGE_TYPES.containsKey(ext) ? null : "허용되지 않은 이미지 형식입니다: " + image;
+        }
+        if (FileStorageService.isSafeKey(image) && (image.startsWith("thumbnail/") || image.startsWith("detail/"))) {
+            return null;
+        }
+        return zip == null
+                ? "이미지 ZIP 이 없습니다: " + image
+                : "이미지 ZIP 에 없는 파일입니다: " + image;
+    }
+
+    private static boolean tooLong(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    private record Pending(int line, CatalogRow row) {
+    }
+
+    /* ZIP 이미지면 stage 토큰, 아니면 이미 저장된 경로 */
+    private record ImageRef(String token, String path) {
+    }
+
+    private record Staged(Pending pending, ImageRef thumbnail, List<ImageRef> details) {
+    }
+
+    /* 가져오기 한 번의 진행 상태 */
+    private final class Run {
+        private final ZipFile zip;
+        private final boolean dryRun;
+        private final List<CatalogImportResponse.RowError> errors = new ArrayList<>();
+        private int rows;
+        private int imported;
+        private int failed;
+
+        Run(ZipFile zip, boolean dryRun) {
+            this.zip = zip;
+            this.dryRun = dryRun;
+        }
+
+        /* 청크 하나를 트랜잭션 하나로. 실패하면 한 행씩 다시 */
+        void write(List<Pending> chunk) {
+            if (chunk.isEmpty()) return;
+            if (dryRun) {
+                imported += chunk.size();
+                return;
+            }
+            try {
+                List<Staged> staged = new ArrayList<>(chunk.size());
+                for (Pending pending : chunk) {
+                    staged.add(stage(pending));
+                }
+                transactionTemplate.executeWithoutResult(status -> staged.forEach(this::persist));
+                imported += chunk.size();
+            } catch (IOException | RuntimeException e) {
+                // 롤백된 청크의 stage 토큰은 폐기된다 (확정 전에 실패한 나머지는 staging sweep 이 정리)
+                if (chunk.size() == 1) {
+                    Pending pending = chunk.get(0);
+                    fail(pending.line(), pending.row(), message(e));
+                    return;
+                }
+                log.debug("카탈로그 청크 등록 실패, 한 행씩 다시 시도합니다: {}", message(e));
+                for (Pending pending : chunk) {
+                    write(List.of(pending));
+                }
+            }
+        }
+
+        private Staged stage(Pending pending) throws IOException {
+            CatalogRow row = pending.row();
+            ImageRef thumbnail = stageImage(row.getThumbnail(), "thumbnail");
+            List<ImageRef> details = new ArrayList<>();
+            if (row.getDetailImages() != null) {
+                for (String image : row.getDetailImages()) {
+                    details.add(stageImage(image, "detail"));
+                }
+            }
+            return new Staged(pending, thumbnail, details);
+        }
+
+        private ImageRef stageImage(String image, String subDir) throws IOException {
+            if (image == null || image.isBlank()) return null;
+            ZipEntry entry = zip == null ? null : zip.getEntry(image);
+            if (entry == null) return new ImageRef(null, image);
+
+            if (entry.getSize() > maxImageSize) {
+                throw new IllegalArgumentException("이미지가 너무 큽니다: " + image);
+            }
+            String ext = fileStorageService.validate(image, IMAGE_TYPES.get(extension(image)), subDir);
+            // 중앙 디렉터리의 크기를 믿지 않고 읽는 양도 제한
+            try (InputStream in = new BoundedInputStream(zip.getInputStream(entry), maxImageSize)) {
+                return new ImageRef(fileStorageService.stageStream(in, subDir, ext), null);
+            }
+        }
+
+        private void persist(Staged staged) {
+            CatalogRow row = staged.pending().row();
+            String thumbnail = claim(staged.thumbnail());
+            List<String> details = new ArrayList<>(staged.details().size());
+            for (ImageRef ref : staged.details()) {
+                details.add(claim(ref));
+            }
+
+            ProductRequest request = ProductRequest.builder()
+                    .productName(row.getProductName().trim())
+                    .basePrice(row.getBasePrice() == null ? 0 : row.getBasePrice())
+                    .type(row.getType())
+                    .continent(row.getContinent())
+                    .nationality(row.getNationality())
+                    .options(row.getOptions())
+                    .build();
+            productService.importProduct(request, thumbnail, details);
+        }
+
+        private String claim(ImageRef ref) {
+            if (ref == null) return null;
+            return ref.token() != null
+                    ? fileStorageService.claimStaged(ref.token())
+                    : fileStorageService.retain(ref.path());
+        }
+
+        void fail(int line, CatalogRow row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(CatalogImportResponse.RowError.builder()
+                        .line(line)
+                        .productName(row == null ? null : row.getProductName())
+                        .message(message)
+                        .build());
+            }
+        }
+
+        private String message(Exception e) {
+            Throwable cause = e;
+            while (cause.getCause() != null && cause.getMessage() == null) {
+                cause = cause.getCause();
+            }
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.CatalogRow;
+import com.example.coffee.dto.ProductRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * 카탈로그 파일을 한 행씩 읽는다. 파일 전체를 메모리에 올리지 않고, 형식이 틀린 행은
+ * 예외 대신 오류 메시지가 담긴 Entry 로 돌려줘서 나머지 행은 계속 처리할 수 있게 한다.
+ */
+final class CatalogReader {
+
+    /* line: 행이 시작하는 줄 번호. error 가 있으면 row 는 일부만 채워졌거나 null */
+    record Entry(int line, CatalogRow row, String error) {
+    }
+
+    private final CatalogFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    private int line = 1;
+    private int recordLine;
+    private boolean unterminated;
+    private Map<String, Integer> columns;
+
+    CatalogReader(CatalogFormat format, Reader reader, ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = reader instanceof BufferedReader br ? br : new BufferedReader(reader, 64 * 1024);
+        this.objectMapper = objectMapper;
+    }
+
+    /* 다음 행, 끝이면 null */
+    Entry next() throws IOException {
+        return format == CatalogFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    /* =========================
+       NDJSON
+       ========================= */
+    private Entry nextJson() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            int current = line++;
+            if (text.isBlank()) continue;
+            try {
+                return new Entry(current, objectMapper.readValue(text, CatalogRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new Entry(current, null, "JSON 형식 오류: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    /* =========================
+       CSV
+       ========================= */
+    private Entry nextCsv() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> fields = readRecord();
+        if (fields == null) return null;
+
+        CatalogRow row = new CatalogRow();
+        row.setProductName(field(fields, "productName"));
+        if (unterminated) {
+            return new Entry(recordLine, row, "따옴표가 닫히지 않았습니다.");
+        }
+        try {
+            String price = field(fields, "basePrice");
+            row.setBasePrice(price == null ? null : parseInt(price, "basePrice"));
+            row.setType(field(fields, "type"));
+            row.setContinent(field(fields, "continent"));
+            row.setNationality(field(fields, "nationality"));
+            row.setOptions(parseOptions(field(fields, "options")));
+            row.setThumbnail(field(fields, "thumbnail"));
+            row.setDetailImages(split(field(fields, "detailImages")));
+        } catch (IllegalArgumentException e) {
+            return new Entry(recordLine, row, e.getMessage());
+        }
+        return new Entry(recordLine, row, null);
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("빈 CSV 파일입니다.");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // 엑셀이 붙이는 BOM 제거
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey("productName")) {
+            throw new IllegalArgumentException("CSV 헤더에 productName 열이 없습니다.");
+        }
+    }
+
+    /* 한 레코드의 필드들 (RFC 4180: 따옴표 안의 쉼표/줄바꿈, "" 이스케이프). 끝이면 null */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        // 빈 줄은 건너뛴다
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') line++;
+            c = reader.read();
+        }
+        if (c < 0) return null;
+        recordLine = line;
+        unterminated = false;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    unterminated = true;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c < 0) {
+                if (c == '\n') line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /* 빈 칸은 null */
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /* "200g:0:50|500g:8000:30". 옵션값에 : 가 들어갈 수 있으므로 뒤에서부터 나눈다 */
+    static List<ProductRequest.OptionRequest> parseOptions(String cell) {
+        List<String> parts = split(cell);
+        if (parts == null) return null;
+
+        List<ProductRequest.OptionRequest> options = new ArrayList<>(parts.size());
+        for (String part : parts) {
+            int stockAt = part.lastIndexOf(':');
+            int priceAt = stockAt > 0 ? part.lastIndexOf(':', stockAt - 1) : -1;
+            if (priceAt <= 0) {
+                throw new IllegalArgumentException("옵션 형식이 잘못되었습니다 (옵션값:추가금액:재고): " + part);
+            }
+            options.add(ProductRequest.OptionRequest.builder()
+                    .optionValue(part.substring(0, priceAt).trim())
+                    .extraPrice(parseInt(part.substring(priceAt + 1, stockAt), "추가금액"))
+                    .stock(parseInt(part.substring(stockAt + 1), "재고"))
+                    .build());
+        }
+        return options;
+    }
+
+    private static List<String> split(String cell) {
+        if (cell == null) return null;
+        List<String> parts = new ArrayList<>();
+        for (String part : cell.split("\\|")) {
+            if (!part.isBlank()) parts.add(part.trim());
+        }
+        return parts;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 가 숫자가 아닙니다: " + value);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.CatalogRow;
+import com.example.coffee.dto.ProductRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * CatalogRow 를 CatalogReader 가 다시 읽을 수 있는 형식으로 쓴다.
+ */
+final class CatalogWriter {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "productId", "productName", "basePrice", "type", "continent", "nationality",
+            "options", "thumbnail", "detailImages");
+
+    private final CatalogFormat format;
+    private final Writer out;
+    private final ObjectMapper objectMapper;
+
+    CatalogWriter(CatalogFormat format, Writer out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    void writeHeader() throws IOException {
+        if (format == CatalogFormat.CSV) {
+            out.write(String.join(",", CSV_COLUMNS));
+            out.write('\n');
+        }
+    }
+
+    void write(CatalogRow row) throws IOException {
+        if (format == CatalogFormat.NDJSON) {
+            // writeValue(Writer) 는 Writer 를 닫으므로 문자열로
+            out.write(objectMapper.writeValueAsString(row));
+            out.write('\n');
+            return;
+        }
+        cell(row.getProductId() == null ? null : row.getProductId().toString());
+        out.write(',');
+        cell(row.getProductName());
+        out.write(',');
+        cell(row.getBasePrice() == null ? null : row.getBasePrice().toString());
+        out.write(',');
+        cell(row.getType());
+        out.write(',');
+        cell(row.getContinent());
+        out.write(',');
+        cell(row.getNationality());
+        out.write(',');
+        cell(formatOptions(row.getOptions()));
+        out.write(',');
+        cell(row.getThumbnail());
+        out.write(',');
+        cell(row.getDetailImages() == null ? null : String.join("|", row.getDetailImages()));
+        out.write('\n');
+    }
+
+    static String formatOptions(List<ProductRequest.OptionRequest> options) {
+        if (options == null || options.isEmpty()) return null;
+        StringBuilder cell = new StringBuilder();
+        for (ProductRequest.OptionRequest option : options) {
+            if (!cell.isEmpty()) cell.append('|');
+            cell.append(option.getOptionValue()).append(':')
+                    .append(option.getExtraPrice()).append(':')
+                    .append(option.getStock());
+        }
+        return cell.toString();
+    }
+
+    /* 쉼표 / 따옴표 / 줄바꿈이 있으면 따옴표로 감싼다 */
+    private void cell(String value) throws IOException {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.UploadSessionRequest;
+import com.example.coffee.dto.UploadSessionResponse;
+import com.example.coffee.entity.UploadSession;
+import com.example.coffee.repository.UploadSessionRepository;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import com.example.coffee.storage.BoundedInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 분할(재개 가능) 업로드.
+ *
+ * 세션 생성 → 조각 PUT (순서/중복 무관, 실패한 조각만 다시 전송) → 완료 시 조각을 이어 붙여 스테이징하고
+ * 일반 업로드와 같은 스테이징 토큰을 돌려준다. 조각은 저장소의 ".chunks/{id}/{번호}" 에 있으므로
+ * 조각마다 다른 노드로 요청이 가도 된다. 조각 크기 기본값 5MB 는 S3 multipart 의 최소 크기와 같다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final String CHUNK_PREFIX = ".chunks/";
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileStorageService fileStorageService;
+    private final BlobStore blobStore;
+
+    @Value("${app.upload.chunked.chunk-size:5242880}")
+    private int chunkSize;
+
+    @Value("${app.upload.chunked.max-size:209715200}")
+    private long maxSize;
+
+    @Value("${app.upload.chunked.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.upload.chunked.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    public UploadSessionResponse createSession(UploadSessionRequest req) {
+        // 완료 후 저장할 디렉토리 (upload_session.sub_dir NOT NULL)
+        if (req.getType() == null || req.getType().isBlank()) {
+            throw new IllegalArgumentException("업로드 종류(type)를 지정해야 합니다. (thumbnail, detail)");
+        }
+        String ext = fileStorageService.validate(req.getFilename(), req.getContentType(), req.getType());
+        if (req.getTotalSize() <= 0 || req.getTotalSize() > maxSize) {
+            throw new IllegalArgumentException("파일 크기가 허용 범위를 벗어났습니다. (최대 " + maxSize + " bytes)");
+        }
+
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .subDir(req.getType())
+                .ext(ext)
+                .totalSize(req.getTotalSize())
+                .chunkSize(chunkSize)
+                .build());
+        return toResponse(session, List.of());
+    }
+
+    /* 재개할 때 이미 받은 조각 확인용 */
+    public UploadSessionResponse getSession(String uploadId) throws IOException {
+        UploadSession session = findSession(uploadId);
+        return toResponse(session, receivedChunks(session));
+    }
+
+    /**
+     * 조각 하나를 저장한다. 같은 번호를 다시 보내면 덮어쓴다 (재전송 안전).
+     * 임시 key 에 받아 크기를 확인한 뒤에 바꾸므로, 크기가 틀린 재전송이 이미 받은 조각을 지우지 않는다.
+     */
+    public void putChunk(String uploadId, int index, InputStream body) throws IOException {
+        UploadSession session = findSession(uploadId);
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new IllegalArgumentException("잘못된 조각 번호입니다: " + index);
+        }
+
+        long expected = session.expectedSize(index);
+        String key = chunkKey(uploadId, index);
+        // 같은 세션 디렉토리 안이라 중간에 실패해도 세션과 함께 정리된다 (번호가 아니므로 받은 조각으로 세지 않음)
+        String temp = key + "." + UUID.randomUUID() + ".part";
+        try {
+            // 1바이트 더 읽어서 초과 전송을 감지
+            long written = blobStore.put(temp, new BoundedInputStream(body, expected + 1));
+            if (written != expected) {
+                throw new IllegalArgumentException(
+                        "조각 크기가 올바르지 않습니다. (기대 " + expected + " bytes, 수신 " + written + " bytes)");
+            }
+            blobStore.delete(key);
+            blobStore.moveIfAbsent(temp, key);
+        } finally {
+            blobStore.delete(temp);
+        }
+    }
+
+    /**
+     * 모든 조각을 받았으면 이어 붙여 스테이징하고 토큰을 돌려준다.
+     * 상품 등록/수정에서 thumbnailToken / detailImageTokens 로 사용한다.
+     */
+    public String complete(String uploadId) throws IOException {
+        UploadSession session = findSession(uploadId);
+        List<Integer> received = receivedChunks(session);
+        if (received.size() != session.getChunkCount()) {
+            throw new IllegalArgumentException("아직 받지 못한 조각이 있습니다. ("
+                    + received.size() + "/" + session.getChunkCount() + ")");
+        }
+
+        String token;
+        try (InputStream joined = join(session)) {
+            token = fileStorageService.stageStream(joined, session.getSubDir(), session.getExt());
+        }
+        discard(session.getId());
+        return token;
+    }
+
+    public void abort(String uploadId) {
+        discard(findSession(uploadId).getId());
+    }
+
+    /* 완료되지 않고 오래된 세션 정리 */
+    @Scheduled(fixedDelayString = "${app.upload.chunked.sweep-interval-ms:3600000}")
+    public void sweepExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(ttlMillis));
+        List<String> expired;
+        boolean progressed;
+        do {
+            expired = uploadSessionRepository.findExpiredIds(cutoff, PageRequest.of(0, sweepBatchSize));
+            progressed = false;
+            for (String id : expired) {
+                progressed |= discard(id);
+            }
+        } while (progressed && expired.size() == sweepBatchSize);
+    }
+
+    private boolean discard(String uploadId) {
+        try (Stream<BlobInfo> chunks = blobStore.list(CHUNK_PREFIX + uploadId + "/")) {
+            for (BlobInfo chunk : (Iterable<BlobInfo>) chunks::iterator) {
+                blobStore.delete(chunk.key());
+            }
+        } catch (IOException e) {
+            // 남은 조각은 다음 정리 때 다시 시도
+            log.warn("업로드 조각 삭제 실패: {}", uploadId, e);
+            return false;
+        }
+        uploadSessionRepository.deleteById(uploadId);
+        return true;
+    }
+
+    private UploadSession findSession(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("만료되었거나 존재하지 않는 업로드입니다: " + uploadId));
+    }
+
+    private List<Integer> receivedChunks(UploadSession session) throws IOException {
+        String prefix = CHUNK_PREFIX + session.getId() + "/";
+        List<Integer> received = new ArrayList<>();
+        try (Stream<BlobInfo> chunks = blobStore.list(prefix)) {
+            for (BlobInfo chunk : (Iterable<BlobInfo>) chunks::iterator) {
+                String name = chunk.key().substring(prefix.length());
+                // 받는 중인 임시 파일(*.part)은 건너뛴다
+                if (name.isEmpty() || !name.chars().allMatch(Character::isDigit)) continue;
+                int index = Integer.parseInt(name);
+                // 크기가 맞지 않는 조각은 받지 않은 것으로 본다
+                if (index < session.getChunkCount() && chunk.size() == session.expectedSize(index)) {
+                    received.add(index);
+                }
+            }
+        }
+        Collections.sort(received);
+        return received;
+    }
+
+    /* 조각을 순서대로 하나씩 열어 이어 붙인다 (한 번에 하나만 열림) */
+    private InputStream join(UploadSession session) {
+        int count = session.getChunkCount();
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return blobStore.open(chunkKey(session.getId(), next++), 0, Long.MAX_VALUE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+
+    private static String chunkKey(String uploadId, int index) {
+        // 목록이 번호 순으로 정렬되도록 고정 자리수
+        return CHUNK_PREFIX + uploadId + "/" + String.format("%05d", index);
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session, List<Integer> received) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(received)
+                .build();
+    }
+}
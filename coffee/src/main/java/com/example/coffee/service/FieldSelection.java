@@ -0,0 +1,99 @@
+package com.example.coffee.service;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 응답 필드 선택 (?fields=productId,productName&expand=options).
+ *
+ * - fields: 채울 최상위 필드. 없으면 전부
+ * - expand: 채울 하위 리소스 (상품의 detailImages / options, 주문의 items / member). fields 에 이름을 넣어도 된다
+ *
+ * 둘 다 없으면 전부 채운다 (기존 응답 그대로, null 필드도 null 로 나간다). 하나라도 있으면 하위 리소스는 이름이
+ * 있을 때만 채우고, 서비스는 빠진 하위 리소스의 조회 자체를 하지 않는다.
+ * 고르지 않은 필드는 view() 가 씌우는 Jackson 필터(FILTER)로 응답에서 뺀다. 고른 필드는 값이 null 이어도 나간다.
+ */
+public final class FieldSelection {
+
+    // ProductResponse / OrderResponse 의 @JsonFilter id
+    public static final String FILTER = "fieldSelection";
+
+    // ObjectMapper 기본 필터 (WebConfig): 선택이 없으면 전부 직렬화
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    public static final FieldSelection ALL = new FieldSelection(null, Set.of(), Set.of(), Set.of(), true);
+
+    // null 이면 최상위 필드 전부
+    private final Set<String> fields;
+    private final Set<String> expand;
+    private final Set<String> known;
+    private final Set<String> expandable;
+    private final boolean all;
+
+    private FieldSelection(Set<String> fields, Set<String> expand, Set<String> known, Set<String> expandable,
+                           boolean all) {
+        this.fields = fields;
+        this.expand = expand;
+        this.known = known;
+        this.expandable = expandable;
+        this.all = all;
+    }
+
+    /* 쉼표로 구분. 모르는 이름이면 IllegalArgumentException (오타로 필드가 조용히 빠지지 않도록) */
+    public static FieldSelection of(String fields, String expand, Set<String> known, Set<String> expandable) {
+        if (fields == null && expand == null) return ALL;
+        return new FieldSelection(
+                fields == null ? null : parse(fields, known, "필드"),
+                expand == null ? Set.of() : parse(expand, expandable, "하위 리소스"),
+                known, expandable, false);
+    }
+
+    /* 최상위 필드 */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /* 하위 리소스 */
+    public boolean expands(String resource) {
+        return all || expand.contains(resource) || (fields != null && fields.contains(resource));
+    }
+
+    public <T> T pick(String field, T value) {
+        return includes(field) ? value : null;
+    }
+
+    /* 응답 본문. 선택이 있으면 고른 필드만 직렬화하는 필터를 씌운다 (없으면 ObjectMapper 기본 = 전부) */
+    public MappingJacksonValue view(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!all) {
+            Set<String> selected = new LinkedHashSet<>();
+            for (String name : known) {
+                if (expandable.contains(name) ? expands(name) : includes(name)) {
+                    selected.add(name);
+                }
+            }
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        }
+        return value;
+    }
+
+    private static Set<String> parse(String value, Set<String> allowed, String kind) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            if (!allowed.contains(trimmed)) {
+                throw new IllegalArgumentException("알 수 없는 " + kind + "입니다: " + trimmed + " " + allowed);
+            }
+            names.add(trimmed);
+        }
+        return names;
+    }
+}
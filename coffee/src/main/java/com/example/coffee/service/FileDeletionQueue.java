@@ -0,0 +1,141 @@
+package com.example.coffee.service;
+
+import com.example.coffee.repository.UploadBlobRepository;
+import com.example.coffee.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 업로드 파일 삭제 큐. 트랜잭션이 커밋된 뒤에만 큐에 들어가고,
+ * 백그라운드에서 묶음 단위로 실제 파일(+ 리사이즈 버전)을 지운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileDeletionQueue {
+
+    private final UploadBlobRepository uploadBlobRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final BlobStore blobStore;
+    private final PlatformTransactionManager transactionManager;
+
+    private final BlockingQueue<PendingDeletion> queue = new LinkedBlockingQueue<>();
+
+    @Value("${app.upload.deletion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.upload.deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /* 트랜잭션 안이면 커밋 후에, 롤백되면 아무것도 하지 않음 */
+    public void enqueueAfterCommit(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue.add(new PendingDeletion(relativePath, 1));
+                }
+            });
+        } else {
+            queue.add(new PendingDeletion(relativePath, 1));
+        }
+    }
+
+    /* 여러 파일을 한 번에 (커밋 후 콜백도 하나) */
+    public void enqueueAfterCommit(Collection<String> relativePaths) {
+        List<PendingDeletion> deletions = new ArrayList<>(relativePaths.size());
+        for (String path : relativePaths) {
+            if (path != null && !path.isBlank()) {
+                deletions.add(new PendingDeletion(path, 1));
+            }
+        }
+        if (deletions.isEmpty()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue.addAll(deletions);
+                }
+            });
+        } else {
+            queue.addAll(deletions);
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.deletion.interval-ms:1000}")
+    public void drain() {
+        List<PendingDeletion> batch = new ArrayList<>(batchSize);
+        List<PendingDeletion> retries = new ArrayList<>();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            for (PendingDeletion pending : batch) {
+                process(pending, retries);
+            }
+            batch.clear();
+        }
+        // 실패한 항목은 다음 주기에 다시 시도
+        queue.addAll(retries);
+    }
+
+    private void process(PendingDeletion pending, List<PendingDeletion> retries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> purge(pending.path()));
+        } catch (Exception e) {
+            if (pending.attempt() < maxAttempts) {
+                log.warn("파일 삭제 실패, 재시도 예정 ({}회): {}", pending.attempt(), pending.path(), e);
+                retries.add(new PendingDeletion(pending.path(), pending.attempt() + 1));
+            } else {
+                log.error("파일 삭제 실패, 포기: {}", pending.path(), e);
+            }
+        }
+    }
+
+    /*
+     * upload_blob 행을 잠금 조회해서, 그 사이에 같은 내용이 다시 업로드(acquire)되었으면 지우지 않는다.
+     * 행이 없으면 갭 잠금이 걸려 동시 acquire 는 이 트랜잭션이 끝날 때까지 기다린다.
+     */
+    private void purge(String relativePath) {
+        if (!FileStorageService.isSafeKey(relativePath)) return;
+
+        if (uploadBlobRepository.findLockedByPath(relativePath).isPresent()) {
+            return;
+        }
+        try {
+            blobStore.delete(relativePath);
+        } catch (IOException e) {
+            throw new IllegalStateException("파일 삭제 실패: " + relativePath, e);
+        }
+        imageDerivativeService.deleteDerivatives(relativePath);
+    }
+
+    private record PendingDeletion(String path, int attempt) {
+    }
+}
@@ -1,19 +1,46 @@
 package com.example.coffee.service;
 
+import com.example.coffee.config.ThreadMode;
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.UploadBlobRepository;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import com.example.coffee.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Set;
-import java.util.UUID;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".webp");
@@ -22,28 +49,291 @@ public class FileStorageService {
     );
     private static final Set<String> ALLOWED_SUBDIRS = Set.of("thumbnail", "detail");
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    // 스테이징 영역: ".staging/{token}/data" (내용) + ".staging/{token}/meta" (확정 경로/해시/크기)
+    private static final String STAGING_PREFIX = ".staging/";
 
-    private Path uploadPath;
+    @Value("${app.upload.staging.threads:4}")
+    private int stagingThreads;
+
+    @Value("${app.upload.staging.ttl-ms:3600000}")
+    private long stagingTtlMillis;
+
+    private final BlobStore blobStore;
+    private final UploadBlobRepository uploadBlobRepository;
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final UploadLayout uploadLayout;
+    private final MeterRegistry meterRegistry;
+    private final ThreadMode threadMode;
+
+    private ExecutorService stagingExecutor;
 
     @PostConstruct
-    public void init() throws IOException {
-        uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+    public void init() {
+        // 가상 스레드 모드에서도 동시 디스크 쓰기 수는 stagingThreads 로 제한 (스레드만 가상으로 바뀜)
+        stagingExecutor = new ThreadPoolExecutor(
+                stagingThreads, stagingThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(stagingThreads * 4),
+                threadMode.factory("upload-staging-"),
+                // 큐가 가득 차면 요청 스레드에서 직접 저장 (자연스러운 backpressure)
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
     }
 
+    @PreDestroy
+    public void shutdown() {
+        stagingExecutor.shutdown();
+    }
+
+    /**
+     * 내용 해시(SHA-256)를 파일명으로 저장한다. 같은 내용은 한 번만 저장되고
+     * upload_blob.ref_count 로 참조 수를 관리한다.
+     */
+    @Transactional
     public String storeFile(MultipartFile file, String subDir) throws IOException {
         if (file == null || file.isEmpty()) return null;
+        return claimStaged(stage(file, subDir));
+    }
+
+    /* =========================
+       2단계 업로드: 트랜잭션 밖에서 먼저 저장(stage) → 트랜잭션 안에서는 토큰만 사용(claim)
+       스테이징 정보는 저장소에만 있으므로 stage 와 claim 이 다른 노드에서 일어나도 된다.
+       ========================= */
+
+    /**
+     * 파일을 스테이징 영역에 저장하고 토큰을 돌려준다. DB 커넥션을 잡지 않는다.
+     */
+    public String stage(MultipartFile file, String subDir) throws IOException {
+        if (file == null || file.isEmpty()) return null;
+
+        String ext = validate(file.getOriginalFilename(), file.getContentType(), subDir);
+        try (InputStream in = file.getInputStream()) {
+            return stageStream(in, subDir, ext);
+        }
+    }
+
+    /**
+     * 이미 검증된 스트림(분할 업로드 조립 결과 등)을 스테이징한다.
+     */
+    public String stageStream(InputStream content, String subDir, String ext) throws IOException {
+        String token = UUID.randomUUID().toString();
+        String dataKey = dataKey(token);
+
+        // 저장하면서 동시에 해시 계산
+        MessageDigest md = sha256();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        try {
+            long size = blobStore.put(dataKey, new DigestInputStream(content, md));
+            RequestTrace.io("storage.put", start, size);
+            String digest = HexFormat.of().formatHex(md.digest());
+            String relativePath = uploadLayout.pathFor(subDir, digest + ext);
+
+            // meta 가 있어야 claim 할 수 있으므로 data 보다 나중에 쓴다
+            String meta = relativePath + "\n" + digest + "\n" + size;
+            start = System.nanoTime();
+            blobStore.put(metaKey(token), new ByteArrayInputStream(meta.getBytes(StandardCharsets.UTF_8)));
+            RequestTrace.io("storage.put", start, meta.length());
+
+            // 초당 업로드 바이트 = rate(coffee_upload_bytes_total)
+            String type = (subDir == null || subDir.isBlank()) ? "none" : subDir;
+            Counter.builder("coffee.upload.bytes")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("type", type)
+                    .register(meterRegistry)
+                    .increment(size);
+            sample.stop(Timer.builder("coffee.upload.stage")
+                    .tag("type", type)
+                    .register(meterRegistry));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(dataKey);
+            throw e;
+        }
+        return token;
+    }
+
+    /**
+     * 여러 파일을 병렬로 스테이징. 반환 순서는 입력 순서와 같다.
+     */
+    public List<String> stageAll(List<MultipartFile> files, String subDir) throws IOException {
+        if (files == null || files.isEmpty()) return List.of();
+
+        List<Future<String>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            // 스테이징 스레드의 I/O 도 이 요청의 추적에 포함
+            futures.add(stagingExecutor.submit(RequestTrace.propagate(() -> stage(file, subDir))));
+        }
+
+        List<String> tokens = new ArrayList<>(files.size());
+        try {
+            for (Future<String> future : futures) {
+                tokens.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("이미지 업로드가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        } finally {
+            // 실패한 경우 이미 스테이징된 파일은 sweep 대상이 되도록 남겨둔다
+            futures.forEach(f -> f.cancel(false));
+        }
+        return tokens;
+    }
+
+    /**
+     * 스테이징 토큰을 실제 경로로 확정한다. 파일 이동은 커밋 후에 일어나고,
+     * 롤백되면 스테이징 파일을 지운다.
+     */
+    @Transactional
+    public String claimStaged(String token) {
+        if (token == null || token.isBlank()) return null;
+
+        StagedFile staged = readStaged(token);
+        uploadBlobRepository.acquire(staged.relativePath(), staged.digest(), staged.size());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    promoteQuietly(token, staged);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        discard(token);
+                    }
+                }
+            });
+        } else {
+            promoteQuietly(token, staged);
+        }
+        return staged.relativePath();
+    }
+
+    /**
+     * 이미 저장된 파일(thumbnail/..., detail/...)의 참조 수를 하나 늘리고 경로를 그대로 돌려준다.
+     * 카탈로그 내보내기 결과를 다시 가져올 때처럼 파일을 새로 올리지 않고 기존 이미지를 가리키는 경우.
+     * 참조 수 기록 이전에 저장된 파일(UUID 경로)은 지금 가리키는 상품 / 상세 이미지 수 + 1 로 기록을 만든다.
+     */
+    @Transactional
+    public String retain(String relativePath) {
+        if (!isSafeKey(relativePath)) {
+            throw new IllegalArgumentException("저장된 이미지가 아닙니다: " + relativePath);
+        }
+        if (uploadBlobRepository.retain(relativePath) > 0) {
+            return relativePath;
+        }
+        adopt(relativePath, 1);
+        return relativePath;
+    }
+
+    /**
+     * upload_blob 기록 없이 저장돼 있던 파일(참조 수 기록 이전 UUID 경로)을 기록한다.
+     * 참조 수 = 지금 이 경로를 가리키는 상품 / 상세 이미지 수 + added. 그 수가 0 이면 기록하지 않는다 (GC 대상).
+     * 파일이 없으면 IllegalArgumentException.
+     */
+    @Transactional
+    public void adopt(String relativePath, int added) {
+        BlobInfo blob = stat(relativePath)
+                .orElseThrow(() -> new IllegalArgumentException("저장된 이미지가 아닙니다: " + relativePath));
+        List<String> path = List.of(relativePath);
+        int refCount = productRepository.findReferencedThumbnails(path).size()
+                + productImageRepository.findReferencedUrls(path).size() + added;
+        if (refCount > 0) {
+            uploadBlobRepository.adopt(relativePath, digestOf(relativePath), blob.size(), refCount);
+        }
+    }
+
+    /* 한 번도 claim 되지 않은 스테이징 파일 정리 */
+    @Scheduled(fixedDelayString = "${app.upload.staging.sweep-interval-ms:600000}")
+    public void sweepStaged() {
+        long cutoff = System.currentTimeMillis() - stagingTtlMillis;
+
+        List<String> expired;
+        try (Stream<BlobInfo> blobs = blobStore.list(STAGING_PREFIX)) {
+            expired = blobs.filter(b -> b.lastModified() < cutoff).map(BlobInfo::key).toList();
+        } catch (IOException e) {
+            log.warn("스테이징 영역 정리 실패", e);
+            return;
+        }
+        expired.forEach(this::deleteQuietly);
+    }
+
+    /**
+     * 참조 수를 하나 줄이고, 더 이상 참조가 없으면 커밋 후 삭제 큐에 넣는다.
+     * 삭제 예약되었으면 true (다른 곳에서 아직 참조 중이면 false).
+     */
+    @Transactional
+    public boolean deleteFile(String filePath) {
+        if (filePath == null || filePath.isBlank()) return false;
+
+        // 경로 탐색 공격 방지
+        if (!isSafeKey(filePath)) {
+            return false;
+        }
 
+        // upload_blob 에 없는 기존(UUID) 파일은 참조 수 없이 바로 삭제 예약
+        if (uploadBlobRepository.release(filePath) > 0
+                && uploadBlobRepository.deleteIfUnreferenced(filePath) == 0) {
+            return false;
+        }
+        fileDeletionQueue.enqueueAfterCommit(filePath);
+        return true;
+    }
+
+    /**
+     * deleteFile 의 일괄 버전. 경로 수와 관계없이 upload_blob 에는 조회 / 참조 감소 / 조회 / 삭제 네 문장만 보낸다
+     * (같은 경로가 여러 번 오면 그 수만큼 줄인다. 횟수가 다른 경로가 섞이면 감소는 횟수별로 한 문장).
+     * 삭제 예약한 파일 수를 돌려준다.
+     */
+    @Transactional
+    public int deleteFiles(Collection<String> filePaths) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String path : filePaths) {
+            if (path != null && !path.isBlank() && isSafeKey(path)) {
+                counts.merge(path, 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) return 0;
+
+        // upload_blob 에 없는 기존(UUID) 파일은 참조 수 없이 바로 삭제 예약
+        Set<String> tracked = new HashSet<>(uploadBlobRepository.findExistingPaths(counts.keySet()));
+        Set<String> deletable = new HashSet<>(counts.keySet());
+        deletable.removeAll(tracked);
+
+        if (!tracked.isEmpty()) {
+            Map<Integer, List<String>> byCount = new TreeMap<>();
+            for (String path : tracked) {
+                byCount.computeIfAbsent(counts.get(path), c -> new ArrayList<>()).add(path);
+            }
+            byCount.forEach((count, paths) -> uploadBlobRepository.releaseAll(paths, count));
+
+            List<String> unreferenced = uploadBlobRepository.findUnreferencedPaths(tracked);
+            if (!unreferenced.isEmpty()) {
+                uploadBlobRepository.deleteUnreferenced(unreferenced);
+                deletable.addAll(unreferenced);
+            }
+        }
+        fileDeletionQueue.enqueueAfterCommit(deletable);
+        return deletable.size();
+    }
+
+    /**
+     * 서브디렉토리/확장자/MIME 타입을 검증하고 소문자 확장자(".jpg" 등)를 돌려준다.
+     */
+    public String validate(String originalFilename, String contentType, String subDir) {
         // 서브디렉토리 검증
         if (subDir != null && !subDir.isBlank() && !ALLOWED_SUBDIRS.contains(subDir)) {
             throw new IllegalArgumentException("허용되지 않은 디렉토리입니다: " + subDir);
         }
 
-        String original = StringUtils.cleanPath(file.getOriginalFilename());
+        String original = StringUtils.cleanPath(originalFilename == null ? "" : originalFilename);
         String ext = "";
         int idx = original.lastIndexOf('.');
         if (idx >= 0) ext = original.substring(idx).toLowerCase();
@@ -54,41 +344,114 @@ public class FileStorageService {
         }
 
         // MIME 타입 검증
-        String contentType = file.getContentType();
         if (contentType == null || !ALLOWED_MIME_TYPES.contains(contentType)) {
             throw new IllegalArgumentException("허용되지 않은 파일 타입입니다.");
         }
+        return ext;
+    }
 
-        String filename = UUID.randomUUID() + ext;
+    /* 업로드 루트 밖이나 내부 작업 영역(".tmp", ".staging" 등)을 가리키지 않는 key 인지 */
+    public static boolean isSafeKey(String key) {
+        if (key == null || key.isBlank() || key.startsWith("/") || key.contains("\\")) return false;
+        for (String segment : key.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".")) return false;
+        }
+        return true;
+    }
 
-        Path dirPath = uploadPath;
-        if (subDir != null && !subDir.isBlank()) {
-            dirPath = uploadPath.resolve(subDir).normalize();
-            if (!Files.exists(dirPath)) {
-                Files.createDirectories(dirPath);
-            }
+    private StagedFile readStaged(String token) {
+        try {
+            // 토큰이 그대로 key 에 들어가므로 형식을 먼저 확인
+            UUID.fromString(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 업로드 토큰입니다: " + token);
         }
 
-        Path target = dirPath.resolve(filename);
-        Files.copy(file.getInputStream(), target);
+        String meta;
+        long start = System.nanoTime();
+        try (InputStream in = blobStore.open(metaKey(token), 0, Long.MAX_VALUE)) {
+            meta = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            RequestTrace.io("storage.read", start, meta.length());
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("만료되었거나 존재하지 않는 업로드 토큰입니다: " + token);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        return (subDir == null || subDir.isBlank())
-                ? filename
-                : subDir + "/" + filename;
+        String[] lines = meta.split("\n");
+        return new StagedFile(lines[0], lines[1], Long.parseLong(lines[2]));
     }
 
-    public boolean deleteFile(String filePath) {
-        if (filePath == null || filePath.isBlank()) return false;
+    private void promote(String token, StagedFile staged) throws IOException {
+        // 이미 같은 내용이 저장되어 있으면 스테이징 파일만 지운다
+        long start = System.nanoTime();
+        blobStore.moveIfAbsent(dataKey(token), staged.relativePath());
+        RequestTrace.io("storage.move", start, staged.size());
+        start = System.nanoTime();
+        blobStore.delete(metaKey(token));
+        RequestTrace.io("storage.delete", start, 0);
+    }
 
+    private void promoteQuietly(String token, StagedFile staged) {
         try {
-            Path target = uploadPath.resolve(filePath).normalize();
-            // 경로 탐색 공격 방지
-            if (!target.startsWith(uploadPath)) {
-                return false;
-            }
-            return Files.deleteIfExists(target);
+            promote(token, staged);
         } catch (IOException e) {
-            return false;
+            // 이미 커밋된 뒤라 되돌릴 수 없음. 스테이징 파일은 sweep 으로 정리됨
+            log.error("업로드 파일 이동 실패: {}", staged.relativePath(), e);
         }
     }
+
+    private void discard(String token) {
+        deleteQuietly(dataKey(token));
+        deleteQuietly(metaKey(token));
+    }
+
+    private void deleteQuietly(String key) {
+        long start = System.nanoTime();
+        try {
+            blobStore.delete(key);
+            RequestTrace.io("storage.delete", start, 0);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", key);
+        }
+    }
+
+    private static String dataKey(String token) {
+        return STAGING_PREFIX + token + "/data";
+    }
+
+    private static String metaKey(String token) {
+        return STAGING_PREFIX + token + "/meta";
+    }
+
+    private Optional<BlobInfo> stat(String key) {
+        try {
+            return blobStore.stat(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String digestOf(String key) {
+        MessageDigest md = sha256();
+        long start = System.nanoTime();
+        try (InputStream in = new DigestInputStream(blobStore.open(key, 0, Long.MAX_VALUE), md)) {
+            long size = in.transferTo(OutputStream.nullOutputStream());
+            RequestTrace.io("storage.read", start, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StagedFile(String relativePath, String digest, long size) {
+    }
 }
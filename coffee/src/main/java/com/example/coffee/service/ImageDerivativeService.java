@@ -0,0 +1,255 @@
+package com.example.coffee.service;
+
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드 이미지의 리사이즈 버전(썸네일/상세)을 백그라운드에서 생성한다.
+ * 원본 "thumbnail/abc.png" → "thumbnail/abc_w320.png" 형태로 저장.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageDerivativeService {
+
+    private static final Set<String> DERIVED_SUBDIRS = Set.of("thumbnail", "detail");
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final BlobStore blobStore;
+
+    @Value("${app.image.derivative.widths:320,640,1024}")
+    private List<Integer> widths;
+
+    @Value("${app.image.derivative.threads:2}")
+    private int threads;
+
+    @Value("${app.image.derivative.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.image.derivative.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        widths = widths.stream().filter(w -> w > 0).distinct().sorted().collect(Collectors.toList());
+
+        // 리사이즈는 CPU 작업이라 가상 스레드 모드에서도 플랫폼 스레드를 유지 (threads 개로 CPU 사용량 제한)
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-derivative-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // 큐가 가득 차면 건너뛴다. 원본은 항상 서빙 가능하므로 요청 스레드를 막지 않음
+                (r, e) -> log.warn("이미지 변환 큐가 가득 차 작업을 건너뜁니다.")
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /* 트랜잭션 커밋 후 변환 작업 등록 (롤백된 업로드는 변환하지 않음) */
+    public void schedule(String relativePath) {
+        if (widths.isEmpty()) return;
+        if (relativePath == null || !DERIVED_SUBDIRS.contains(subDirOf(relativePath))) return;
+
+        Runnable submit = () -> executor.execute(() -> generate(relativePath));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /* 요청 너비 이상인 가장 작은 변환본의 key, 없으면 원본 key */
+    public String resolve(String relativePath, Integer width) throws IOException {
+        if (!FileStorageService.isSafeKey(relativePath)) {
+            throw new IllegalArgumentException("잘못된 파일 경로입니다.");
+        }
+        if (width == null) return relativePath;
+
+        for (int w : widths) {
+            if (w < width) continue;
+            String derived = derivativePath(relativePath, w);
+            if (blobStore.exists(derived)) return derived;
+        }
+        return relativePath;
+    }
+
+    public void deleteDerivatives(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) return;
+        for (int w : widths) {
+            try {
+                blobStore.delete(derivativePath(relativePath, w));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("변환 이미지 삭제 실패: {} ({}px)", relativePath, w);
+            }
+        }
+    }
+
+    public static List<Integer> parseWidths(String value) {
+        if (value == null || value.isBlank()) return List.of();
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private void generate(String relativePath) {
+        try {
+            if (!FileStorageService.isSafeKey(relativePath) || !blobStore.exists(relativePath)) return;
+
+            List<Integer> created = new ArrayList<>();
+            BufferedImage image = readForWidth(relativePath, widths.get(widths.size() - 1));
+            if (image == null) return; // ImageIO 가 읽을 수 없는 형식 (webp 등)
+
+            String format = outputFormat(relativePath);
+            for (int w : widths) {
+                if (w >= image.getWidth()) break;
+                String target = derivativePath(relativePath, w);
+                // 같은 내용의 원본은 한 번만 저장되므로 변환본도 재사용
+                if (!blobStore.exists(target)) {
+                    write(resize(image, w, "png".equals(format)), format, target);
+                }
+                created.add(w);
+            }
+
+            if (!created.isEmpty()) {
+                String recorded = created.stream().map(String::valueOf).collect(Collectors.joining(","));
+                if ("thumbnail".equals(subDirOf(relativePath))) {
+                    productRepository.updateThumbnailWidths(relativePath, recorded);
+                } else {
+                    productImageRepository.updateWidths(relativePath, recorded);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("이미지 변환 실패: {}", relativePath, e);
+        }
+    }
+
+    /* 디코딩 단계에서 서브샘플링해서 대용량 원본도 메모리에 통째로 올리지 않음 */
+    private BufferedImage readForWidth(String key, int maxTargetWidth) throws IOException {
+        // 로컬 파일이면 임의 접근이 가능한 파일 스트림, 아니면 저장소 스트림
+        Optional<Path> local = blobStore.localPath(key);
+        try (InputStream raw = local.isPresent() ? null : blobStore.open(key, 0, Long.MAX_VALUE);
+             ImageInputStream in = ImageIO.createImageInputStream(
+                     local.isPresent() ? local.get().toFile() : raw)) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, sourceWidth / (maxTargetWidth * 2));
+                if (factor > 1) {
+                    param.setSourceSubsampling(factor, factor, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, boolean keepAlpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String format, String target) throws IOException {
+        // 변환본은 작으므로 메모리에서 인코딩한 뒤 한 번에 저장
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        if ("jpg".equals(format)) {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(buffer)) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        } else {
+            ImageIO.write(image, format, buffer);
+        }
+        blobStore.put(target, new ByteArrayInputStream(buffer.toByteArray()));
+    }
+
+    static String derivativePath(String relativePath, int width) {
+        int dot = relativePath.lastIndexOf('.');
+        String base = (dot >= 0) ? relativePath.substring(0, dot) : relativePath;
+        return base + "_w" + width + "." + outputFormat(relativePath);
+    }
+
+    /* jpg 는 jpg 로, 투명도가 있을 수 있는 형식은 png 로 */
+    private static String outputFormat(String relativePath) {
+        String lower = relativePath.toLowerCase(Locale.ROOT);
+        return (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) ? "jpg" : "png";
+    }
+
+    private static String subDirOf(String relativePath) {
+        int slash = relativePath.indexOf('/');
+        return (slash > 0) ? relativePath.substring(0, slash) : "";
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.LowStockResponse;
+import com.example.coffee.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 재고 부족 인덱스. 모든 variant 를 (재고, variant id) 순으로 정렬해 두고,
+ * 재고가 바뀔 때마다(주문 예약/반환, 상품 생성/수정/삭제) 그 항목만 옮긴다.
+ * "재고가 X 미만인 variant" 는 앞에서부터 X 전까지만 읽으면 되므로 전체 상품을 훑지 않는다.
+ *
+ * 변경은 커밋된 뒤 반영하고, low-threshold 를 지나가면(부족 / 품절 / 재입고) StockAlertFeed 에 알림을 남긴다.
+ * 다른 노드에서 바뀐 재고나 커밋 순서와 반영 순서가 엇갈린 경우는 resync-ms 마다 DB 와 맞추면서 바로잡는다.
+ * DB 를 읽는 동안 이 노드에서 반영한 변경은 읽은 값보다 새것일 수 있으므로 그 항목은 맞추지 않고 다음 resync 로 넘긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowStockIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    static final String LOW = "LOW";
+    static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+    static final String RESTOCKED = "RESTOCKED";
+
+    private static final Comparator<LowStockResponse> BY_STOCK = Comparator
+            .comparingInt(LowStockResponse::getStock)
+            .thenComparingLong(LowStockResponse::getVariantId);
+
+    private final ProductVariantRepository variantRepository;
+    private final StockAlertFeed alertFeed;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.stock.low-threshold:10}")
+    private int threshold;
+
+    private final Map<Long, LowStockResponse> entries = new HashMap<>();
+    private final NavigableSet<LowStockResponse> byStock = new TreeSet<>(BY_STOCK);
+    // 상품 단위 교체/삭제용 (상품 id -> variant id)
+    private final Map<Long, Set<Long>> variantsByProduct = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // sync 가 DB 를 읽는 동안 반영한 변경 (variant id / 상품 id). sync 중이 아니면 null, 쓰기 잠금 안에서만 바꾼다
+    private Set<Long> touchedVariants;
+    private Set<Long> touchedProducts;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("coffee.stock.low", this, index -> index.countBelow(index.threshold))
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync(false);
+    }
+
+    @Scheduled(initialDelayString = "${app.stock.resync-ms:300000}",
+               fixedDelayString = "${app.stock.resync-ms:300000}")
+    public void resync() {
+        sync(true);
+    }
+
+    /* 재고가 below 미만인 variant, 재고가 적은 것부터 */
+    public List<LowStockResponse> below(int below, int limit) {
+        lock.readLock().lock();
+        try {
+            List<LowStockResponse> result = new ArrayList<>(Math.min(Math.max(limit, 0), 1000));
+            for (LowStockResponse entry : byStock.headSet(probe(below), false)) {
+                if (result.size() >= limit) break;
+                result.add(entry);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countBelow(int below) {
+        lock.readLock().lock();
+        try {
+            return byStock.headSet(probe(below), false).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int threshold() {
+        return threshold;
+    }
+
+    /* 주문 예약 / 반환: 재고 값만 바뀐다 (SELECT ... FOR UPDATE 로 읽은 값) */
+    public void stockChanged(Long variantId, int stock) {
+        afterCommit(() -> write(() -> {
+            touched(variantId, null);
+            LowStockResponse old = entries.get(variantId);
+            // 다른 노드에서 만든 variant 는 아직 없을 수 있다 (다음 resync 때 들어온다)
+            if (old == null) return;
+            apply(new LowStockResponse(variantId, old.getProductId(), old.getProductName(),
+                    old.getOptionValue(), stock), true);
+        }));
+    }
+
+    /* 상품 생성 / 옵션 교체: 상품의 variant 를 통째로 바꾼다. 같은 옵션값의 이전 재고와 비교해 알린다 */
+    public void replaceProduct(Long productId, List<LowStockResponse> variants) {
+        afterCommit(() -> write(() -> {
+            touched(null, productId);
+            Map<String, Integer> previous = new HashMap<>();
+            for (LowStockResponse old : removeAll(productId)) {
+                previous.put(old.getOptionValue(), old.getStock());
+            }
+            for (LowStockResponse entry : variants) {
+                insert(entry);
+                alert(previous.get(entry.getOptionValue()), entry);
+            }
+        }));
+    }
+
+    /* 옵션은 그대로 두고 상품 정보만 수정 */
+    public void renameProduct(Long productId, String productName) {
+        afterCommit(() -> write(() -> {
+            touched(null, productId);
+            for (LowStockResponse old : removeAll(productId)) {
+                insert(new LowStockResponse(old.getVariantId(), productId, productName,
+                        old.getOptionValue(), old.getStock()));
+            }
+        }));
+    }
+
+    public void removeProduct(Long productId) {
+        afterCommit(() -> write(() -> {
+            touched(null, productId);
+            removeAll(productId);
+        }));
+    }
+
+    /*
+     * DB 의 현재 재고로 맞춘다. 처음 적재할 때는 알림을 남기지 않는다.
+     * 읽는 동안 반영된 변경(touched)이 있는 항목과, 읽은 범위(마지막 variant id) 밖의 항목은 건드리지 않는다.
+     */
+    private void sync(boolean alert) {
+        syncLock.lock();
+        try {
+            write(() -> {
+                touchedVariants = new HashSet<>();
+                touchedProducts = new HashSet<>();
+            });
+            try {
+                Map<Long, LowStockResponse> current = new HashMap<>();
+                long last = readAll(current);
+                write(() -> reconcile(current, last, alert));
+            } finally {
+                write(() -> {
+                    touchedVariants = null;
+                    touchedProducts = null;
+                });
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /* primary 에서 한 트랜잭션으로 읽는다. 마지막 variant id 를 돌려준다 */
+    private long readAll(Map<Long, LowStockResponse> current) {
+        return transactionTemplate.execute(status -> {
+            long cursor = 0L;
+            while (true) {
+                List<LowStockResponse> batch = variantRepository.findStockEntriesAfter(
+                        cursor, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (batch.isEmpty()) return cursor;
+
+                for (LowStockResponse entry : batch) {
+                    current.put(entry.getVariantId(), entry);
+                }
+                cursor = batch.get(batch.size() - 1).getVariantId();
+            }
+        });
+    }
+
+    private void reconcile(Map<Long, LowStockResponse> current, long last, boolean alert) {
+        for (LowStockResponse old : new ArrayList<>(entries.values())) {
+            if (old.getVariantId() <= last && !current.containsKey(old.getVariantId()) && !isTouched(old)) {
+                remove(old.getVariantId());
+            }
+        }
+        for (LowStockResponse entry : current.values()) {
+            if (isTouched(entry)) continue;
+            LowStockResponse old = entries.get(entry.getVariantId());
+            if (old != null && isTouched(old)) continue;
+            if (old == null || !old.equals(entry)) {
+                apply(entry, alert);
+            }
+        }
+    }
+
+    private void touched(Long variantId, Long productId) {
+        if (touchedVariants == null) return;
+        if (variantId != null) touchedVariants.add(variantId);
+        if (productId != null) touchedProducts.add(productId);
+    }
+
+    private boolean isTouched(LowStockResponse entry) {
+        return touchedVariants.contains(entry.getVariantId()) || touchedProducts.contains(entry.getProductId());
+    }
+
+    private void apply(LowStockResponse entry, boolean alert) {
+        LowStockResponse old = insert(entry);
+        if (alert) {
+            alert(old == null ? null : old.getStock(), entry);
+        }
+    }
+
+    private LowStockResponse insert(LowStockResponse entry) {
+        LowStockResponse old = remove(entry.getVariantId());
+        entries.put(entry.getVariantId(), entry);
+        byStock.add(entry);
+        variantsByProduct.computeIfAbsent(entry.getProductId(), id -> new HashSet<>()).add(entry.getVariantId());
+        return old;
+    }
+
+    private LowStockResponse remove(Long variantId) {
+        LowStockResponse old = entries.remove(variantId);
+        if (old == null) return null;
+        byStock.remove(old);
+        Set<Long> siblings = variantsByProduct.get(old.getProductId());
+        if (siblings != null) {
+            siblings.remove(variantId);
+            if (siblings.isEmpty()) variantsByProduct.remove(old.getProductId());
+        }
+        return old;
+    }
+
+    private List<LowStockResponse> removeAll(Long productId) {
+        Set<Long> variantIds = variantsByProduct.remove(productId);
+        if (variantIds == null) return List.of();
+
+        List<LowStockResponse> removed = new ArrayList<>(variantIds.size());
+        for (Long variantId : variantIds) {
+            LowStockResponse old = entries.remove(variantId);
+            if (old != null) {
+                byStock.remove(old);
+                removed.add(old);
+            }
+        }
+        return removed;
+    }
+
+    /* 임계값을 지나갈 때만 알린다 (부족한 상태에서 더 줄어드는 것은 알리지 않음). previous == null 은 새 variant */
+    private void alert(Integer previous, LowStockResponse entry) {
+        int stock = entry.getStock();
+        boolean wasOut = previous != null && previous <= 0;
+        boolean wasLow = previous != null && previous < threshold;
+        if (stock <= 0 && !wasOut) {
+            alertFeed.publish(OUT_OF_STOCK, entry, previous, threshold);
+        } else if (stock > 0 && stock < threshold && !wasLow) {
+            alertFeed.publish(LOW, entry, previous, threshold);
+        } else if (stock >= threshold && wasLow) {
+            alertFeed.publish(RESTOCKED, entry, previous, threshold);
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static LowStockResponse probe(int stock) {
+        return new LowStockResponse(Long.MIN_VALUE, null, null, null, stock);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.MemberSearchResponse;
+import com.example.coffee.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 검색용 인메모리 접두어 트라이 (이메일 / 이름 / 전화번호).
+ * MemberService 의 생성/수정/삭제가 커밋된 뒤 반영된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final MemberRepository memberRepository;
+
+    private final Map<Long, MemberSearchResponse> entries = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long cursor = 0L;
+        while (true) {
+            List<MemberSearchResponse> batch = memberRepository.findSearchEntriesAfter(
+                    cursor, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (batch.isEmpty()) break;
+
+            for (MemberSearchResponse entry : batch) {
+                apply(entry);
+            }
+            cursor = batch.get(batch.size() - 1).getMemberId();
+        }
+    }
+
+    public List<MemberSearchResponse> search(String query, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) return List.of();
+
+            Set<Long> ids = new LinkedHashSet<>();
+            collect(node, ids, limit);
+
+            List<MemberSearchResponse> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                MemberSearchResponse entry = entries.get(id);
+                if (entry != null) result.add(entry);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* 트랜잭션 안에서 호출되면 커밋 후에 반영 */
+    public void put(MemberSearchResponse entry) {
+        afterCommit(() -> apply(entry));
+    }
+
+    public void remove(Long memberId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                MemberSearchResponse old = entries.remove(memberId);
+                if (old != null) unindex(old);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void apply(MemberSearchResponse entry) {
+        lock.writeLock().lock();
+        try {
+            MemberSearchResponse old = entries.put(entry.getMemberId(), entry);
+            if (old != null) unindex(old);
+            for (String key : keysOf(entry)) {
+                insert(key, entry.getMemberId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(MemberSearchResponse entry) {
+        for (String key : keysOf(entry)) {
+            delete(root, key, 0, entry.getMemberId());
+        }
+    }
+
+    private void insert(String key, Long id) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        node.ids.add(id);
+    }
+
+    private boolean delete(Node node, String key, int depth, Long id) {
+        if (depth == key.length()) {
+            node.ids.remove(id);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && delete(child, key, depth + 1, id)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node != root && node.ids.isEmpty() && node.children.isEmpty();
+    }
+
+    private void collect(Node node, Set<Long> ids, int limit) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && ids.size() < limit) {
+            Node current = stack.pop();
+            for (Long id : current.ids) {
+                ids.add(id);
+                if (ids.size() >= limit) return;
+            }
+            current.children.values().forEach(stack::push);
+        }
+    }
+
+    private static Set<String> keysOf(MemberSearchResponse entry) {
+        Set<String> keys = new HashSet<>();
+        addKey(keys, entry.getEmail());
+        addKey(keys, entry.getName());
+        if (entry.getName() != null) {
+            // "홍 길동" → "길동" 으로도 검색
+            for (String token : entry.getName().trim().split("\\s+")) {
+                addKey(keys, token);
+            }
+        }
+        if (entry.getPhone() != null) {
+            addKey(keys, entry.getPhone());
+            addKey(keys, entry.getPhone().replaceAll("[^0-9]", ""));
+        }
+        return keys;
+    }
+
+    private static void addKey(Set<String> keys, String value) {
+        String key = normalize(value);
+        if (!key.isEmpty()) keys.add(key);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Long> ids = new HashSet<>();
+    }
+}
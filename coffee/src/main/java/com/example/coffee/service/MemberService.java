@@ -1,21 +1,29 @@
 package com.example.coffee.service;
 
+import com.example.coffee.dto.MemberPageResponse;
 import com.example.coffee.dto.MemberRequest;
 import com.example.coffee.dto.MemberResponse;
+import com.example.coffee.dto.MemberSearchResponse;
 import com.example.coffee.entity.Member;
 import com.example.coffee.repository.MemberRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("coffee.service")
 @RequiredArgsConstructor
 public class MemberService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final MemberRepository memberRepository;
+    private final MemberSearchIndex memberSearchIndex;
 
     @Transactional
     public MemberResponse createMember(MemberRequest request) {
@@ -32,14 +40,35 @@ public class MemberService {
                 .build();
 
         memberRepository.save(member);
+        memberSearchIndex.put(toSearchEntry(member));
         return toResponse(member);
     }
 
     @Transactional(readOnly = true)
     public List<MemberResponse> getAllMembers() {
-        return memberRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return memberRepository.findAllResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public MemberPageResponse getMemberPage(Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long before = (cursor == null) ? Long.MAX_VALUE : cursor;
+
+        // 한 건 더 조회해서 다음 페이지 여부 판단
+        List<MemberResponse> rows = memberRepository.findResponsesBefore(
+                before, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<MemberResponse> members = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return MemberPageResponse.builder()
+                .members(members)
+                .nextCursor(hasNext ? members.get(members.size() - 1).getMemberId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public List<MemberSearchResponse> searchMembers(String query, int limit) {
+        return memberSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
     }
 
     @Transactional(readOnly = true)
@@ -67,6 +96,7 @@ public class MemberService {
         member.setPhone(request.getPhone());
         member.setAddress(request.getAddress());
 
+        memberSearchIndex.put(toSearchEntry(member));
         return toResponse(member);
     }
 
@@ -75,6 +105,7 @@ public class MemberService {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("회원을 찾을 수 없습니다."));
         memberRepository.delete(member);
+        memberSearchIndex.remove(id);
     }
 
     private MemberResponse toResponse(Member member) {
@@ -88,4 +119,13 @@ public class MemberService {
                 .updatedAt(member.getUpdatedAt())
                 .build();
     }
+
+    private MemberSearchResponse toSearchEntry(Member member) {
+        return MemberSearchResponse.builder()
+                .memberId(member.getMemberId())
+                .email(member.getEmail())
+                .name(member.getName())
+                .phone(member.getPhone())
+                .build();
+    }
 }
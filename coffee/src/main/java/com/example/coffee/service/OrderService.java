@@ -1,24 +1,46 @@
 package com.example.coffee.service;
 
+import com.example.coffee.dto.BulkDeleteResponse;
 import com.example.coffee.dto.OrderRequest;
 import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.VariantQuantity;
 import com.example.coffee.entity.*;
 import com.example.coffee.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("coffee.service")
 @RequiredArgsConstructor
 public class OrderService {
 
+    // ?fields= / ?expand= 로 고를 수 있는 응답 필드 (OrderResponse)
+    private static final Set<String> RESPONSE_FIELDS = Set.of(
+            "orderId", "member", "status", "statusDisplayName", "totalAmount", "shippingAddress",
+            "orderDate", "updatedAt", "items");
+    private static final Set<String> EXPANDABLE = Set.of("items", "member");
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final MemberRepository memberRepository;
     private final ProductVariantRepository variantRepository;
+    private final LowStockIndex lowStockIndex;
+    private final VariantPriceTable variantPriceTable;
+
+    @Value("${app.bulk-delete.max-ids:1000}")
+    private int maxBulkDeleteIds;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
@@ -32,14 +54,29 @@ public class OrderService {
                 .totalAmount(0)
                 .build();
 
-        orderRepository.save(order);
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
+            if (itemReq.getVariantId() == null) {
+                throw new IllegalArgumentException("상품 옵션을 선택해 주세요.");
+            }
+            if (itemReq.getQuantity() == null || itemReq.getQuantity() <= 0) {
+                throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+            }
+            quantities.merge(itemReq.getVariantId(), itemReq.getQuantity(), Integer::sum);
+        }
+        Map<Long, ProductVariant> variants = reserveStock(quantities);
 
         int totalAmount = 0;
+        List<OrderItem> items = new ArrayList<>(request.getItems().size());
+        VariantPriceTable.Snapshot prices = variantPriceTable.snapshot();
         for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            ProductVariant variant = variantRepository.findById(itemReq.getVariantId())
-                    .orElseThrow(() -> new RuntimeException("상품 옵션을 찾을 수 없습니다."));
+            // 가격은 가격표에서 (없으면 상품/옵션 2차 캐시), 재고는 reserveStock 에서 DB 를 잠그고 확인
+            ProductVariant variant = variants.get(itemReq.getVariantId());
 
-            int unitPrice = variant.getProduct().getBasePrice() + variant.getOption().getExtraPrice();
+            int slot = prices == null ? -1 : prices.indexOf(variant.getVariantId());
+            int unitPrice = slot >= 0
+                    ? prices.price(slot)
+                    : variant.getProduct().getBasePrice() + variant.getOption().getExtraPrice();
 
             OrderItem item = OrderItem.builder()
                     .order(order)
@@ -48,26 +85,47 @@ public class OrderService {
                     .unitPrice(unitPrice)
                     .build();
 
-            orderItemRepository.save(item);
+            items.add(item);
             totalAmount += unitPrice * itemReq.getQuantity();
         }
 
+        // 합계를 채운 뒤 저장해야 INSERT 뒤에 UPDATE 가 따로 나가지 않는다 (INSERT 는 flush 때 품목과 함께 배치로)
         order.setTotalAmount(totalAmount);
+        orderRepository.save(order);
+        orderItemRepository.saveAll(items);
         return toResponse(order);
     }
 
+    /* fields / expand 가 없으면 전부, 있으면 고른 필드만 (빠진 품목 / 회원은 조회하지 않는다) */
+    public FieldSelection selectFields(String fields, String expand) {
+        return FieldSelection.of(fields, expand, RESPONSE_FIELDS, EXPANDABLE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getAllOrders(String fields, String expand) {
+        return getAllOrders(selectFields(fields, expand));
+    }
+
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAllWithMember().stream()
-                .map(this::toResponse)
+    public List<OrderResponse> getAllOrders(FieldSelection selection) {
+        List<Order> orders = selection.expands("member")
+                ? orderRepository.findAllWithMember()
+                : orderRepository.findAllByOrderByOrderDateDesc();
+        return orders.stream()
+                .map(order -> toResponse(order, selection))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public OrderResponse getOrder(Long id) {
+    public OrderResponse getOrder(Long id, String fields, String expand) {
+        return getOrder(id, selectFields(fields, expand));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long id, FieldSelection selection) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
-        return toResponse(order);
+        return toResponse(order, selection);
     }
 
     @Transactional
@@ -76,53 +134,158 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
 
         OrderStatus newStatus = OrderStatus.valueOf(status);
+        boolean held = holdsStock(order.getStatus());
+        // 출고 전 주문을 취소하면 재고를 돌려놓고, 취소를 되돌리면(출고 전 상태로만) 다시 예약한다.
+        // 출고 뒤 취소는 이미 나간 재고라 돌려놓지 않는다
+        if (order.getStatus() == OrderStatus.CANCELLED && newStatus != OrderStatus.CANCELLED) {
+            if (!holdsStock(newStatus)) {
+                throw new IllegalArgumentException("취소된 주문은 대기 또는 결제완료로만 되돌릴 수 있습니다.");
+            }
+            reserveStock(quantitiesOf(order));
+        } else if (held && newStatus == OrderStatus.CANCELLED) {
+            releaseStock(List.of(order.getOrderId()));
+        }
         order.setStatus(newStatus);
 
         return toResponse(order);
     }
 
+    /* 일괄 삭제와 같은 경로 (재고 반환 규칙도 같다) */
     @Transactional
     public void deleteOrder(Long id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
+        if (delete(Set.of(id)) == 0) {
+            throw new RuntimeException("주문을 찾을 수 없습니다.");
+        }
+    }
 
-        orderItemRepository.deleteByOrder(order);
-        orderRepository.delete(order);
+    /* =========================
+       일괄 삭제
+       출고 전 주문의 재고를 돌려놓은 뒤 (releaseStock), 주문 품목 → 주문 순서로 DELETE ... WHERE ... IN 한 문장씩.
+       없는 id 는 건너뛴다
+       ========================= */
+    @Transactional
+    public BulkDeleteResponse deleteOrders(List<Long> ids) {
+        Set<Long> orderIds = ProductService.distinctIds(ids, maxBulkDeleteIds);
+        int deleted = delete(orderIds);
+
+        return BulkDeleteResponse.builder()
+                .requested(orderIds.size())
+                .deleted(deleted)
+                .build();
     }
 
-    private OrderResponse toResponse(Order order) {
-        List<OrderItem> items = orderItemRepository.findByOrderWithDetails(order);
+    private int delete(Collection<Long> orderIds) {
+        releaseStock(orderIds);
+        orderItemRepository.deleteByOrderIds(orderIds);
+        return orderRepository.deleteByIds(orderIds);
+    }
 
-        List<OrderResponse.OrderItemResponse> itemResponses = items.stream()
-                .map(item -> OrderResponse.OrderItemResponse.builder()
-                        .orderItemId(item.getOrderItemId())
-                        .variantId(item.getVariant().getVariantId())
-                        .productName(item.getVariant().getProduct().getProductName())
-                        .optionValue(item.getVariant().getOption().getOptionValue())
-                        .quantity(item.getQuantity())
-                        .unitPrice(item.getUnitPrice())
-                        .subtotal(item.getUnitPrice() * item.getQuantity())
-                        .build())
-                .collect(Collectors.toList());
+    /* =========================
+       재고 예약 / 반환
+       재고는 출고 전(PENDING / PAID) 주문만 잡고 있다. 생성 / 취소 되돌리기에서 예약하고,
+       출고 전 주문의 취소 / 삭제에서만 돌려놓는다 (holdsStock).
+       variant 는 2차 캐시 대상이라 find 로 읽은 재고는 다른 노드의 변경을 못 볼 수 있다.
+       재고 판단은 항상 findAllForReservation (SELECT ... FOR UPDATE) 으로 DB 값을 잠그고 읽는다.
+       한 문장으로 variant id 오름차순으로 잠근다 (교착 상태 방지). 재고 UPDATE 는 flush 때 배치로
+       ========================= */
+    private static boolean holdsStock(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.PAID;
+    }
 
-        Member member = order.getMember();
-        OrderResponse.MemberSummary memberSummary = OrderResponse.MemberSummary.builder()
+    private Map<Long, ProductVariant> reserveStock(Map<Long, Integer> quantities) {
+        Map<Long, ProductVariant> variants = new HashMap<>();
+        for (ProductVariant variant : variantRepository.findAllForReservation(quantities.keySet())) {
+            int quantity = quantities.get(variant.getVariantId());
+            if (variant.getStock() < quantity) {
+                throw new IllegalArgumentException("재고가 부족합니다. (옵션 " + variant.getVariantId()
+                        + ", 남은 수량 " + variant.getStock() + ")");
+            }
+            variant.setStock(variant.getStock() - quantity);
+            lowStockIndex.stockChanged(variant.getVariantId(), variant.getStock());
+            variants.put(variant.getVariantId(), variant);
+        }
+        if (variants.size() != quantities.size()) {
+            throw new RuntimeException("상품 옵션을 찾을 수 없습니다.");
+        }
+        return variants;
+    }
+
+    /* 주문들 중 출고 전 주문의 수량을 variant 별로 합쳐 돌려놓는다 */
+    private void releaseStock(Collection<Long> orderIds) {
+        List<VariantQuantity> reserved = orderItemRepository.sumQuantities(
+                orderIds, List.of(OrderStatus.PENDING, OrderStatus.PAID));
+        if (reserved.isEmpty()) return;
+
+        Map<Long, Long> quantities = new HashMap<>();
+        for (VariantQuantity q : reserved) {
+            quantities.put(q.getVariantId(), q.getQuantity());
+        }
+        for (ProductVariant variant : variantRepository.findAllForReservation(quantities.keySet())) {
+            variant.setStock(variant.getStock() + quantities.get(variant.getVariantId()).intValue());
+            lowStockIndex.stockChanged(variant.getVariantId(), variant.getStock());
+        }
+    }
+
+    /* variant 는 프록시 id 만 쓰므로 여기서 초기화되지 않는다 (잠금 조회가 처음 읽도록) */
+    private Map<Long, Integer> quantitiesOf(Order order) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : orderItemRepository.findByOrder(order)) {
+            quantities.merge(item.getVariant().getVariantId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    // package-private: src/jmh 의 DtoAssemblyBenchmark 에서 직접 호출
+    OrderResponse toResponse(Order order) {
+        return toResponse(order, FieldSelection.ALL);
+    }
+
+    private OrderResponse toResponse(Order order, FieldSelection fields) {
+        return OrderResponse.builder()
+                .orderId(fields.pick("orderId", order.getOrderId()))
+                // 회원은 지연 로딩이라 고르지 않으면 조회하지 않는다
+                .member(fields.expands("member") ? memberSummary(order.getMember()) : null)
+                .status(fields.pick("status", order.getStatus().name()))
+                .statusDisplayName(fields.pick("statusDisplayName", order.getStatus().getDisplayName()))
+                .totalAmount(fields.pick("totalAmount", order.getTotalAmount()))
+                .shippingAddress(fields.pick("shippingAddress", order.getShippingAddress()))
+                .orderDate(fields.pick("orderDate", order.getOrderDate()))
+                .updatedAt(fields.pick("updatedAt", order.getUpdatedAt()))
+                .items(fields.expands("items") ? items(order) : null)
+                .build();
+    }
+
+    private List<OrderResponse.OrderItemResponse> items(Order order) {
+        // 가격표가 있으면 상품명/옵션값을 표에서 읽으므로 variant/상품/옵션을 조인해 올 필요가 없다
+        VariantPriceTable.Snapshot table = variantPriceTable.snapshot();
+        List<OrderItem> items = table == null
+                ? orderItemRepository.findByOrderWithDetails(order)
+                : orderItemRepository.findByOrder(order);
+
+        List<OrderResponse.OrderItemResponse> itemResponses = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            // variant 는 프록시 id 만 읽는다. 표에 없을 때만 엔티티로 (프록시 초기화)
+            ProductVariant variant = item.getVariant();
+            int slot = table == null ? -1 : table.indexOf(variant.getVariantId());
+            itemResponses.add(OrderResponse.OrderItemResponse.builder()
+                    .orderItemId(item.getOrderItemId())
+                    .variantId(variant.getVariantId())
+                    .productName(slot >= 0 ? table.productName(slot) : variant.getProduct().getProductName())
+                    .optionValue(slot >= 0 ? table.optionValue(slot) : variant.getOption().getOptionValue())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .subtotal(item.getUnitPrice() * item.getQuantity())
+                    .build());
+        }
+        return itemResponses;
+    }
+
+    private static OrderResponse.MemberSummary memberSummary(Member member) {
+        return OrderResponse.MemberSummary.builder()
                 .memberId(member.getMemberId())
                 .name(member.getName())
                 .email(member.getEmail())
                 .phone(member.getPhone())
                 .build();
-
-        return OrderResponse.builder()
-                .orderId(order.getOrderId())
-                .member(memberSummary)
-                .status(order.getStatus().name())
-                .statusDisplayName(order.getStatus().getDisplayName())
-                .totalAmount(order.getTotalAmount())
-                .shippingAddress(order.getShippingAddress())
-                .orderDate(order.getOrderDate())
-                .updatedAt(order.getUpdatedAt())
-                .items(itemResponses)
-                .build();
     }
 }
@@ -1,7 +1,10 @@
 package com.example.coffee.service;
 
+import com.example.coffee.dto.BulkDeleteResponse;
+import com.example.coffee.dto.LowStockResponse;
 import com.example.coffee.dto.ProductRequest;
 import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.dto.VariantPriceRow;
 import com.example.coffee.entity.Product;
 import com.example.coffee.entity.ProductImage;
 import com.example.coffee.entity.ProductOption;
@@ -10,40 +13,77 @@ import com.example.coffee.repository.ProductImageRepository;
 import com.example.coffee.repository.ProductRepository;
 import com.example.coffee.repository.ProductOptionRepository;
 import com.example.coffee.repository.ProductVariantRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("coffee.service")
 @RequiredArgsConstructor
 public class ProductService {
 
+    // ?fields= / ?expand= 로 고를 수 있는 응답 필드 (ProductResponse)
+    private static final Set<String> RESPONSE_FIELDS = Set.of(
+            "productId", "productName", "basePrice", "type", "continent", "nationality",
+            "thumbnailImg", "thumbnailWidths", "detailImages", "options");
+    private static final Set<String> EXPANDABLE = Set.of("detailImages", "options");
+
     private final ProductRepository productRepository;
     private final ProductOptionRepository optionRepository;
     private final ProductVariantRepository variantRepository;
     private final ProductImageRepository productImageRepository;
     private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final LowStockIndex lowStockIndex;
+    private final VariantPriceTable variantPriceTable;
+
+    @Value("${app.bulk-delete.max-ids:1000}")
+    private int maxBulkDeleteIds;
 
     /* =========================
        상품 생성
+       이미지는 컨트롤러에서 트랜잭션 밖에 미리 stage 되고, 여기서는 토큰만 확정한다
+       ========================= */
+    @Transactional
+    public ProductResponse createProduct(ProductRequest request) {
+
+        // 1. 썸네일 확정
+        String thumbnailPath = fileStorageService.claimStaged(request.getThumbnailToken());
+
+        // 2. 상세 이미지 확정 (여러 장 + 순서)
+        List<String> detailPaths = new ArrayList<>();
+        if (request.getDetailImageTokens() != null) {
+            for (String token : request.getDetailImageTokens()) {
+                detailPaths.add(fileStorageService.claimStaged(token));
+            }
+        }
+
+        return toResponse(persist(request, thumbnailPath, detailPaths));
+    }
+
+    /* =========================
+       일괄 등록 (CatalogImportService 가 청크 단위 트랜잭션 안에서 호출)
+       이미지는 이미 확정된 경로. 응답을 조립하지 않으므로 INSERT 만 쌓였다가 flush 때 배치로 나간다
        ========================= */
     @Transactional
-    public ProductResponse createProduct(
-            ProductRequest request,
-            MultipartFile thumbnail,
-            List<MultipartFile> detailImages
-    ) throws IOException {
+    public Long importProduct(ProductRequest request, String thumbnailPath, List<String> detailPaths) {
+        return persist(request, thumbnailPath, detailPaths).getProductId();
+    }
 
-        // 1. 썸네일 저장
-        String thumbnailPath = fileStorageService.storeFile(thumbnail, "thumbnail");
+    private Product persist(ProductRequest request, String thumbnailPath, List<String> detailPaths) {
+        imageDerivativeService.schedule(thumbnailPath);
 
-        // 2. 상품 생성
+        // 상품 생성
         Product product = Product.builder()
                 .productName(request.getProductName())
                 .basePrice(request.getBasePrice())
@@ -55,53 +95,44 @@ public class ProductService {
 
         productRepository.save(product);
 
-        // 3. 상세 이미지 저장 (여러 장 + 순서)
-        if (detailImages != null && !detailImages.isEmpty()) {
-            int order = 1;
-            for (MultipartFile file : detailImages) {
-                String path = fileStorageService.storeFile(file, "detail");
+        // 상세 이미지 (순서대로)
+        int order = 1;
+        for (String path : detailPaths) {
+            imageDerivativeService.schedule(path);
 
-                ProductImage img = ProductImage.builder()
-                        .product(product)
-                        .imageUrl(path)
-                        .sortOrder(order++)
-                        .build();
+            ProductImage img = ProductImage.builder()
+                    .product(product)
+                    .imageUrl(path)
+                    .sortOrder(order++)
+                    .build();
 
-                productImageRepository.save(img);
-            }
+            productImageRepository.save(img);
         }
 
-        // 4. 옵션 + 재고
+        // 옵션 + 재고
         if (request.getOptions() != null) {
-            for (ProductRequest.OptionRequest opt : request.getOptions()) {
-                ProductOption option = optionRepository.save(
-                        ProductOption.builder()
-                                .product(product)
-                                .optionValue(opt.getOptionValue())
-                                .extraPrice(opt.getExtraPrice())
-                                .build()
-                );
-
-                variantRepository.save(
-                        ProductVariant.builder()
-                                .product(product)
-                                .option(option)
-                                .stock(opt.getStock())
-                                .build()
-                );
-            }
+            indexVariants(product, saveOptions(product, request.getOptions()));
         }
-
-        return toResponse(product);
+        return product;
     }
 
     /* =========================
        전체 조회
+       fields / expand 가 없으면 전부, 있으면 고른 필드만 (빠진 상세 이미지 / 옵션은 조회하지 않는다)
        ========================= */
+    public FieldSelection selectFields(String fields, String expand) {
+        return FieldSelection.of(fields, expand, RESPONSE_FIELDS, EXPANDABLE);
+    }
+
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
+    public List<ProductResponse> getAllProducts(String fields, String expand) {
+        return getAllProducts(selectFields(fields, expand));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getAllProducts(FieldSelection selection) {
         return productRepository.findAll().stream()
-                .map(this::toResponse)
+                .map(product -> toResponse(product, selection))
                 .collect(Collectors.toList());
     }
 
@@ -109,12 +140,7 @@ public class ProductService {
        상품 수정
        ========================= */
     @Transactional
-    public ProductResponse updateProduct(
-            Long id,
-            ProductRequest request,
-            MultipartFile thumbnail,
-            List<MultipartFile> detailImages
-    ) throws IOException {
+    public ProductResponse updateProduct(Long id, ProductRequest request) {
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("상품 없음"));
@@ -126,32 +152,50 @@ public class ProductService {
         product.setNationality(request.getNationality());
 
         // 썸네일 변경
-        if (thumbnail != null && !thumbnail.isEmpty()) {
-            // 기존 썸네일 파일 삭제
-            if (product.getThumbnailImg() != null) {
-                fileStorageService.deleteFile(product.getThumbnailImg());
+        if (request.getThumbnailToken() != null && !request.getThumbnailToken().isBlank()) {
+            // 새 파일을 먼저 확정해야 같은 이미지를 다시 올렸을 때 파일을 지웠다 다시 쓰지 않음
+            String oldThumbnail = product.getThumbnailImg();
+            String thumbnailPath = fileStorageService.claimStaged(request.getThumbnailToken());
+            imageDerivativeService.schedule(thumbnailPath);
+            if (oldThumbnail != null) {
+                deleteImage(oldThumbnail);
+            }
+            if (!thumbnailPath.equals(oldThumbnail)) {
+                product.setThumbnailImg(thumbnailPath);
+                product.setThumbnailWidths(null);
             }
-            String thumbnailPath = fileStorageService.storeFile(thumbnail, "thumbnail");
-            product.setThumbnailImg(thumbnailPath);
         }
 
         // 상세 이미지: 새 이미지가 있으면 기존 삭제 후 새로 저장
-        if (detailImages != null && !detailImages.isEmpty()) {
-            // 기존 상세 이미지 파일들 삭제
+        List<String> detailTokens = request.getDetailImageTokens();
+        if (detailTokens != null && !detailTokens.isEmpty()) {
             List<ProductImage> oldImages = productImageRepository.findByProductOrderBySortOrder(product);
+            Map<String, String> oldWidths = new HashMap<>();
             for (ProductImage oldImg : oldImages) {
-                fileStorageService.deleteFile(oldImg.getImageUrl());
+                oldWidths.put(oldImg.getImageUrl(), oldImg.getWidths());
+            }
+
+            // 새 이미지 먼저 확정 (동일 내용이면 기존 파일 재사용)
+            List<String> newPaths = new ArrayList<>();
+            for (String token : detailTokens) {
+                String path = fileStorageService.claimStaged(token);
+                imageDerivativeService.schedule(path);
+                newPaths.add(path);
+            }
+
+            // 기존 상세 이미지 파일들 삭제
+            for (ProductImage oldImg : oldImages) {
+                deleteImage(oldImg.getImageUrl());
             }
             productImageRepository.deleteByProduct(product);
 
             int order = 1;
-            for (MultipartFile file : detailImages) {
-                String path = fileStorageService.storeFile(file, "detail");
-
+            for (String path : newPaths) {
                 productImageRepository.save(
                         ProductImage.builder()
                                 .product(product)
                                 .imageUrl(path)
+                                .widths(oldWidths.get(path))
                                 .sortOrder(order++)
                                 .build()
                 );
@@ -167,24 +211,11 @@ public class ProductService {
             }
             optionRepository.deleteByProduct(product);
 
-            // 새로 저장
-            for (ProductRequest.OptionRequest opt : request.getOptions()) {
-                ProductOption option = optionRepository.save(
-                        ProductOption.builder()
-                                .product(product)
-                                .optionValue(opt.getOptionValue())
-                                .extraPrice(opt.getExtraPrice())
-                                .build()
-                );
-
-                variantRepository.save(
-                        ProductVariant.builder()
-                                .product(product)
-                                .option(option)
-                                .stock(opt.getStock())
-                                .build()
-                );
-            }
+            // 새로 저장 (재고 부족 인덱스는 같은 옵션값의 이전 재고와 비교해 알림)
+            indexVariants(product, saveOptions(product, request.getOptions()));
+        } else {
+            lowStockIndex.renameProduct(product.getProductId(), product.getProductName());
+            variantPriceTable.renameProduct(product.getProductId(), product.getProductName(), product.getBasePrice());
         }
 
         return toResponse(product);
@@ -200,13 +231,13 @@ public class ProductService {
 
         // 썸네일 파일 삭제
         if (product.getThumbnailImg() != null) {
-            fileStorageService.deleteFile(product.getThumbnailImg());
+            deleteImage(product.getThumbnailImg());
         }
 
         // 상세 이미지 파일들 삭제
         List<ProductImage> images = productImageRepository.findByProductOrderBySortOrder(product);
         for (ProductImage img : images) {
-            fileStorageService.deleteFile(img.getImageUrl());
+            deleteImage(img.getImageUrl());
         }
         productImageRepository.deleteByProduct(product);
 
@@ -217,23 +248,148 @@ public class ProductService {
         optionRepository.deleteByProduct(product);
 
         productRepository.delete(product);
+        lowStockIndex.removeProduct(id);
+        variantPriceTable.removeProduct(id);
+    }
+
+    /* =========================
+       일괄 삭제
+       상품 수와 관계없이 테이블마다 DELETE ... WHERE ... IN 한 문장을 외래 키 순서(variant → 옵션 → 상세 이미지 → 상품)로,
+       한 트랜잭션 안에서 보낸다. 파일은 커밋 후 삭제 큐로.
+       주문 품목이 참조하는 상품은 외래 키로 실패하기 전에 한 번에 확인해서 거절한다 (하나라도 있으면 아무것도 지우지 않음).
+       벌크 DELETE 는 2차 캐시의 상품/옵션/variant 영역을 통째로 비운다 (관리자 작업이라 허용)
+       ========================= */
+    @Transactional
+    public BulkDeleteResponse deleteProducts(List<Long> ids) {
+        Set<Long> productIds = distinctIds(ids, maxBulkDeleteIds);
+
+        List<Long> ordered = variantRepository.findOrderedProductIds(productIds);
+        if (!ordered.isEmpty()) {
+            throw new IllegalArgumentException("주문 내역이 있는 상품은 삭제할 수 없습니다: " + ordered);
+        }
+
+        // 파일 경로는 행을 지우기 전에 모은다
+        List<String> paths = new ArrayList<>(productRepository.findThumbnailsByIds(productIds));
+        paths.addAll(productImageRepository.findUrlsByProductIds(productIds));
+
+        variantRepository.deleteByProductIds(productIds);
+        optionRepository.deleteByProductIds(productIds);
+        productImageRepository.deleteByProductIds(productIds);
+        int deleted = productRepository.deleteByIds(productIds);
+
+        int filesScheduled = fileStorageService.deleteFiles(paths);
+        for (Long id : productIds) {
+            lowStockIndex.removeProduct(id);
+            variantPriceTable.removeProduct(id);
+        }
+
+        return BulkDeleteResponse.builder()
+                .requested(productIds.size())
+                .deleted(deleted)
+                .filesScheduled(filesScheduled)
+                .build();
+    }
+
+    // 중복 / null 을 뺀 id (요청 순서 유지). 비었거나 max 를 넘으면 IllegalArgumentException
+    static Set<Long> distinctIds(List<Long> ids, int max) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) distinct.add(id);
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("삭제할 id 가 없습니다.");
+        }
+        if (distinct.size() > max) {
+            throw new IllegalArgumentException("한 번에 삭제할 수 있는 id 는 " + max + "개까지입니다. (요청 " + distinct.size() + "개)");
+        }
+        return distinct;
+    }
+
+    /* 옵션 + 재고 저장 */
+    private List<ProductVariant> saveOptions(Product product, List<ProductRequest.OptionRequest> options) {
+        List<ProductVariant> variants = new ArrayList<>();
+        for (ProductRequest.OptionRequest opt : options) {
+            ProductOption option = optionRepository.save(
+                    ProductOption.builder()
+                            .product(product)
+                            .optionValue(opt.getOptionValue())
+                            .extraPrice(opt.getExtraPrice())
+                            .build()
+            );
+
+            ProductVariant variant = variantRepository.save(
+                    ProductVariant.builder()
+                            .product(product)
+                            .option(option)
+                            .stock(opt.getStock())
+                            .build()
+            );
+
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    /* 새로 저장한 variant 를 재고 부족 인덱스와 주문 가격표에 넣는다 (둘 다 커밋 후 반영) */
+    private void indexVariants(Product product, List<ProductVariant> variants) {
+        List<LowStockResponse> stock = new ArrayList<>(variants.size());
+        List<VariantPriceRow> prices = new ArrayList<>(variants.size());
+        for (ProductVariant variant : variants) {
+            ProductOption option = variant.getOption();
+            stock.add(new LowStockResponse(variant.getVariantId(), product.getProductId(),
+                    product.getProductName(), option.getOptionValue(), variant.getStock()));
+            prices.add(new VariantPriceRow(variant.getVariantId(), product.getProductId(),
+                    product.getBasePrice(), option.getExtraPrice(), product.getProductName(), option.getOptionValue()));
+        }
+        lowStockIndex.replaceProduct(product.getProductId(), stock);
+        variantPriceTable.replaceProduct(product.getProductId(), prices);
+    }
+
+    // 실제 파일(+ 리사이즈 버전)은 커밋 후 FileDeletionQueue 에서 삭제
+    private void deleteImage(String path) {
+        fileStorageService.deleteFile(path);
     }
 
     /* =========================
        Entity → DTO
        ========================= */
-    private ProductResponse toResponse(Product product) {
-
-        List<ProductResponse.ImageResponse> detailImages =
-                productImageRepository.findByProductOrderBySortOrder(product)
-                        .stream()
-                        .map(img -> ProductResponse.ImageResponse.builder()
-                                .imageId(img.getImageId())
-                                .imageUrl(img.getImageUrl())
-                                .sortOrder(img.getSortOrder())
-                                .build())
-                        .collect(Collectors.toList());
+    // package-private: src/jmh 의 DtoAssemblyBenchmark 에서 직접 호출
+    ProductResponse toResponse(Product product) {
+        return toResponse(product, FieldSelection.ALL);
+    }
 
+    private ProductResponse toResponse(Product product, FieldSelection fields) {
+        return ProductResponse.builder()
+                .productId(fields.pick("productId", product.getProductId()))
+                .productName(fields.pick("productName", product.getProductName()))
+                .basePrice(fields.pick("basePrice", product.getBasePrice()))
+                .type(fields.pick("type", product.getType()))
+                .continent(fields.pick("continent", product.getContinent()))
+                .nationality(fields.pick("nationality", product.getNationality()))
+                .thumbnailImg(fields.pick("thumbnailImg", product.getThumbnailImg()))
+                .thumbnailWidths(fields.includes("thumbnailWidths")
+                        ? ImageDerivativeService.parseWidths(product.getThumbnailWidths())
+                        : null)
+                .detailImages(fields.expands("detailImages") ? detailImages(product) : null)
+                .options(fields.expands("options") ? options(product) : null)
+                .build();
+    }
+
+    private List<ProductResponse.ImageResponse> detailImages(Product product) {
+        return productImageRepository.findByProductOrderBySortOrder(product)
+                .stream()
+                .map(img -> ProductResponse.ImageResponse.builder()
+                        .imageId(img.getImageId())
+                        .imageUrl(img.getImageUrl())
+                        .widths(ImageDerivativeService.parseWidths(img.getWidths()))
+                        .sortOrder(img.getSortOrder())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<ProductResponse.OptionResponse> options(Product product) {
         // N+1 해결: 한 번에 모든 variant 조회 후 Map으로 변환
         List<ProductVariant> variants = variantRepository.findByProduct(product);
         Map<Long, Integer> stockMap = variants.stream()
@@ -247,27 +403,14 @@ public class ProductService {
                         ProductVariant::getVariantId
                 ));
 
-        List<ProductResponse.OptionResponse> options =
-                optionRepository.findByProduct(product).stream()
-                        .map(option -> ProductResponse.OptionResponse.builder()
-                                .optionId(option.getOptionId())
-                                .variantId(variantIdMap.getOrDefault(option.getOptionId(), null))
-                                .optionValue(option.getOptionValue())
-                                .extraPrice(option.getExtraPrice())
-                                .stock(stockMap.getOrDefault(option.getOptionId(), 0))
-                                .build())
-                        .collect(Collectors.toList());
-
-        return ProductResponse.builder()
-                .productId(product.getProductId())
-                .productName(product.getProductName())
-                .basePrice(product.getBasePrice())
-                .type(product.getType())
-                .continent(product.getContinent())
-                .nationality(product.getNationality())
-                .thumbnailImg(product.getThumbnailImg())
-                .detailImages(detailImages)
-                .options(options)
-                .build();
+        return optionRepository.findByProduct(product).stream()
+                .map(option -> ProductResponse.OptionResponse.builder()
+                        .optionId(option.getOptionId())
+                        .variantId(variantIdMap.getOrDefault(option.getOptionId(), null))
+                        .optionValue(option.getOptionValue())
+                        .extraPrice(option.getExtraPrice())
+                        .stock(stockMap.getOrDefault(option.getOptionId(), 0))
+                        .build())
+                .collect(Collectors.toList());
     }
 }
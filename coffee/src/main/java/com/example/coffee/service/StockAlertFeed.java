@@ -0,0 +1,65 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.LowStockResponse;
+import com.example.coffee.dto.StockAlertResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 재고 임계값 통과 알림. 최근 buffer-size 개만 남기는 링 버퍼이고, id 가 1 씩 늘어나므로
+ * 클라이언트는 마지막으로 받은 id 를 after 로 넘겨 새 알림만 가져간다.
+ */
+@Slf4j
+@Component
+public class StockAlertFeed {
+
+    @Value("${app.stock.alert-buffer-size:1000}")
+    private int capacity;
+
+    private AtomicReferenceArray<StockAlertResponse> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    void publish(String type, LowStockResponse entry, Integer previousStock, int threshold) {
+        long id = sequence.incrementAndGet();
+        StockAlertResponse alert = StockAlertResponse.builder()
+                .id(id)
+                .type(type)
+                .variantId(entry.getVariantId())
+                .productId(entry.getProductId())
+                .productName(entry.getProductName())
+                .optionValue(entry.getOptionValue())
+                .previousStock(previousStock)
+                .stock(entry.getStock())
+                .threshold(threshold)
+                .createdAt(LocalDateTime.now())
+                .build();
+        slots.set((int) ((id - 1) % slots.length()), alert);
+        log.info("재고 알림 {}: {} {} ({} → {})", type, entry.getProductName(), entry.getOptionValue(),
+                previousStock, entry.getStock());
+    }
+
+    /* after 보다 뒤의 알림을 오래된 것부터. 이미 덮어써진 것은 건너뛴다 */
+    public List<StockAlertResponse> after(long after, int limit) {
+        long last = sequence.get();
+        long from = Math.max(after + 1, last - slots.length() + 1);
+        List<StockAlertResponse> result = new ArrayList<>();
+        for (long id = Math.max(1, from); id <= last && result.size() < limit; id++) {
+            StockAlertResponse alert = slots.get((int) ((id - 1) % slots.length()));
+            if (alert != null && alert.getId() == id) result.add(alert);
+        }
+        return result;
+    }
+}
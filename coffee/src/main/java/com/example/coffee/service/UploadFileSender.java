@@ -0,0 +1,239 @@
+package com.example.coffee.service;
+
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 파일 전송. 파일명이 내용 해시/UUID 라서 한 번 저장된 파일은 바뀌지 않으므로
+ * 강한 ETag + immutable 캐시를 주고, 본문은 Tomcat sendfile 또는 FileChannel.transferTo 로 보낸다.
+ * 로컬 파일이 아닌 저장소는 범위 스트림을 그대로 복사한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadFileSender {
+
+    private static final Pattern RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final Pattern HASHED_NAME = Pattern.compile("^[0-9a-f]{64}(_w\\d+)?$");
+    // 캐시가 찼을 때 miss 한 번에 훑는 최대 항목 수
+    private static final int TRIM_SCAN = 64;
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final BlobStore blobStore;
+
+    @Value("${app.upload.cache.max-age:31536000}")
+    private long maxAge;
+
+    @Value("${app.upload.cache.metadata-size:1024}")
+    private int metadataCacheSize;
+
+    @Value("${app.upload.cache.metadata-ttl-ms:60000}")
+    private long metadataTtlMillis;
+
+    @Value("${app.upload.sendfile-threshold:49152}")
+    private long sendfileThreshold;
+
+    // 조회마다 잠그지 않도록 ConcurrentHashMap (가상 스레드에서 synchronized 대기로 캐리어 스레드를 잡지 않음)
+    private final Map<String, FileMeta> metadata = new ConcurrentHashMap<>();
+
+    public void send(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(key, request, response, true);
+    }
+
+    /* immutable=false: 같은 URL 이 나중에 다른 파일을 가리킬 수 있는 경우 (리사이즈 버전 생성 전 원본 응답 등) */
+    public void send(String key, HttpServletRequest request, HttpServletResponse response,
+                     boolean immutable) throws IOException {
+        FileMeta meta = lookup(key);
+        if (meta == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, meta.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable
+                ? "public, max-age=" + maxAge + ", immutable"
+                : "public, max-age=60");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, meta.lastModified());
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), meta.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = meta.size() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(meta.etag()))) {
+            Matcher m = RANGE.matcher(range.trim());
+            // 다중 구간 요청은 전체 응답으로 처리
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                if (m.group(1).isEmpty()) {
+                    long suffix = position(m.group(2));
+                    start = Math.max(0, meta.size() - suffix);
+                } else {
+                    start = position(m.group(1));
+                    if (!m.group(2).isEmpty()) {
+                        end = Math.min(end, position(m.group(2)));
+                    }
+                }
+                if (start > end || start >= meta.size()) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.size());
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + meta.size());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(meta.contentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        Optional<Path> local = blobStore.localPath(key);
+        if (local.isEmpty()) {
+            try (InputStream in = blobStore.open(key, start, length)) {
+                in.transferTo(response.getOutputStream());
+            } catch (NoSuchFileException e) {
+                evict(key);
+                throw e;
+            }
+            return;
+        }
+
+        Path file = local.get();
+        if (length >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 응답 반환 후 Tomcat 이 커널 sendfile 로 전송
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (NoSuchFileException e) {
+            evict(key);
+            throw e;
+        }
+    }
+
+    public void evict(String key) {
+        metadata.remove(key);
+    }
+
+    private FileMeta lookup(String key) throws IOException {
+        long now = System.currentTimeMillis();
+        FileMeta cached = metadata.get(key);
+        if (cached != null && now - cached.cachedAt() < metadataTtlMillis) {
+            return cached;
+        }
+
+        Optional<BlobInfo> info = blobStore.stat(key);
+        if (info.isEmpty()) {
+            evict(key);
+            return null;
+        }
+        BlobInfo blob = info.get();
+
+        FileMeta meta = new FileMeta(
+                blob.size(),
+                blob.lastModified(),
+                etagOf(blob),
+                MediaTypeFactory.getMediaType(blob.key())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM).toString(),
+                now);
+        metadata.put(key, meta);
+        if (metadata.size() > metadataCacheSize) {
+            trim(now);
+        }
+        return meta;
+    }
+
+    /*
+     * 크기 초과 시 앞쪽 TRIM_SCAN 개 안에서 만료된 항목부터, 그래도 많으면 임의 항목을 넘친 만큼 지운다
+     * (TTL 이 짧아 LRU 가 아니어도 충분). miss 마다 불리므로 전체를 훑지 않는다
+     */
+    private void trim(long now) {
+        Iterator<FileMeta> scan = metadata.values().iterator();
+        for (int i = 0; i < TRIM_SCAN && metadata.size() > metadataCacheSize && scan.hasNext(); i++) {
+            if (now - scan.next().cachedAt() >= metadataTtlMillis) scan.remove();
+        }
+        Iterator<String> it = metadata.keySet().iterator();
+        while (metadata.size() > metadataCacheSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /* Range 의 숫자. long 을 넘으면 파일 끝 너머로 본다 (시작이면 416, 끝이면 파일 끝까지) */
+    private static long position(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /* 내용 해시 파일명은 그대로 ETag 로, 그 외(UUID 이름)는 크기+수정시각 */
+    private static String etagOf(BlobInfo blob) {
+        String name = blob.key().substring(blob.key().lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        String base = (dot >= 0) ? name.substring(0, dot) : name;
+        if (HASHED_NAME.matcher(base).matches()) {
+            return "\"" + base + "\"";
+        }
+        return "\"" + Long.toHexString(blob.size()) + "-" + Long.toHexString(blob.lastModified()) + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
+
+    private record FileMeta(long size, long lastModified, String etag, String contentType, long cachedAt) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.coffee.service;
+
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.UploadBlobRepository;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 어떤 상품에서도 참조하지 않는 업로드 파일을 주기적으로 찾아 삭제 큐에 넣는다.
+ * 저장소 목록을 스트리밍으로 순회하며 batch-size 단위로 DB 참조와 비교한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadGarbageCollector {
+
+    // 리사이즈 버전은 원본이 삭제될 때 함께 지워진다
+    private static final Pattern DERIVATIVE = Pattern.compile(".*_w\\d+\\.[a-z]+$");
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final UploadBlobRepository uploadBlobRepository;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final BlobStore blobStore;
+
+    @Value("${app.upload.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.gc.batch-size:500}")
+    private int batchSize;
+
+    // 업로드 직후(커밋 전) 파일을 지우지 않도록 유예 시간
+    @Value("${app.upload.gc.grace-ms:86400000}")
+    private long graceMillis;
+
+    @Scheduled(initialDelayString = "${app.upload.gc.initial-delay-ms:600000}",
+               fixedDelayString = "${app.upload.gc.interval-ms:21600000}")
+    public void sweep() {
+        if (!enabled) return;
+
+        long cutoff = System.currentTimeMillis() - graceMillis;
+        int scanned = 0;
+        int orphaned = 0;
+
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<BlobInfo> blobs = blobStore.list("")) {
+            Iterator<BlobInfo> it = blobs.iterator();
+            while (it.hasNext()) {
+                BlobInfo blob = it.next();
+                String relative = blob.key();
+                // .tmp / .staging / .chunks 는 별도로 관리
+                if (relative.startsWith(".") || DERIVATIVE.matcher(relative).matches()) continue;
+                if (blob.lastModified() >= cutoff) continue;
+
+                batch.add(relative);
+                scanned++;
+                if (batch.size() >= batchSize) {
+                    orphaned += reclaim(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                orphaned += reclaim(batch);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("업로드 디렉토리 정리 중 오류", e);
+        }
+
+        if (orphaned > 0) {
+            log.info("참조되지 않는 업로드 파일 {}개 삭제 예약 (검사 {}개)", orphaned, scanned);
+        }
+    }
+
+    private int reclaim(List<String> paths) {
+        Set<String> referenced = new HashSet<>();
+        referenced.addAll(productRepository.findReferencedThumbnails(paths));
+        referenced.addAll(productImageRepository.findReferencedUrls(paths));
+        // 참조 수가 남아 있는 blob 은 진행 중인 트랜잭션이 있을 수 있으므로 건드리지 않음
+        referenced.addAll(uploadBlobRepository.findExistingPaths(paths));
+
+        int count = 0;
+        for (String path : paths) {
+            if (!referenced.contains(path)) {
+                fileDeletionQueue.enqueueAfterCommit(path);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.coffee.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 파일의 디렉토리 배치.
+ * sharded: "detail/ab/cd/abcd1234....jpg" (파일명 앞 4자리 해시로 2단계 하위 디렉토리)
+ * flat:    "detail/abcd1234....jpg"
+ * DB 에는 전체 상대 경로가 저장되므로 기존 flat 경로도 그대로 동작한다.
+ */
+@Component
+public class UploadLayout {
+
+    private static final Pattern HEX_PREFIX = Pattern.compile("^[0-9a-f]{4}.*");
+
+    @Value("${app.upload.layout:sharded}")
+    private String layout;
+
+    public boolean isSharded() {
+        return "sharded".equalsIgnoreCase(layout);
+    }
+
+    public String pathFor(String subDir, String filename) {
+        String dir = (subDir == null || subDir.isBlank()) ? "" : subDir + "/";
+        return isSharded()
+                ? dir + shardOf(filename) + "/" + filename
+                : dir + filename;
+    }
+
+    /* 내용 해시/UUID 파일명은 앞 4자리를 그대로, 그 외에는 파일명 해시 사용 */
+    static String shardOf(String filename) {
+        String prefix = HEX_PREFIX.matcher(filename).matches()
+                ? filename.substring(0, 4)
+                : sha256Hex(filename).substring(0, 4);
+        return prefix.substring(0, 2) + "/" + prefix.substring(2, 4);
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.coffee.service;
+
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.UploadBlobRepository;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * flat 배치(uploads/detail/x.jpg)의 기존 파일을 sharded 배치(uploads/detail/ab/cd/x.jpg)로 옮긴다.
+ *
+ * 서비스 중에도 안전하도록 1) 새 위치에 복사(로컬 디스크는 하드링크) → 2) DB 경로 변경 커밋
+ * → 3) 커밋 후 기존 경로를 삭제 큐에 넣는 순서로 진행한다.
+ * 남아 있는 flat 파일이 곧 남은 작업이므로 중간에 멈춰도 다시 실행하면 이어서 진행된다.
+ *
+ * 커밋 전까지는 새 경로를 아무도 가리키지 않으므로, 그 사이 GC 가 지우지 않도록
+ * 복사본은 새 파일(수정 시각 = 복사 시각, 유예 시간 안)이고, 참조 수 기록이 없던 파일은
+ * 같은 트랜잭션에서 새 경로로 upload_blob 을 만든다 (이후 GC / 삭제 큐는 그 행을 보고 건너뛴다).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadLayoutMigrator {
+
+    private static final List<String> SUBDIRS = List.of("thumbnail", "detail");
+    private static final Pattern DERIVATIVE = Pattern.compile("^(.*)_w(\\d+)(\\.[a-z]+)$");
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final UploadBlobRepository uploadBlobRepository;
+    private final FileStorageService fileStorageService;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final UploadLayout uploadLayout;
+    private final BlobStore blobStore;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 최대 batchSize 개의 원본 파일을 옮긴다. 옮긴 수를 돌려주며, batchSize 보다 작으면 완료.
+     */
+    public int migrateBatch(int batchSize) throws IOException {
+        if (!uploadLayout.isSharded()) {
+            throw new IllegalStateException("app.upload.layout=sharded 일 때만 실행할 수 있습니다.");
+        }
+        if (!running.tryLock()) {
+            throw new IllegalStateException("이미 마이그레이션이 실행 중입니다.");
+        }
+        try {
+            List<String> batch = collectFlatOriginals(batchSize);
+            if (batch.isEmpty()) return 0;
+
+            Map<String, String> moved = new LinkedHashMap<>();
+            for (String oldPath : batch) {
+                String subDir = oldPath.substring(0, oldPath.indexOf('/'));
+                String filename = oldPath.substring(subDir.length() + 1);
+                String newPath = uploadLayout.pathFor(subDir, filename);
+
+                blobStore.copy(oldPath, newPath);
+                for (String derivative : derivativesOf(oldPath)) {
+                    String derivedName = derivative.substring(subDir.length() + 1);
+                    blobStore.copy(derivative, uploadLayout.pathFor(subDir, derivedName));
+                }
+                moved.put(oldPath, newPath);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<String, String> e : moved.entrySet()) {
+                    productRepository.renameThumbnail(e.getKey(), e.getValue());
+                    productImageRepository.renameImageUrl(e.getKey(), e.getValue());
+                    if (uploadBlobRepository.renamePath(e.getKey(), e.getValue()) == 0) {
+                        // 참조 수 기록 이전 파일: 위에서 옮긴 참조 수로 새 경로를 기록
+                        fileStorageService.adopt(e.getValue(), 0);
+                    }
+                    // 기존 경로(+ 리사이즈 버전)는 커밋 후 삭제
+                    fileDeletionQueue.enqueueAfterCommit(e.getKey());
+                }
+            });
+
+            log.info("업로드 파일 {}개를 sharded 배치로 이동", moved.size());
+            return moved.size();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private List<String> collectFlatOriginals(int limit) throws IOException {
+        List<String> result = new ArrayList<>(limit);
+        for (String subDir : SUBDIRS) {
+            try (Stream<BlobInfo> blobs = blobStore.list(subDir + "/")) {
+                Iterator<BlobInfo> it = blobs.iterator();
+                while (it.hasNext() && result.size() < limit) {
+                    String key = it.next().key();
+                    String name = key.substring(subDir.length() + 1);
+                    // 하위 디렉토리에 있으면 이미 sharded
+                    if (name.contains("/")) continue;
+                    if (DERIVATIVE.matcher(name).matches() || name.endsWith(".tmp")) continue;
+                    result.add(key);
+                }
+            }
+            if (result.size() >= limit) break;
+        }
+        return result;
+    }
+
+    /* 같은 디렉토리의 "{이름}_w{너비}.{ext}" 파일들 */
+    private List<String> derivativesOf(String relativePath) throws IOException {
+        int dot = relativePath.lastIndexOf('.');
+        String base = (dot >= 0) ? relativePath.substring(0, dot) : relativePath;
+        String baseName = base.substring(base.lastIndexOf('/') + 1);
+
+        List<String> result = new ArrayList<>();
+        try (Stream<BlobInfo> blobs = blobStore.list(base + "_w")) {
+            for (BlobInfo blob : (Iterable<BlobInfo>) blobs::iterator) {
+                String name = blob.key().substring(blob.key().lastIndexOf('/') + 1);
+                Matcher m = DERIVATIVE.matcher(name);
+                if (m.matches() && m.group(1).equals(baseName)) {
+                    result.add(blob.key());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.coffee.service;
+
+import com.example.coffee.dto.VariantPriceRow;
+import com.example.coffee.repository.ProductVariantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문 가격 계산 / 주문 응답용 variant 표. variant id -> (basePrice + extraPrice, 상품명, 옵션값).
+ *
+ * long 키 open addressing 배열이라 조회에 박싱도 엔티티 로딩도 없다. 표(Snapshot)는 만든 뒤 바꾸지 않고,
+ * 상품 생성/수정/삭제가 커밋되면 그 트랜잭션의 변경을 모아 새 표를 만들어 참조만 바꾼다
+ * (트랜잭션마다 한 번 복사하므로 가져오기 청크도 청크당 한 번).
+ * 다른 노드의 변경은 refresh-ms 마다 DB 에서 다시 읽어 반영한다 (주문 단가의 근거라 variant 2차 캐시 TTL 인 60초).
+ * 표에 없는 variant (다른 노드에서 막 만든 것 등) 는 호출하는 쪽이 엔티티 경로로 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VariantPriceTable {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int RELOAD_ATTEMPTS = 3;
+
+    private final ProductVariantRepository variantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.catalog.price-table.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+    // 적용한 변경 수. 다시 읽는 동안 변경이 들어오면 읽은 결과를 버린다
+    private final AtomicLong version = new AtomicLong();
+    // 표 교체를 직렬화 (가상 스레드에서 synchronized 대기로 캐리어 스레드를 잡지 않도록 ReentrantLock)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.price-table.refresh-ms:60000}",
+               fixedDelayString = "${app.catalog.price-table.refresh-ms:60000}")
+    public void reload() {
+        if (!enabled) return;
+        for (int attempt = 0; attempt < RELOAD_ATTEMPTS; attempt++) {
+            long seen = version.get();
+            List<VariantPriceRow> rows = readAll();
+            lock.lock();
+            try {
+                if (version.get() == seen) {
+                    Snapshot next = new Snapshot(rows.size());
+                    for (VariantPriceRow row : rows) {
+                        next.put(row);
+                    }
+                    snapshot = next;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.warn("가격표를 다시 읽는 동안 상품 변경이 계속 들어와 다음 주기로 미룹니다.");
+    }
+
+    /* 현재 표. 아직 적재 전이거나 꺼져 있으면 null (엔티티 경로로) */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /* 상품 생성 / 옵션 교체: 상품의 variant 를 통째로 바꾼다 */
+    public void replaceProduct(Long productId, List<VariantPriceRow> variants) {
+        Changes changes = pending();
+        changes.renamed.remove(productId);
+        changes.replaced.put(productId, new ArrayList<>(variants));
+        applyNow(changes);
+    }
+
+    /* 옵션은 그대로 두고 상품명 / 기본가만 수정 */
+    public void renameProduct(Long productId, String productName, int basePrice) {
+        Changes changes = pending();
+        List<VariantPriceRow> replaced = changes.replaced.get(productId);
+        if (replaced != null) {
+            for (VariantPriceRow row : replaced) {
+                row.setProductName(productName);
+                row.setBasePrice(basePrice);
+            }
+        } else {
+            changes.renamed.put(productId, VariantPriceRow.builder()
+                    .productId(productId).productName(productName).basePrice(basePrice).build());
+        }
+        applyNow(changes);
+    }
+
+    public void removeProduct(Long productId) {
+        Changes changes = pending();
+        changes.renamed.remove(productId);
+        changes.replaced.put(productId, List.of());
+        applyNow(changes);
+    }
+
+    /* 트랜잭션 안이면 그 트랜잭션의 변경 묶음 (커밋 후 한 번에 적용), 밖이면 새 묶음 */
+    private Changes pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Changes(false);
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Changes created = new Changes(true);
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VariantPriceTable.this);
+                }
+            });
+            changes = created;
+        }
+        return changes;
+    }
+
+    private void applyNow(Changes changes) {
+        if (!changes.deferred) apply(changes);
+    }
+
+    private void apply(Changes changes) {
+        if (!enabled) return;
+        lock.lock();
+        try {
+            version.incrementAndGet();
+            Snapshot current = snapshot;
+            // 적재 전: 적재가 version 을 보고 다시 읽는다
+            if (current == null) return;
+
+            int added = 0;
+            for (List<VariantPriceRow> rows : changes.replaced.values()) {
+                added += rows.size();
+            }
+            Snapshot next = new Snapshot(current.size() + added);
+            for (int slot = 0; slot < current.keys.length; slot++) {
+                long key = current.keys[slot];
+                if (key == 0L) continue;
+                Long productId = current.productIds[slot];
+                if (changes.replaced.containsKey(productId)) continue;
+
+                VariantPriceRow renamed = changes.renamed.get(productId);
+                if (renamed == null) {
+                    next.put(key, productId, current.prices[slot], current.extraPrices[slot],
+                            current.productNames[slot], current.optionValues[slot]);
+                } else {
+                    int extraPrice = current.extraPrices[slot];
+                    next.put(key, productId, renamed.getBasePrice() + extraPrice, extraPrice,
+                            renamed.getProductName(), current.optionValues[slot]);
+                }
+            }
+            for (List<VariantPriceRow> rows : changes.replaced.values()) {
+                for (VariantPriceRow row : rows) {
+                    next.put(row);
+                }
+            }
+            snapshot = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* primary 에서 읽는다 (읽기 전용 트랜잭션이면 복제본으로 가서 방금 커밋한 변경이 빠질 수 있다) */
+    private List<VariantPriceRow> readAll() {
+        return transactionTemplate.execute(status -> {
+            List<VariantPriceRow> rows = new ArrayList<>();
+            long cursor = 0L;
+            while (true) {
+                List<VariantPriceRow> batch = variantRepository.findPriceRowsAfter(
+                        cursor, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (batch.isEmpty()) break;
+                rows.addAll(batch);
+                cursor = batch.get(batch.size() - 1).getVariantId();
+            }
+            return rows;
+        });
+    }
+
+    /* 한 트랜잭션의 변경. replaced 의 빈 목록은 삭제 */
+    private static final class Changes {
+        private final boolean deferred;
+        private final Map<Long, List<VariantPriceRow>> replaced = new HashMap<>();
+        private final Map<Long, VariantPriceRow> renamed = new HashMap<>();
+
+        Changes(boolean deferred) {
+            this.deferred = deferred;
+        }
+    }
+
+    /**
+     * 만든 뒤 바꾸지 않는 표. indexOf 로 찾은 slot 으로 값을 읽는다 (한 표에서 읽은 값끼리는 항상 같은 시점).
+     * variant id 는 0 이 아니므로 0 을 빈 칸으로 쓴다. 채움률은 1/2 이하.
+     */
+    public static final class Snapshot {
+        private final long[] keys;
+        private final long[] productIds;
+        private final int[] prices;
+        private final int[] extraPrices;
+        private final String[] productNames;
+        private final String[] optionValues;
+        private final int mask;
+        private int size;
+
+        Snapshot(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            productIds = new long[capacity];
+            prices = new int[capacity];
+            extraPrices = new int[capacity];
+            productNames = new String[capacity];
+            optionValues = new String[capacity];
+            mask = capacity - 1;
+        }
+
+        /* variant 의 slot, 없으면 -1 */
+        public int indexOf(long variantId) {
+            if (variantId == 0L) return -1;
+            for (int slot = hash(variantId) & mask; ; slot = (slot + 1) & mask) {
+                long key = keys[slot];
+                if (key == variantId) return slot;
+                if (key == 0L) return -1;
+            }
+        }
+
+        /* basePrice + extraPrice */
+        public int price(int slot) {
+            return prices[slot];
+        }
+
+        public String productName(int slot) {
+            return productNames[slot];
+        }
+
+        public String optionValue(int slot) {
+            return optionValues[slot];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        void put(VariantPriceRow row) {
+            put(row.getVariantId(), row.getProductId(), row.getBasePrice() + row.getExtraPrice(),
+                    row.getExtraPrice(), row.getProductName(), row.getOptionValue());
+        }
+
+        private void put(long variantId, long productId, int price, int extraPrice,
+                         String productName, String optionValue) {
+            int slot = hash(variantId) & mask;
+            while (keys[slot] != 0L && keys[slot] != variantId) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0L) size++;
+            keys[slot] = variantId;
+            productIds[slot] = productId;
+            prices[slot] = price;
+            extraPrices[slot] = extraPrice;
+            productNames[slot] = productName;
+            optionValues[slot] = optionValue;
+        }
+
+        /* 순차 id / snowflake id 모두 하위 비트가 고르게 퍼지도록 */
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.coffee.storage;
+
+/**
+ * 저장된 blob 의 메타데이터. key 는 업로드 루트 기준 상대 경로 (예: "detail/ab/cd/abcd....jpg").
+ */
+public record BlobInfo(String key, long size, long lastModified) {
+}
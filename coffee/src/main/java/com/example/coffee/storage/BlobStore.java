@@ -0,0 +1,47 @@
+package com.example.coffee.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 파일 저장소 SPI. FileStorageService 와 /uploads 서빙은 이 인터페이스만 사용한다.
+ *
+ * 모든 연산은 key 단위의 put / get(range) / copy / delete / prefix list 로만 구성되어
+ * S3 호환 저장소(PutObject, GetObject Range, CopyObject, DeleteObject, ListObjectsV2)로도 구현할 수 있다.
+ */
+public interface BlobStore {
+
+    /** key 에 내용을 저장한다 (있으면 덮어씀). 읽는 쪽에서 쓰다 만 내용이 보이지 않아야 한다. 저장한 바이트 수를 반환. */
+    long put(String key, InputStream content) throws IOException;
+
+    Optional<BlobInfo> stat(String key) throws IOException;
+
+    default boolean exists(String key) throws IOException {
+        return stat(key).isPresent();
+    }
+
+    /** offset 부터 length 바이트. key 가 없으면 NoSuchFileException. */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /** from → to 이동. to 가 이미 있으면 덮어쓰지 않고 from 만 지우고 false. */
+    boolean moveIfAbsent(String from, String to) throws IOException;
+
+    /** from 을 to 로 복사 (to 가 이미 있으면 아무것도 하지 않음). to 의 수정 시각은 복사한 시각이다 (새로 만든 blob). */
+    void copy(String from, String to) throws IOException;
+
+    boolean delete(String key) throws IOException;
+
+    /**
+     * prefix 로 시작하는 blob 목록. 반환된 Stream 은 호출한 쪽에서 닫아야 한다.
+     * 이름이 . 으로 시작하는 디렉토리(.staging, .chunks)는 prefix 가 그 안을 가리킬 때만 포함한다.
+     */
+    Stream<BlobInfo> list(String prefix) throws IOException;
+
+    /** 로컬 파일로 존재하면 그 경로 (sendfile 등 zero-copy 전송용). 원격 저장소는 empty. */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.coffee.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * 메모리 저장소 (테스트용, app.storage.type=memory).
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "memory")
+public class InMemoryBlobStore implements BlobStore {
+
+    private final ConcurrentNavigableMap<String, Blob> blobs = new ConcurrentSkipListMap<>();
+
+    @Override
+    public long put(String key, InputStream content) throws IOException {
+        byte[] data = content.readAllBytes();
+        blobs.put(key, new Blob(data, System.currentTimeMillis()));
+        return data.length;
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) {
+        Blob blob = blobs.get(key);
+        return blob == null
+                ? Optional.empty()
+                : Optional.of(new BlobInfo(key, blob.data().length, blob.lastModified()));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        Blob blob = blobs.get(key);
+        if (blob == null) throw new NoSuchFileException(key);
+
+        int from = (int) Math.min(offset, blob.data().length);
+        int len = (int) Math.min(length, blob.data().length - from);
+        return new ByteArrayInputStream(blob.data(), from, len);
+    }
+
+    @Override
+    public boolean moveIfAbsent(String from, String to) throws IOException {
+        Blob blob = blobs.remove(from);
+        if (blob == null) throw new NoSuchFileException(from);
+        return blobs.putIfAbsent(to, blob) == null;
+    }
+
+    @Override
+    public void copy(String from, String to) throws IOException {
+        Blob blob = blobs.get(from);
+        if (blob == null) throw new NoSuchFileException(from);
+        blobs.putIfAbsent(to, new Blob(blob.data(), System.currentTimeMillis()));
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return blobs.remove(key) != null;
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) {
+        int dirs = prefix.lastIndexOf('/') + 1;
+        return blobs.subMap(prefix, prefix + Character.MAX_VALUE).entrySet().stream()
+                // LocalBlobStore 처럼 prefix 아래의 . 디렉토리는 들어가지 않는다
+                .filter(e -> {
+                    String path = e.getKey().substring(dirs, e.getKey().lastIndexOf('/') + 1);
+                    return !path.startsWith(".") && !path.contains("/.");
+                })
+                .map(e -> new BlobInfo(e.getKey(), e.getValue().data().length, e.getValue().lastModified()));
+    }
+
+    private record Blob(byte[] data, long lastModified) {
+    }
+}
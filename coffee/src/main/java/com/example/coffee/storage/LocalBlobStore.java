@@ -0,0 +1,184 @@
+package com.example.coffee.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 디스크 저장소 (app.upload.dir 아래).
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    private static final String TMP_DIR = ".tmp";
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    private Path root;
+    private Path tmp;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // 같은 파일시스템 안에서 rename 하기 위해 업로드 디렉토리 아래에 둔다
+        tmp = root.resolve(TMP_DIR);
+        Files.createDirectories(tmp);
+    }
+
+    @Override
+    public long put(String key, InputStream content) throws IOException {
+        Path target = resolve(key);
+        Path temp = tmp.resolve(UUID.randomUUID() + ".part");
+        try {
+            long size = Files.copy(content, temp);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) return Optional.empty();
+            return Optional.of(new BlobInfo(key, attrs.size(), attrs.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(offset);
+        InputStream in = Channels.newInputStream(channel);
+        return new BoundedInputStream(in, length);
+    }
+
+    @Override
+    public boolean moveIfAbsent(String from, String to) throws IOException {
+        Path source = resolve(from);
+        Path target = resolve(to);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    @Override
+    public void copy(String from, String to) throws IOException {
+        Path source = resolve(from);
+        Path target = resolve(to);
+        if (Files.exists(target)) return;
+
+        Files.createDirectories(target.getParent());
+        try {
+            // 같은 파일시스템이면 데이터 복사 없이 링크만 추가.
+            // 링크는 원본의 수정 시각을 그대로 가지므로, 아직 아무도 가리키지 않는 새 경로가
+            // GC 유예 시간을 지난 파일로 보이지 않도록 시각을 새로 찍는다 (같은 inode 라 원본도 함께 바뀜)
+            Files.createLink(target, source);
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (UnsupportedOperationException | IOException e) {
+            Path temp = tmp.resolve(UUID.randomUUID() + ".part");
+            try {
+                Files.copy(source, temp);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        Path path = resolve(key);
+        boolean deleted = Files.deleteIfExists(path);
+        // 토큰/세션 단위 작업 디렉토리(.staging/{token}, .chunks/{id})는 비면 함께 정리.
+        // 공유되는 shard 디렉토리는 동시에 쓰는 쪽과 경합하므로 남겨둔다.
+        if (deleted && key.startsWith(".") && path.getParent().getParent() != null
+                && !path.getParent().getParent().equals(root)) {
+            try {
+                Files.deleteIfExists(path.getParent());
+            } catch (DirectoryNotEmptyException ignored) {
+                // 아직 다른 파일이 남아 있음
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) throws IOException {
+        int slash = prefix.lastIndexOf('/');
+        Path dir = (slash >= 0) ? resolve(prefix.substring(0, slash)) : root;
+        if (!Files.isDirectory(dir)) return Stream.empty();
+
+        // 작업 디렉토리(.tmp / .staging / .chunks)는 업로드마다 생겼다 지워지므로 prefix 가 그 안을 가리킬 때만 들어간다.
+        // 순회 도중 사라진 파일/디렉토리는 건너뛴다
+        List<BlobInfo> blobs = new ArrayList<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+                return !path.equals(dir) && path.getFileName().toString().startsWith(".")
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                String key = root.relativize(path).toString().replace('\\', '/');
+                if (attrs.isRegularFile() && key.startsWith(prefix) && !key.startsWith(TMP_DIR + "/")) {
+                    blobs.add(new BlobInfo(key, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException e) throws IOException {
+                if (e instanceof NoSuchFileException) return FileVisitResult.CONTINUE;
+                throw e;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path path, IOException e) throws IOException {
+                if (e != null && !(e instanceof NoSuchFileException)) throw e;
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return blobs.stream();
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        // 경로 탐색 공격 방지
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("잘못된 파일 경로입니다: " + key);
+        }
+        return path;
+    }
+}
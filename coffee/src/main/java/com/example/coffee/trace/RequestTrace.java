@@ -0,0 +1,156 @@
+package com.example.coffee.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 하나 동안 실행된 SQL 과 저장소 I/O 기록.
+ *
+ * RequestTraceFilter 가 요청 스레드의 ThreadLocal 에 걸어 두고 TracingDataSource(SQL) 와
+ * FileStorageService(I/O) 가 채운다. 추적 중이 아니면 current() 가 null 이라 기록 호출은 ThreadLocal 조회 한 번으로 끝난다.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String uri;
+    private final long startedAt;
+    private final long startNanos;
+    private final int maxStatements;
+
+    // SQL 은 요청 스레드에서만 기록된다 (커넥션이 요청 스레드에서 열리므로)
+    private final List<SqlEntry> statements = new ArrayList<>();
+    private int statementCount;
+    private long sqlNanos;
+
+    // 업로드 병렬 스테이징은 다른 스레드에서 기록한다
+    private final Map<String, IoStat> io = new ConcurrentHashMap<>();
+
+    private volatile String handler;
+    private volatile int status;
+    private volatile long durationNanos;
+
+    private RequestTrace(String method, String uri, int maxStatements) {
+        this.method = method;
+        this.uri = uri;
+        this.maxStatements = maxStatements;
+        this.startedAt = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    static RequestTrace start(String method, String uri, int maxStatements) {
+        RequestTrace trace = new RequestTrace(method, uri, maxStatements);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /* 다른 스레드에서 실행할 작업도 지금 요청의 trace 에 기록되도록 (추적 중이 아니면 그대로) */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) return task;
+        return () -> {
+            RequestTrace previous = CURRENT.get();
+            CURRENT.set(trace);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        };
+    }
+
+    /* 저장소 I/O 한 번. startNanos 는 System.nanoTime() 으로 잰 시작 시각, 크기를 모르면 bytes = 0 */
+    public static void io(String operation, long startNanos, long bytes) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.io.computeIfAbsent(operation, k -> new IoStat()).add(System.nanoTime() - startNanos, bytes);
+        }
+    }
+
+    /* 실행된 SQL 한 건. 행 수와 fetch 시간은 ResultSet 을 읽으면서 더해진다 */
+    SqlEntry statement(String normalizedSql, long nanos) {
+        SqlEntry entry = new SqlEntry(normalizedSql, nanos);
+        statementCount++;
+        sqlNanos += nanos;
+        // 상한을 넘으면 목록에는 넣지 않고 합계에만 반영
+        if (statements.size() < maxStatements) {
+            statements.add(entry);
+        }
+        return entry;
+    }
+
+    void addFetch(long nanos) {
+        sqlNanos += nanos;
+    }
+
+    void finish(int status, String handler) {
+        this.durationNanos = System.nanoTime() - startNanos;
+        this.status = status;
+        this.handler = handler;
+    }
+
+    public String getMethod() { return method; }
+    public String getUri() { return uri; }
+    public String getHandler() { return handler; }
+    public int getStatus() { return status; }
+    public long getStartedAt() { return startedAt; }
+    public long getDurationNanos() { return durationNanos; }
+    public int getStatementCount() { return statementCount; }
+    public long getSqlNanos() { return sqlNanos; }
+    public List<SqlEntry> getStatements() { return Collections.unmodifiableList(statements); }
+    public Map<String, IoStat> getIo() { return io; }
+
+    public static final class SqlEntry {
+        private final String sql;
+        private long nanos;
+        // -1 = 알 수 없음 (execute() 의 결과를 읽지 않은 경우)
+        private long rows = -1;
+
+        SqlEntry(String sql, long nanos) {
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        void setRows(long rows) { this.rows = rows; }
+        void addRow(long fetchNanos) {
+            rows = Math.max(rows, 0) + 1;
+            nanos += fetchNanos;
+        }
+        void addFetch(long fetchNanos) { nanos += fetchNanos; }
+
+        public String getSql() { return sql; }
+        public long getNanos() { return nanos; }
+        public long getRows() { return rows; }
+    }
+
+    public static final class IoStat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void add(long elapsedNanos, long size) {
+            count.increment();
+            nanos.add(elapsedNanos);
+            bytes.add(size);
+        }
+
+        public long getCount() { return count.sum(); }
+        public long getNanos() { return nanos.sum(); }
+        public long getBytes() { return bytes.sum(); }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.coffee.trace;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 요청 추적을 켜면 애플리케이션이 쓰는 DataSource(빈 이름 dataSource)를 TracingDataSource 로 감싼다.
+ * 끄면 아무것도 감싸지 않으므로 JDBC 경로에 추가 비용이 없다.
+ * 읽기 복제본 구성에서는 라우팅 앞의 LazyConnectionDataSourceProxy 가 감싸진다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.trace.enabled", havingValue = "true")
+public class RequestTraceConfig {
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
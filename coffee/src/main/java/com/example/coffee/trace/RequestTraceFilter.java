@@ -0,0 +1,77 @@
+package com.example.coffee.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * app.trace.paths 요청마다 RequestTrace 를 걸고, 끝나면 처리한 컨트롤러 메서드를 붙여
+ * threshold-ms 이상 걸린 요청만 SlowRequestLog 에 남긴다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.trace.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final SlowRequestLog slowRequestLog;
+
+    @Value("${app.trace.threshold-ms:500}")
+    private long thresholdMillis;
+
+    @Value("${app.trace.max-statements:500}")
+    private int maxStatements;
+
+    @Value("${app.trace.paths:/api/**}")
+    private List<String> paths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        // 조회 자체는 기록하지 않는다
+        if (MATCHER.match("/api/admin/traces/**", uri)) return true;
+        for (String pattern : paths) {
+            if (MATCHER.match(pattern.trim(), uri)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        RequestTrace trace = RequestTrace.start(request.getMethod(), uri, maxStatements);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTrace.clear();
+            trace.finish(response.getStatus(), handlerName(request));
+            if (trace.getDurationNanos() >= thresholdMillis * 1_000_000L) {
+                slowRequestLog.add(trace);
+            }
+        }
+    }
+
+    /* "OrderController#getOrder" 형태. 컨트롤러까지 가지 못했으면 null */
+    private static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handler.getBeanType().getSimpleName() + "#" + handler.getMethod().getName();
+        }
+        return null;
+    }
+}
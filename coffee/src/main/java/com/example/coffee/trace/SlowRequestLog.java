@@ -0,0 +1,122 @@
+package com.example.coffee.trace;
+
+import com.example.coffee.dto.RequestTraceResponse;
+import com.example.coffee.dto.RequestTraceSummaryResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 느린 요청 기록. 최근 buffer-size 개만 남기는 링 버퍼라 메모리가 늘지 않는다.
+ * 요청이 끝날 때 응답 형태로 바꿔 두므로 조회는 복사만 한다.
+ */
+@Component
+public class SlowRequestLog {
+
+    @Value("${app.trace.buffer-size:100}")
+    private int capacity;
+
+    private AtomicReferenceArray<RequestTraceResponse> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    void add(RequestTrace trace) {
+        long id = sequence.incrementAndGet();
+        slots.set((int) ((id - 1) % slots.length()), toResponse(id, trace));
+    }
+
+    /* 최근 것부터 */
+    public List<RequestTraceSummaryResponse> recent(int limit) {
+        return snapshot().stream().limit(Math.max(0, limit)).map(RequestTraceResponse::getSummary).toList();
+    }
+
+    public Optional<RequestTraceResponse> find(long id) {
+        if (id <= 0) return Optional.empty();
+        RequestTraceResponse found = slots.get((int) ((id - 1) % slots.length()));
+        // 이미 덮어써졌으면 다른 id 가 들어 있다
+        return found != null && found.getSummary().getId() == id ? Optional.of(found) : Optional.empty();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private List<RequestTraceResponse> snapshot() {
+        List<RequestTraceResponse> all = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTraceResponse trace = slots.get(i);
+            if (trace != null) all.add(trace);
+        }
+        all.sort(Comparator.comparingLong((RequestTraceResponse t) -> t.getSummary().getId()).reversed());
+        return all;
+    }
+
+    private static RequestTraceResponse toResponse(long id, RequestTrace trace) {
+        List<RequestTraceResponse.SqlStatement> statements = new ArrayList<>(trace.getStatements().size());
+        Map<String, RequestTraceResponse.SqlGroup> groups = new LinkedHashMap<>();
+        for (RequestTrace.SqlEntry entry : trace.getStatements()) {
+            statements.add(RequestTraceResponse.SqlStatement.builder()
+                    .sql(entry.getSql())
+                    .durationMs(millis(entry.getNanos()))
+                    .rows(entry.getRows())
+                    .build());
+            RequestTraceResponse.SqlGroup group = groups.computeIfAbsent(entry.getSql(),
+                    sql -> RequestTraceResponse.SqlGroup.builder().sql(sql).build());
+            group.setCount(group.getCount() + 1);
+            group.setTotalMs(group.getTotalMs() + millis(entry.getNanos()));
+            group.setRows(group.getRows() + Math.max(entry.getRows(), 0));
+        }
+        List<RequestTraceResponse.SqlGroup> sqlGroups = new ArrayList<>(groups.values());
+        sqlGroups.sort(Comparator.comparingDouble(RequestTraceResponse.SqlGroup::getTotalMs).reversed());
+
+        long ioNanos = 0;
+        List<RequestTraceResponse.StorageIo> storageIo = new ArrayList<>();
+        for (Map.Entry<String, RequestTrace.IoStat> e : trace.getIo().entrySet()) {
+            ioNanos += e.getValue().getNanos();
+            storageIo.add(RequestTraceResponse.StorageIo.builder()
+                    .operation(e.getKey())
+                    .count(e.getValue().getCount())
+                    .totalMs(millis(e.getValue().getNanos()))
+                    .bytes(e.getValue().getBytes())
+                    .build());
+        }
+
+        RequestTraceSummaryResponse summary = RequestTraceSummaryResponse.builder()
+                .id(id)
+                .method(trace.getMethod())
+                .uri(trace.getUri())
+                .handler(trace.getHandler())
+                .status(trace.getStatus())
+                .startedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(trace.getStartedAt()), ZoneId.systemDefault()))
+                .durationMs(millis(trace.getDurationNanos()))
+                .sqlCount(trace.getStatementCount())
+                .sqlMs(millis(trace.getSqlNanos()))
+                .ioMs(millis(ioNanos))
+                .build();
+
+        return RequestTraceResponse.builder()
+                .summary(summary)
+                .sqlGroups(sqlGroups)
+                .statements(statements)
+                .droppedStatements(trace.getStatementCount() - statements.size())
+                .storageIo(storageIo)
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.coffee.trace;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * 추적 중인 요청(RequestTrace.current())이 연 커넥션만 프록시로 감싸 SQL 마다 시간 / 행 수를 기록한다.
+ * 추적 중이 아니면 원래 커넥션을 그대로 돌려주므로 비용은 getConnection 당 ThreadLocal 조회 한 번.
+ *
+ * 시간 = execute 호출 + ResultSet.next() 로 읽은 시간. SQL 은 리터럴을 ? 로 바꾸고 IN 목록을 접어 정규화한다.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public TracingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trace(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trace(super.getConnection(username, password));
+    }
+
+    private static Connection trace(Connection connection) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) return connection;
+        return proxy(Connection.class, new ConnectionHandler(connection, trace));
+    }
+
+    static String normalize(String sql) {
+        if (sql == null) return "?";
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* prepareStatement / prepareCall / createStatement 가 돌려주는 Statement 를 감싼다 */
+    private record ConnectionHandler(Connection target, RequestTrace trace) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, trace, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final RequestTrace trace;
+        private String sql;
+        private RequestTrace.SqlEntry last;
+
+        StatementHandler(Statement target, RequestTrace trace, String sql) {
+            this.target = target;
+            this.trace = trace;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                // Statement.addBatch(sql): 배치의 마지막 SQL 로 기록
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = TracingDataSource.invoke(target, method, args);
+                if (name.equals("getResultSet") && result instanceof ResultSet rs && last != null) {
+                    last.setRows(0);
+                    return proxy(ResultSet.class, new ResultSetHandler(rs, trace, last));
+                }
+                return result;
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long start = System.nanoTime();
+            Object result = TracingDataSource.invoke(target, method, args);
+            last = trace.statement(normalize(executed), System.nanoTime() - start);
+
+            if (result instanceof ResultSet rs) {
+                last.setRows(0);
+                return proxy(ResultSet.class, new ResultSetHandler(rs, trace, last));
+            }
+            if (result instanceof Integer count && !name.equals("execute")) {
+                last.setRows(count);
+            } else if (result instanceof Long count) {
+                last.setRows(count);
+            } else if (result instanceof int[] counts) {
+                long rows = 0;
+                for (int c : counts) rows += Math.max(c, 0);
+                last.setRows(rows);
+            } else if (result instanceof long[] counts) {
+                long rows = 0;
+                for (long c : counts) rows += Math.max(c, 0);
+                last.setRows(rows);
+            }
+            return result;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, RequestTrace trace,
+                                    RequestTrace.SqlEntry entry) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("next")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            boolean hasRow = target.next();
+            long nanos = System.nanoTime() - start;
+            if (hasRow) entry.addRow(nanos);
+            else entry.addFetch(nanos);
+            trace.addFetch(nanos);
+            return hasRow;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+-- 기준 스키마: Flyway 도입 전 앱(ddl-auto=update)이 만들던 테이블 그대로.
+-- 이미 이 테이블들이 있는 DB 는 baseline-on-migrate 로 V1 을 건너뛰고 V2 부터 적용한다.
+-- 그래서 이후에 생긴 테이블 / 컬럼은 여기에 넣지 않고 다음 번호의 마이그레이션으로 추가한다
+-- (upload_blob / upload_session / *widths: V2, AUTO_INCREMENT 제거: vendor/{mysql,h2}/V5).
+
+CREATE TABLE product (
+    product_id       BIGINT       NOT NULL AUTO_INCREMENT,
+    product_name     VARCHAR(200) NOT NULL,
+    base_price       INT          NOT NULL,
+    type             VARCHAR(100),
+    continent        VARCHAR(50),
+    nationality      VARCHAR(100),
+    thumbnail_img    VARCHAR(250),
+    PRIMARY KEY (product_id)
+);
+
+CREATE TABLE product_option (
+    option_id    BIGINT      NOT NULL AUTO_INCREMENT,
+    product_id   BIGINT      NOT NULL,
+    option_value VARCHAR(50) NOT NULL,
+    extra_price  INT         NOT NULL,
+    PRIMARY KEY (option_id),
+    CONSTRAINT fk_product_option_product FOREIGN KEY (product_id) REFERENCES product (product_id)
+);
+
+CREATE TABLE product_variant (
+    variant_id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    option_id  BIGINT NOT NULL,
+    stock      INT    NOT NULL,
+    PRIMARY KEY (variant_id),
+    CONSTRAINT fk_product_variant_product FOREIGN KEY (product_id) REFERENCES product (product_id),
+    CONSTRAINT fk_product_variant_option FOREIGN KEY (option_id) REFERENCES product_option (option_id)
+);
+
+CREATE TABLE product_image (
+    image_id   BIGINT       NOT NULL AUTO_INCREMENT,
+    image_url  VARCHAR(250),
+    sort_order INT,
+    product_id BIGINT,
+    PRIMARY KEY (image_id),
+    CONSTRAINT fk_product_image_product FOREIGN KEY (product_id) REFERENCES product (product_id)
+);
+
+CREATE TABLE member (
+    member_id  BIGINT       NOT NULL AUTO_INCREMENT,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    name       VARCHAR(50)  NOT NULL,
+    phone      VARCHAR(20),
+    address    VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (member_id),
+    CONSTRAINT uk_member_email UNIQUE (email)
+);
+
+CREATE TABLE orders (
+    order_id         BIGINT      NOT NULL AUTO_INCREMENT,
+    member_id        BIGINT      NOT NULL,
+    status           ENUM('PENDING', 'PAID', 'SHIPPING', 'COMPLETED', 'CANCELLED') NOT NULL,
+    total_amount     INT         NOT NULL,
+    shipping_address VARCHAR(255),
+    order_date       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (order_id),
+    CONSTRAINT fk_orders_member FOREIGN KEY (member_id) REFERENCES member (member_id)
+);
+
+CREATE TABLE order_item (
+    order_item_id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id      BIGINT NOT NULL,
+    variant_id    BIGINT NOT NULL,
+    quantity      INT    NOT NULL,
+    unit_price    INT    NOT NULL,
+    PRIMARY KEY (order_item_id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (order_id),
+    CONSTRAINT fk_order_item_variant FOREIGN KEY (variant_id) REFERENCES product_variant (variant_id)
+);
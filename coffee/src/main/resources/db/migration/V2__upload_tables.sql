@@ -0,0 +1,27 @@
+-- 기준선(V1) 이후 엔티티에 생긴 테이블 / 컬럼.
+-- baseline-on-migrate 로 V1 을 건너뛴 기존 DB 도 여기서부터 받는다.
+
+-- 같은 내용의 업로드 파일을 참조 수로 나눠 쓴다 (FileStorageService)
+CREATE TABLE IF NOT EXISTS upload_blob (
+    path       VARCHAR(250) NOT NULL,
+    digest     VARCHAR(64)  NOT NULL,
+    size       BIGINT       NOT NULL,
+    ref_count  INT          NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (path)
+);
+
+-- 분할 업로드 세션 (ChunkedUploadService). 받은 조각은 저장소의 .chunks/{id}/ 기준
+CREATE TABLE IF NOT EXISTS upload_session (
+    id         VARCHAR(36) NOT NULL,
+    sub_dir    VARCHAR(20) NOT NULL,
+    ext        VARCHAR(10) NOT NULL,
+    total_size BIGINT      NOT NULL,
+    chunk_size INT         NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+-- 생성된 리사이즈 너비 목록 (ImageDerivativeService, 예: "320,640")
+ALTER TABLE product ADD COLUMN thumbnail_widths VARCHAR(100);
+ALTER TABLE product_image ADD COLUMN widths VARCHAR(100);
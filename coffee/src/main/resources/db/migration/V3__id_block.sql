@@ -0,0 +1,7 @@
+-- IdAllocator(app.id.strategy=pooled) 의 구간 예약 테이블.
+-- 예전에는 IdAllocator 가 시작할 때 만들었으므로 기존 DB 에는 이미 있을 수 있다.
+CREATE TABLE IF NOT EXISTS id_block (
+    name     VARCHAR(64) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
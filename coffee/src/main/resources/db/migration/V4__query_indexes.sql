@@ -0,0 +1,27 @@
+-- 리포지토리 쿼리에 맞춘 인덱스 (QueryPlanTests 가 쿼리마다 EXPLAIN 으로 확인한다).
+-- FK 컬럼 하나짜리 조회(order_item.order_id, product_option.product_id 등)는 FK 인덱스가 받는다.
+-- MySQL 은 같은 컬럼으로 시작하는 인덱스가 생기면 FK 용으로 자동 생성한 인덱스를 지운다.
+
+-- OrderRepository.findByMember: 회원의 주문 (최신순으로 읽을 때도 정렬 없이)
+CREATE INDEX idx_orders_member_date ON orders (member_id, order_date);
+
+-- OrderRepository.findByStatus: 상태별 주문 (같은 상태 안에서는 주문일 순)
+CREATE INDEX idx_orders_status_date ON orders (status, order_date);
+
+-- OrderRepository.findAllByOrderByOrderDateDesc: 최신 주문부터 정렬 없이
+CREATE INDEX idx_orders_order_date ON orders (order_date DESC);
+
+-- ProductVariantRepository.findByProductAndOption / findByProduct
+CREATE INDEX idx_variant_product_option ON product_variant (product_id, option_id);
+
+-- ProductImageRepository.findByProductOrderBySortOrder: 상품의 상세 이미지를 순서대로
+CREATE INDEX idx_image_product_sort ON product_image (product_id, sort_order);
+
+-- ProductImageRepository.updateWidths / renameImageUrl / findReferencedUrls: 경로로 찾기
+CREATE INDEX idx_image_url ON product_image (image_url);
+
+-- ProductRepository.updateThumbnailWidths / renameThumbnail / findReferencedThumbnails
+CREATE INDEX idx_product_thumbnail ON product (thumbnail_img);
+
+-- UploadSessionRepository.findExpiredIds: 오래된 세션부터
+CREATE INDEX idx_upload_session_created ON upload_session (created_at);
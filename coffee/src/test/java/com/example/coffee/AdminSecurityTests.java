@@ -0,0 +1,74 @@
+package com.example.coffee;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/admin/** 는 ADMIN 권한(HTTP Basic)이 있어야 하고, 나머지 /api/** 는 지금처럼 열려 있다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coffee-admin;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.security.user.password=secret"})
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class AdminSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousRequestsAreRejectedBeforeReachingTheController() throws Exception {
+        for (RequestBuilder request : adminRequests(request -> request)) {
+            mockMvc.perform(request).andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    void usersWithoutTheAdminRoleAreForbidden() throws Exception {
+        for (RequestBuilder request : adminRequests(user("member"))) {
+            mockMvc.perform(request).andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void configuredAdminAccountIsAccepted() throws Exception {
+        mockMvc.perform(get("/api/admin/cache/stats").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/cache/stats").with(httpBasic("admin", "secret")))
+                .andExpect(status().isOk());
+        // 관리자 외 API 는 그대로 인증 없이
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+    }
+
+    private static List<RequestBuilder> adminRequests(RequestPostProcessor auth) {
+        return List.of(
+                get("/api/admin/traces").with(auth),
+                get("/api/admin/traces/{id}", 1).with(auth),
+                delete("/api/admin/traces").with(auth),
+                get("/api/admin/cache/stats").with(auth),
+                post("/api/admin/cache/evict").with(auth),
+                post("/api/admin/uploads/migrate-layout").with(auth),
+                multipart("/api/admin/catalog/import").file(new MockMultipartFile(
+                        "file", "catalog.ndjson", "application/x-ndjson", "{}".getBytes(StandardCharsets.UTF_8)))
+                        .with(auth),
+                get("/api/admin/catalog/export").with(auth),
+                get("/api/admin/stock/low").with(auth),
+                get("/api/admin/stock/alerts").with(auth));
+    }
+}
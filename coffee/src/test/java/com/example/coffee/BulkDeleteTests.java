@@ -0,0 +1,167 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.BulkDeleteResponse;
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.entity.ProductVariant;
+import com.example.coffee.repository.OrderRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.ProductVariantRepository;
+import com.example.coffee.service.FileDeletionQueue;
+import com.example.coffee.service.LowStockIndex;
+import com.example.coffee.service.OrderService;
+import com.example.coffee.service.ProductService;
+import com.example.coffee.service.VariantPriceTable;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 상품 / 주문 일괄 삭제. 같은 수를 하나씩 지울 때보다 SQL 문이 적고 (수와 무관한 상수),
+ * 재고 반환 / 파일 삭제 예약 / 메모리 인덱스 정리는 하나씩 지울 때와 같다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-bulk;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class BulkDeleteTests {
+
+    private static final int PRODUCTS = 10;
+
+    @Autowired private ProductService productService;
+    @Autowired private OrderService orderService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private FileDeletionQueue fileDeletionQueue;
+    @Autowired private LowStockIndex lowStockIndex;
+    @Autowired private VariantPriceTable priceTable;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void bulkProductDeleteUsesConstantStatements() {
+        List<Long> single = importProducts("하나씩");
+        List<Long> bulk = importProducts("일괄");
+        List<Long> bulkVariants = variantRepository.findWithOptionByProductIds(bulk).stream()
+                .map(ProductVariant::getVariantId).toList();
+
+        long before = statistics.getPrepareStatementCount();
+        for (Long id : single) {
+            productService.deleteProduct(id);
+        }
+        long singleStatements = statistics.getPrepareStatementCount() - before;
+
+        int pending = fileDeletionQueue.pending();
+        before = statistics.getPrepareStatementCount();
+        BulkDeleteResponse response = productService.deleteProducts(bulk);
+        long bulkStatements = statistics.getPrepareStatementCount() - before;
+
+        // 주문 참조 확인 + 경로 조회 2 + DELETE 4 + upload_blob 조회 1 (기록 없는 경로라 바로 삭제 예약)
+        assertThat(bulkStatements).isLessThanOrEqualTo(8).isLessThan(singleStatements / PRODUCTS);
+        assertThat(response.getDeleted()).isEqualTo(PRODUCTS);
+        assertThat(response.getFilesScheduled()).isEqualTo(PRODUCTS * 3);
+        assertThat(fileDeletionQueue.pending() - pending).isEqualTo(PRODUCTS * 3);
+
+        assertThat(productRepository.findAllById(bulk)).isEmpty();
+        assertThat(variantRepository.findWithOptionByProductIds(bulk)).isEmpty();
+        VariantPriceTable.Snapshot table = priceTable.snapshot();
+        for (Long variantId : bulkVariants) {
+            assertThat(table.indexOf(variantId)).isEqualTo(-1);
+        }
+        assertThat(lowStockIndex.below(1, Integer.MAX_VALUE))
+                .noneMatch(entry -> bulk.contains(entry.getProductId()));
+    }
+
+    @Test
+    void orderedProductsAreRejectedWithoutDeletingAnything() {
+        Long fresh = importProducts("거절").get(0);
+
+        // 시드 상품 1 은 주문 품목이 참조한다
+        assertThatThrownBy(() -> productService.deleteProducts(List.of(fresh, 1L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("[1]");
+        assertThat(productRepository.existsById(fresh)).isTrue();
+
+        assertThatThrownBy(() -> productService.deleteProducts(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkOrderDeleteReleasesReservedStockOnly() {
+        // 시드 재고 (variant X 는 X x 7 mod 200): 101 -> 107, 102 -> 114
+        long pendingVariant = 101L;
+        long shippedVariant = 102L;
+        Long pending = orderService.createOrder(order(pendingVariant, 2)).getOrderId();
+        Long shipped = orderService.createOrder(order(shippedVariant, 3)).getOrderId();
+        orderService.updateOrderStatus(shipped, "SHIPPING");
+        int pendingStock = stock(pendingVariant);
+        int shippedStock = stock(shippedVariant);
+
+        long before = statistics.getPrepareStatementCount();
+        BulkDeleteResponse response = orderService.deleteOrders(List.of(pending, shipped, 999_999L, pending));
+        long statements = statistics.getPrepareStatementCount() - before;
+
+        // 수량 합계 + 잠금 조회 + 재고 update 배치 + DELETE 2
+        assertThat(statements).isLessThanOrEqualTo(5);
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getDeleted()).isEqualTo(2);
+        assertThat(orderRepository.existsById(pending)).isFalse();
+        assertThat(orderRepository.existsById(shipped)).isFalse();
+
+        // 출고 전 주문만 재고를 돌려놓는다
+        assertThat(stock(pendingVariant)).isEqualTo(pendingStock + 2);
+        assertThat(stock(shippedVariant)).isEqualTo(shippedStock);
+    }
+
+    /* 썸네일 1 + 상세 이미지 2 (upload_blob 에 없는 경로) + 옵션 2 (하나는 재고 0) */
+    private List<Long> importProducts(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = prefix + "-" + i;
+            ProductRequest request = ProductRequest.builder()
+                    .productName("일괄 삭제 원두 " + name)
+                    .basePrice(15000)
+                    .options(List.of(
+                            ProductRequest.OptionRequest.builder().optionValue("200g").extraPrice(0).stock(0).build(),
+                            ProductRequest.OptionRequest.builder().optionValue("1kg").extraPrice(16000).stock(30).build()))
+                    .build();
+            ids.add(productService.importProduct(request, "thumbnail/bulk-" + name + ".jpg",
+                    List.of("detail/bulk-" + name + "-1.jpg", "detail/bulk-" + name + "-2.jpg")));
+        }
+        return ids;
+    }
+
+    // 2차 캐시를 거치지 않고 DB 값
+    private int stock(long variantId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock FROM product_variant WHERE variant_id = ?", Integer.class, variantId);
+    }
+
+    private static OrderRequest order(Long variantId, int quantity) {
+        return OrderRequest.builder()
+                .memberId(5L)
+                .shippingAddress("서울특별시 중구 세종대로 110")
+                .items(List.of(OrderRequest.OrderItemRequest.builder().variantId(variantId).quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.service.ProductService;
+import com.example.coffee.storage.BlobStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 카탈로그 가져오기 / 내보내기. 행 단위 오류 보고, 청크 실패 시 한 행씩 재시도, ZIP 이미지,
+ * 내보낸 CSV 를 다시 가져오기(저장된 이미지 경로 재사용)를 확인한다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-catalog;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class CatalogTransferTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportsBadRowsAndImportsTheRest() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"productName\":\"가져오기 원두 A\",\"basePrice\":18000,\"options\":[{\"optionValue\":\"200g\",\"extraPrice\":0,\"stock\":5}]}",
+                "{\"basePrice\":1000}",
+                "not json",
+                "{\"productName\":\"가져오기 원두 B\",\"options\":[{\"optionValue\":\"1kg\",\"extraPrice\":0,\"stock\":1},{\"optionValue\":\"1kg\",\"extraPrice\":0,\"stock\":2}]}",
+                // 형식은 맞지만 저장되지 않은 경로: 청크가 실패하고 한 행씩 다시 등록된다
+                "{\"productName\":\"가져오기 원두 C\",\"thumbnail\":\"thumbnail/aa/bb/missing.jpg\"}",
+                "{\"productName\":\"가져오기 원두 D\",\"type\":\"내추럴\"}");
+
+        JsonNode dryRun = json(multipart("/api/admin/catalog/import")
+                .file(file("catalog.ndjson", ndjson)).param("dryRun", "true").with(admin()));
+        // 저장된 경로인지는 등록할 때 확인하므로 dry run 에서는 통과
+        assertThat(dryRun.get("imported").asInt()).isEqualTo(3);
+        assertThat(export("ndjson")).doesNotContain("가져오기 원두 A");
+
+        JsonNode result = json(multipart("/api/admin/catalog/import").file(file("catalog.ndjson", ndjson))
+                .with(admin()));
+        assertThat(result.get("format").asText()).isEqualTo("NDJSON");
+        assertThat(result.get("rows").asInt()).isEqualTo(6);
+        assertThat(result.get("imported").asInt()).isEqualTo(2);
+        assertThat(result.get("failed").asInt()).isEqualTo(4);
+        assertThat(result.get("errors").findValues("line")).extracting(JsonNode::asInt).containsExactly(2, 3, 4, 5);
+        assertThat(result.get("errors").get(2).get("message").asText()).contains("중복");
+
+        String exported = export("ndjson");
+        assertThat(exported).contains("가져오기 원두 A", "가져오기 원두 D").doesNotContain("가져오기 원두 C");
+        for (String line : exported.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.get("productName").asText().equals("가져오기 원두 A")) {
+                assertThat(row.get("options").get(0).get("stock").asInt()).isEqualTo(5);
+            }
+        }
+    }
+
+    @Test
+    void importsCsvWithZipImagesAndReimportsExport() throws Exception {
+        String csv = "productName,basePrice,continent,options,thumbnail,detailImages\n"
+                + "\"케냐 AA, 워시드\",21000,아프리카,200g:0:40|500g:9000:12,beans/kenya.png,beans/kenya.png|beans/kenya-2.png\n";
+        MockMultipartFile images = new MockMultipartFile("images", "images.zip", "application/zip",
+                zip("beans/kenya.png", "beans/kenya-2.png"));
+
+        JsonNode result = json(multipart("/api/admin/catalog/import").file(file("catalog.csv", csv)).file(images)
+                .with(admin()));
+        assertThat(result.get("imported").asInt()).isEqualTo(1);
+        assertThat(result.get("errors")).isEmpty();
+
+        String exported = export("csv");
+        String header = exported.substring(0, exported.indexOf('\n'));
+        String row = exported.lines().filter(l -> l.contains("케냐 AA")).findFirst().orElseThrow();
+        assertThat(row).contains("\"케냐 AA, 워시드\"", "200g:0:40|500g:9000:12", ",thumbnail/", "|detail/");
+
+        // 내보낸 행을 ZIP 없이 다시 가져오면 저장된 이미지를 그대로 참조한다
+        JsonNode again = json(multipart("/api/admin/catalog/import").file(file("again.csv", header + "\n" + row + "\n"))
+                .with(admin()));
+        assertThat(again.get("imported").asInt()).isEqualTo(1);
+        assertThat(export("csv").lines().filter(l -> l.contains("케냐 AA"))).hasSize(2);
+    }
+
+    @Test
+    void nullOptionIsReportedAsRowError() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"productName\":\"빈 옵션 원두\",\"options\":[null]}",
+                "{\"productName\":\"빈 옵션 다음 원두\",\"options\":[{\"optionValue\":\"200g\",\"extraPrice\":0,\"stock\":3}]}");
+
+        JsonNode result = json(multipart("/api/admin/catalog/import").file(file("catalog.ndjson", ndjson))
+                .with(admin()));
+        assertThat(result.get("imported").asInt()).isEqualTo(1);
+        assertThat(result.get("failed").asInt()).isEqualTo(1);
+        assertThat(result.get("errors").get(0).get("line").asInt()).isEqualTo(1);
+        assertThat(result.get("errors").get(0).get("message").asText()).contains("옵션");
+    }
+
+    @Test
+    void reimportAdoptsImagesStoredBeforeRefCounting() throws Exception {
+        // 참조 수 기록(upload_blob) 없이 저장돼 있던 UUID 경로의 이미지를 가진 상품
+        String thumbnail = "thumbnail/" + UUID.randomUUID() + ".jpg";
+        String detail = "detail/" + UUID.randomUUID() + ".jpg";
+        blobStore.put(thumbnail, new ByteArrayInputStream("예전 썸네일".getBytes(StandardCharsets.UTF_8)));
+        blobStore.put(detail, new ByteArrayInputStream("예전 상세".getBytes(StandardCharsets.UTF_8)));
+        Long original = productService.importProduct(ProductRequest.builder()
+                .productName("예전 이미지 원두").basePrice(17000).build(), thumbnail, List.of(detail));
+
+        String row = export("ndjson").lines().filter(l -> l.contains("예전 이미지 원두")).findFirst().orElseThrow();
+        JsonNode again = json(multipart("/api/admin/catalog/import").file(file("again.ndjson", row)).with(admin()));
+        assertThat(again.get("imported").asInt()).isEqualTo(1);
+        assertThat(again.get("errors")).isEmpty();
+
+        // 원래 상품 + 다시 가져온 상품
+        assertThat(refCount(thumbnail)).isEqualTo(2);
+        assertThat(refCount(detail)).isEqualTo(2);
+
+        // 원래 상품을 지워도 다시 가져온 상품이 쓰는 이미지는 남는다
+        productService.deleteProduct(original);
+        assertThat(refCount(thumbnail)).isEqualTo(1);
+        assertThat(refCount(detail)).isEqualTo(1);
+        assertThat(blobStore.exists(thumbnail)).isTrue();
+        assertThat(blobStore.exists(detail)).isTrue();
+    }
+
+    private int refCount(String path) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM upload_blob WHERE path = ?", Integer.class, path);
+    }
+
+    private String export(String format) throws Exception {
+        return mockMvc.perform(get("/api/admin/catalog/export").param("fileFormat", format).with(admin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] zip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write((name + " 이미지").getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    // /api/admin/** 는 ADMIN 권한이 필요하다
+    private static RequestPostProcessor admin() {
+        return user("admin").roles("ADMIN");
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.UploadSessionRequest;
+import com.example.coffee.service.ChunkedUploadService;
+import com.example.coffee.service.FileStorageService;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 분할 업로드. it 프로필의 조각 크기는 1024 bytes, 저장소는 메모리.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coffee-chunked;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.upload.chunked.max-size=4096"})
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class ChunkedUploadTests {
+
+    private static final int CHUNK = 1024;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void outOfOrderAndResentChunksAssembleTheFile() throws Exception {
+        byte[] content = content(2500, 1);
+        JsonNode session = create(content.length);
+        String uploadId = session.get("uploadId").asText();
+        assertThat(session.get("chunkSize").asInt()).isEqualTo(CHUNK);
+        assertThat(session.get("chunkCount").asInt()).isEqualTo(3);
+
+        // 마지막 조각부터, 첫 조각은 잘못된 내용을 보낸 뒤 다시 보낸다 (덮어쓰기)
+        putChunk(uploadId, 2, part(content, 2));
+        putChunk(uploadId, 0, content(CHUNK, 99));
+        putChunk(uploadId, 0, part(content, 0));
+
+        // 끊긴 뒤 이어 보내기: 받은 조각을 보고 빠진 조각의 위치(번호 x chunkSize)부터 보낸다
+        JsonNode resumed = json(get("/api/uploads/{id}", uploadId));
+        assertThat(resumed.get("receivedChunks")).extracting(JsonNode::asInt).containsExactly(0, 2);
+        putChunk(uploadId, 1, part(content, 1));
+
+        String token = json(post("/api/uploads/{id}/complete", uploadId)).get("token").asText();
+        String path = fileStorageService.claimStaged(token);
+        try (InputStream in = blobStore.open(path, 0, Long.MAX_VALUE)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+
+        // 완료한 세션과 조각은 남지 않는다
+        assertThat(chunks(uploadId)).isEmpty();
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/uploads/{id}", uploadId)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wrongSizedOrMissingChunksAreRejected() throws Exception {
+        byte[] content = content(2500, 2);
+        String uploadId = create(content.length).get("uploadId").asText();
+
+        // 조각 크기는 마지막 조각(452)만 작을 수 있다
+        assertThatThrownBy(() -> putChunk(uploadId, 0, content(CHUNK - 1, 3)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> putChunk(uploadId, 2, content(CHUNK, 3)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> putChunk(uploadId, 3, part(content, 2)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(json(get("/api/uploads/{id}", uploadId)).get("receivedChunks")).isEmpty();
+
+        putChunk(uploadId, 0, part(content, 0));
+        putChunk(uploadId, 2, part(content, 2));
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/uploads/{id}/complete", uploadId)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        // 완료에 실패해도 받은 조각은 그대로 남아 이어 보낼 수 있다
+        assertThat(json(get("/api/uploads/{id}", uploadId)).get("receivedChunks"))
+                .extracting(JsonNode::asInt).containsExactly(0, 2);
+
+        // 이미 받은 조각을 크기가 틀리게 다시 보내도 받은 조각은 남는다
+        assertThatThrownBy(() -> putChunk(uploadId, 0, content(CHUNK / 2, 5)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(json(get("/api/uploads/{id}", uploadId)).get("receivedChunks"))
+                .extracting(JsonNode::asInt).containsExactly(0, 2);
+        putChunk(uploadId, 1, part(content, 1));
+        String path = fileStorageService.claimStaged(
+                json(post("/api/uploads/{id}/complete", uploadId)).get("token").asText());
+        try (InputStream in = blobStore.open(path, 0, Long.MAX_VALUE)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void typeIsRequired() {
+        for (String type : new String[]{null, " ", "banner"}) {
+            UploadSessionRequest request = UploadSessionRequest.builder()
+                    .type(type).filename("beans.png").contentType("image/png").totalSize(100)
+                    .build();
+            assertThatThrownBy(() -> mockMvc.perform(post("/api/uploads").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request))))
+                    .as(String.valueOf(type))
+                    .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void sizeOutsideTheLimitIsRejected() throws Exception {
+        assertThat(create(4096).get("chunkCount").asInt()).isEqualTo(4);
+        assertThatThrownBy(() -> create(4097)).hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> create(0)).hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sweepRemovesOnlyExpiredSessionsWithTheirChunks() throws Exception {
+        byte[] content = content(1500, 4);
+        String expired = create(content.length).get("uploadId").asText();
+        String active = create(content.length).get("uploadId").asText();
+        putChunk(expired, 0, part(content, 0));
+        putChunk(active, 0, part(content, 0));
+
+        // ttl(기본 하루)보다 오래된 세션으로 만든다
+        jdbcTemplate.update("UPDATE upload_session SET created_at = DATEADD('DAY', -2, created_at) WHERE id = ?",
+                expired);
+        chunkedUploadService.sweepExpired();
+
+        assertThat(chunks(expired)).isEmpty();
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/uploads/{id}", expired)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(json(get("/api/uploads/{id}", active)).get("receivedChunks"))
+                .extracting(JsonNode::asInt).containsExactly(0);
+    }
+
+    private JsonNode create(long totalSize) throws Exception {
+        UploadSessionRequest request = UploadSessionRequest.builder()
+                .type("detail").filename("beans.png").contentType("image/png").totalSize(totalSize)
+                .build();
+        return json(post("/api/uploads").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private void putChunk(String uploadId, int index, byte[] bytes) throws Exception {
+        mockMvc.perform(put("/api/uploads/{id}/chunks/{index}", uploadId, index)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(bytes))
+                .andExpect(status().isOk());
+    }
+
+    private List<String> chunks(String uploadId) throws IOException {
+        try (Stream<BlobInfo> blobs = blobStore.list(".chunks/" + uploadId + "/")) {
+            return blobs.map(BlobInfo::key).toList();
+        }
+    }
+
+    private static byte[] part(byte[] content, int index) {
+        return Arrays.copyOfRange(content, index * CHUNK, Math.min(content.length, (index + 1) * CHUNK));
+    }
+
+    private static byte[] content(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.MemberRequest;
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.dto.UploadSessionRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * 엔드포인트별 SQL 실행 수 / 지연 시간 회귀 테스트.
+ *
+ * 시드 데이터(it-seed.sql)가 들어간 H2(MySQL 모드)에 모든 컨트롤러 엔드포인트를 호출하고,
+ * 요청마다 Hibernate 통계의 prepared statement 수와 쿼리 실행 수가 선언한 예산
+ * (고정 + 응답 행당)을 넘으면 실패한다. 목록 엔드포인트의 행당 예산이 N+1 회귀를 잡는다.
+ * 지연 시간은 target/endpoint-budget-report.csv 에 기록한다 (판정에는 쓰지 않음).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class EndpointQueryBudgetTests {
+
+    private static final Path REPORT = Paths.get("target", "endpoint-budget-report.csv");
+
+    // 조회 엔드포인트는 여러 번 호출해서 지연 시간 분포를 기록
+    private static final int READ_SAMPLES = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<String> report = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,status,rows,statements,queries,statement_budget,p50_ms,p95_ms,max_ms,samples");
+        lines.addAll(report);
+        Files.write(REPORT, lines, StandardCharsets.UTF_8);
+    }
+
+    /* =========================
+       회원
+       ========================= */
+    @Test
+    @Order(1)
+    void members() throws Exception {
+        read("GET /api/members", Budget.fixed(1), get("/api/members"));
+        read("GET /api/members/page", Budget.fixed(1), get("/api/members/page").param("size", "20"));
+        read("GET /api/members/page?cursor", Budget.fixed(1),
+                get("/api/members/page").param("cursor", "500").param("size", "100"));
+        // 메모리 인덱스에서만 찾는다
+        read("GET /api/members/search", Budget.fixed(0), get("/api/members/search").param("q", "member12"));
+        read("GET /api/members/{id}", Budget.fixed(1), get("/api/members/{id}", 7));
+
+        MemberRequest create = MemberRequest.builder()
+                .email("budget@example.com").password("pw").name("예산").phone("010-9999-0000").address("서울")
+                .build();
+        // 이메일 중복 확인 + insert
+        JsonNode created = write("POST /api/members", Budget.fixed(2),
+                post("/api/members").contentType(MediaType.APPLICATION_JSON).content(json(create)));
+        long memberId = created.get("memberId").asLong();
+
+        create.setEmail("budget2@example.com");
+        // 조회 + 이메일 중복 확인 + update
+        write("PUT /api/members/{id}", Budget.fixed(3),
+                put("/api/members/{id}", memberId).contentType(MediaType.APPLICATION_JSON).content(json(create)));
+        write("DELETE /api/members/{id}", Budget.fixed(2), delete("/api/members/{id}", memberId));
+    }
+
+    /* =========================
+       상품
+       ========================= */
+    @Test
+    @Order(2)
+    void products() throws Exception {
+        // 현재 상품마다 상세 이미지 / variant / 옵션을 따로 조회한다 (행당 3)
+        read("GET /api/products", Budget.perRow(1, 3), get("/api/products"));
+        // 고른 필드만: 상세 이미지 / 옵션을 고르지 않으면 상품 조회 하나
+        read("GET /api/products?fields", Budget.fixed(1),
+                get("/api/products").param("fields", "productId,productName,basePrice,thumbnailImg"));
+        read("GET /api/products?expand=options", Budget.perRow(1, 2), get("/api/products").param("expand", "options"));
+
+        // insert 상품 1 + (옵션 + variant) x 2 + 응답 조회 3
+        JsonNode created = write("POST /api/products", Budget.fixed(8),
+                productForm(multipart("/api/products"), "예산 테스트 원두", options(2)));
+        long productId = created.get("productId").asLong();
+
+        // 조회 1 + 옵션 조회 1 + (variant 조회/삭제) x 2 + 옵션 조회/삭제 3 + (옵션 + variant) x 2 + 응답 3 + update 1
+        write("PUT /api/products/{id}", Budget.fixed(17),
+                productForm(multipart(HttpMethod.PUT, "/api/products/{id}", productId), "예산 테스트 원두 (수정)", options(2)));
+
+        // 조회 + 이미지/옵션/variant 조회와 삭제 + 상세 이미지 컬렉션 초기화 + 상품 삭제
+        write("DELETE /api/products/{id}", Budget.fixed(14), delete("/api/products/{id}", productId));
+
+        // 상품 수와 무관: 주문 참조 확인 + 썸네일/상세 이미지 경로 조회 2 + DELETE 4 (variant → 옵션 → 이미지 → 상품).
+        // 이미지가 없으므로 upload_blob 은 건드리지 않는다
+        List<Long> bulk = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bulk.add(body(mockMvc.perform(productForm(multipart("/api/products"), "예산 일괄 삭제 " + i, options(2)))
+                    .andReturn()).get("productId").asLong());
+        }
+        write("POST /api/products/bulk-delete", Budget.fixed(7),
+                post("/api/products/bulk-delete").contentType(MediaType.APPLICATION_JSON).content(json(Map.of("ids", bulk))));
+
+        // 행마다 insert 상품 1 + (옵션 + variant) x 2, 한 트랜잭션에서 flush 때 배치로. 응답 조립 조회 없음
+        String catalog = "{\"productName\":\"예산 가져오기 1\",\"basePrice\":15000,\"options\":" + options(2) + "}\n"
+                + "{\"productName\":\"예산 가져오기 2\",\"basePrice\":15000,\"options\":" + options(2) + "}\n";
+        write("POST /api/admin/catalog/import", Budget.fixed(10),
+                multipart("/api/admin/catalog/import").file(new MockMultipartFile(
+                        "file", "catalog.ndjson", "application/x-ndjson", catalog.getBytes(StandardCharsets.UTF_8)))
+                        .with(admin()));
+        // 페이지(500개)마다 상품 / variant+옵션 / 상세 이미지 3 + 마지막 빈 페이지 1
+        read("GET /api/admin/catalog/export", Budget.fixed(4), get("/api/admin/catalog/export").with(admin()));
+    }
+
+    /* =========================
+       주문
+       ========================= */
+    @Test
+    @Order(3)
+    void orders() throws Exception {
+        // 회원은 fetch join, 주문마다 품목 조회 1
+        read("GET /api/orders", Budget.perRow(1, 1), get("/api/orders"));
+        // 주문 + 품목 + 회원(지연 로딩)
+        read("GET /api/orders/{id}", Budget.fixed(3), get("/api/orders/{id}", 10));
+        // 품목 / 회원을 고르지 않으면 주문 조회 하나
+        read("GET /api/orders?fields", Budget.fixed(1),
+                get("/api/orders").param("fields", "orderId,status,totalAmount,orderDate"));
+        read("GET /api/orders/{id}?expand=items", Budget.fixed(2),
+                get("/api/orders/{id}", 10).param("expand", "items"));
+
+        OrderRequest create = OrderRequest.builder()
+                .memberId(3L)
+                .shippingAddress("서울특별시 중구 세종대로 110")
+                .items(List.of(
+                        OrderRequest.OrderItemRequest.builder().variantId(1L).quantity(1).build(),
+                        OrderRequest.OrderItemRequest.builder().variantId(4L).quantity(2).build(),
+                        OrderRequest.OrderItemRequest.builder().variantId(7L).quantity(3).build()))
+                .build();
+        // 회원 + variant 한 번에 잠금 조회 + 주문 insert + 응답 품목 조회, 품목마다 insert + 재고 update
+        // (JDBC 배치로 묶이면 더 적다. 단가는 가격표에서 읽으므로 상품/옵션 조회 없음)
+        JsonNode created = write("POST /api/orders", Budget.perRow(4, 2),
+                post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(json(create)),
+                body -> body.get("items").size());
+        long orderId = created.get("orderId").asLong();
+
+        // 조회 + 품목 + 회원 + update
+        write("PATCH /api/orders/{id}/status", Budget.fixed(4),
+                patch("/api/orders/{id}/status", orderId).param("status", "PAID"));
+        // 일괄 삭제와 같은 경로: 반환할 수량 합계 + variant 잠금 조회 + 재고 update (품목 3개, 배치면 1) + DELETE 2
+        write("DELETE /api/orders/{id}", Budget.fixed(7), delete("/api/orders/{id}", orderId));
+
+        // 주문 수와 무관: 반환할 수량 합계 1 + variant 한 번에 잠금 조회 1 + 재고 update 배치 1 + DELETE 2 (품목 → 주문)
+        List<Long> bulk = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bulk.add(body(mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(json(create)))
+                    .andReturn()).get("orderId").asLong());
+        }
+        write("POST /api/orders/bulk-delete", Budget.fixed(5),
+                post("/api/orders/bulk-delete").contentType(MediaType.APPLICATION_JSON).content(json(Map.of("ids", bulk))));
+    }
+
+    /* =========================
+       업로드 / 이미지
+       ========================= */
+    @Test
+    @Order(4)
+    void uploads() throws Exception {
+        // 스테이징은 저장소만 사용
+        MockMultipartFile file = new MockMultipartFile("file", "detail.png", "image/png", bytes(2048));
+        write("POST /api/images", Budget.fixed(0), multipart("/api/images").file(file).param("type", "detail"));
+
+        // 분할 업로드: 세션 id 를 직접 지정하므로 save 가 merge (select + insert)
+        UploadSessionRequest session = UploadSessionRequest.builder()
+                .type("thumbnail").filename("large.jpg").contentType("image/jpeg").totalSize(2500)
+                .build();
+        JsonNode created = write("POST /api/uploads", Budget.fixed(2),
+                post("/api/uploads").contentType(MediaType.APPLICATION_JSON).content(json(session)));
+        String uploadId = created.get("uploadId").asText();
+        int chunkSize = created.get("chunkSize").asInt();
+
+        byte[] content = bytes(2500);
+        for (int i = 0; i * chunkSize < content.length; i++) {
+            byte[] chunk = Arrays.copyOfRange(content, i * chunkSize, Math.min(content.length, (i + 1) * chunkSize));
+            write("PUT /api/uploads/{id}/chunks/{index}", Budget.fixed(1),
+                    put("/api/uploads/{id}/chunks/{index}", uploadId, i)
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM).content(chunk));
+        }
+        read("GET /api/uploads/{id}", Budget.fixed(1), get("/api/uploads/{id}", uploadId));
+        // 세션 조회 + 삭제 (deleteById 가 다시 조회)
+        String token = write("POST /api/uploads/{id}/complete", Budget.fixed(3),
+                post("/api/uploads/{id}/complete", uploadId)).get("token").asText();
+
+        JsonNode other = write("POST /api/uploads", Budget.fixed(2),
+                post("/api/uploads").contentType(MediaType.APPLICATION_JSON).content(json(session)));
+        write("DELETE /api/uploads/{id}", Budget.fixed(3), delete("/api/uploads/{id}", other.get("uploadId").asText()));
+
+        // 토큰으로 상품 등록: upload_blob 참조 수 증가 + insert 상품 1 + (옵션 + variant) x 1 + 응답 조회 3
+        JsonNode product = write("POST /api/products (thumbnailToken)", Budget.fixed(7),
+                productForm(multipart("/api/products"), "썸네일 원두", options(1)).param("thumbnailToken", token));
+        String thumbnail = product.get("thumbnailImg").asText();
+
+        // 파일 서빙은 DB 를 쓰지 않는다
+        read("GET /uploads/**", Budget.fixed(0), get("/uploads/" + thumbnail).with(user("admin")));
+        read("GET /api/images/**", Budget.fixed(0), get("/api/images/" + thumbnail).param("size", "320"));
+        write("POST /api/admin/uploads/migrate-layout", Budget.fixed(0), post("/api/admin/uploads/migrate-layout")
+                .with(admin()));
+        // 캐시 통계는 Hibernate 통계에서 바로 읽는다
+        read("GET /api/admin/cache/stats", Budget.fixed(0), get("/api/admin/cache/stats").with(admin()));
+        read("GET /api/admin/traces", Budget.fixed(0), get("/api/admin/traces").with(admin()));
+        // 재고 부족 / 알림은 메모리 인덱스와 링 버퍼에서만 읽는다
+        read("GET /api/admin/stock/low", Budget.fixed(0), get("/api/admin/stock/low").param("below", "5")
+                .with(admin()));
+        read("GET /api/admin/stock/alerts", Budget.fixed(0), get("/api/admin/stock/alerts").with(admin()));
+    }
+
+    /* =========================
+       측정
+       ========================= */
+
+    /* 조회: 통계는 첫 호출로 판정하고, 지연 시간은 READ_SAMPLES 번 호출해서 기록 */
+    private JsonNode read(String name, Budget budget, RequestBuilder request) throws Exception {
+        return measure(name, budget, request, EndpointQueryBudgetTests::rowsOf, READ_SAMPLES);
+    }
+
+    private JsonNode write(String name, Budget budget, RequestBuilder request) throws Exception {
+        return measure(name, budget, request, EndpointQueryBudgetTests::rowsOf, 1);
+    }
+
+    private JsonNode write(String name, Budget budget, RequestBuilder request, RowCounter rows) throws Exception {
+        return measure(name, budget, request, rows, 1);
+    }
+
+    private JsonNode measure(String name, Budget budget, RequestBuilder request, RowCounter rowCounter,
+                             int samples) throws Exception {
+        statistics.clear();
+        long started = System.nanoTime();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        long[] latencies = new long[samples];
+        latencies[0] = System.nanoTime() - started;
+
+        long statements = statistics.getPrepareStatementCount();
+        long queries = statistics.getQueryExecutionCount();
+        int status = result.getResponse().getStatus();
+
+        String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        JsonNode body = content.isEmpty() || !isJson(result)
+                ? objectMapper.nullNode()
+                : objectMapper.readTree(content);
+        int rows = rowCounter.count(body);
+        long limit = budget.limit(rows);
+
+        for (int i = 1; i < samples; i++) {
+            long t = System.nanoTime();
+            mockMvc.perform(request).andReturn();
+            latencies[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(latencies);
+        report.add(String.join(",",
+                "\"" + name + "\"",
+                String.valueOf(status),
+                String.valueOf(rows),
+                String.valueOf(statements),
+                String.valueOf(queries),
+                String.valueOf(limit),
+                millis(latencies[(samples - 1) / 2]),
+                millis(latencies[(int) Math.ceil(samples * 0.95) - 1]),
+                millis(latencies[samples - 1]),
+                String.valueOf(samples)));
+
+        assertThat(status).as("%s status", name).isBetween(200, 299);
+        assertThat(queries)
+                .as("%s: 쿼리 %d 회 (응답 %d 행, 예산 %s)", name, queries, rows, budget)
+                .isLessThanOrEqualTo(limit);
+        assertThat(statements)
+                .as("%s: SQL %d 회 (응답 %d 행, 예산 %s)", name, statements, rows, budget)
+                .isLessThanOrEqualTo(limit);
+        return body;
+    }
+
+    private JsonNode body(MvcResult result) throws IOException {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private static int rowsOf(JsonNode body) {
+        if (body == null || body.isNull() || body.isMissingNode()) return 0;
+        if (body.isArray()) return body.size();
+        if (body.has("members")) return body.get("members").size();
+        return 1;
+    }
+
+    private static boolean isJson(MvcResult result) {
+        String type = result.getResponse().getContentType();
+        return type != null && type.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private String options(int count) throws IOException {
+        List<ProductRequest.OptionRequest> options = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            options.add(ProductRequest.OptionRequest.builder()
+                    .optionValue((i + 1) * 200 + "g").extraPrice(i * 5000).stock(50)
+                    .build());
+        }
+        return json(options);
+    }
+
+    private static org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder productForm(
+            org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder builder,
+            String name, String optionsJson) {
+        builder.param("productName", name)
+                .param("basePrice", "15000")
+                .param("type", "워시드")
+                .param("continent", "아프리카")
+                .param("nationality", "에티오피아")
+                .param("options", optionsJson);
+        return builder;
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    @FunctionalInterface
+    private interface RowCounter {
+        int count(JsonNode body);
+    }
+
+    /**
+     * 요청당 SQL 예산: base + perRow x 응답 행 수.
+     */
+    private record Budget(int base, int perRow) {
+
+        static Budget fixed(int statements) {
+            return new Budget(statements, 0);
+        }
+
+        static Budget perRow(int base, int perRow) {
+            return new Budget(base, perRow);
+        }
+
+        long limit(int rows) {
+            return base + (long) perRow * rows;
+        }
+
+        @Override
+        public String toString() {
+            return perRow == 0 ? String.valueOf(base) : base + " + " + perRow + "/행";
+        }
+    }
+
+    // /api/admin/** 는 ADMIN 권한이 필요하다
+    private static RequestPostProcessor admin() {
+        return user("admin").roles("ADMIN");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.BulkDeleteResponse;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.service.FileDeletionQueue;
+import com.example.coffee.service.FileStorageService;
+import com.example.coffee.service.ProductService;
+import com.example.coffee.storage.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 내용의 업로드는 파일 하나를 upload_blob.ref_count 로 나눠 쓴다.
+ * 마지막 참조가 지워질 때만 삭제 큐에 들어가고, 롤백된 트랜잭션은 참조 수를 바꾸지 않는다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-refcount;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class FileRefCountTests {
+
+    @Autowired private ProductService productService;
+    @Autowired private FileStorageService fileStorageService;
+    @Autowired private FileDeletionQueue fileDeletionQueue;
+    @Autowired private BlobStore blobStore;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sharedBlobSurvivesUntilTheLastReferenceIsDeleted() throws IOException {
+        Long first = create("공유", "shared");
+        Long second = create("공유", "shared");
+        String path = thumbnail(first);
+        assertThat(thumbnail(second)).isEqualTo(path);
+        assertThat(refCount(path)).isEqualTo(2);
+
+        int pending = fileDeletionQueue.pending();
+        productService.deleteProduct(first);
+        assertThat(refCount(path)).isEqualTo(1);
+        assertThat(fileDeletionQueue.pending()).isEqualTo(pending);
+        fileDeletionQueue.drain();
+        assertThat(blobStore.exists(path)).isTrue();
+
+        productService.deleteProduct(second);
+        assertThat(refCount(path)).isNull();
+        assertThat(fileDeletionQueue.pending()).isEqualTo(pending + 1);
+        fileDeletionQueue.drain();
+        assertThat(blobStore.exists(path)).isFalse();
+    }
+
+    @Test
+    void bulkDeleteReleasesOneReferencePerProduct() throws IOException {
+        Long a = create("일괄", "bulk");
+        Long b = create("일괄", "bulk");
+        Long c = create("일괄", "bulk");
+        String path = thumbnail(a);
+        assertThat(refCount(path)).isEqualTo(3);
+
+        // 같은 경로가 두 번 오면 두 번 줄인다
+        BulkDeleteResponse partial = productService.deleteProducts(List.of(a, b));
+        assertThat(partial.getFilesScheduled()).isZero();
+        assertThat(refCount(path)).isEqualTo(1);
+        fileDeletionQueue.drain();
+        assertThat(blobStore.exists(path)).isTrue();
+
+        int pending = fileDeletionQueue.pending();
+        BulkDeleteResponse last = productService.deleteProducts(List.of(c));
+        assertThat(last.getFilesScheduled()).isEqualTo(1);
+        assertThat(refCount(path)).isNull();
+        assertThat(fileDeletionQueue.pending()).isEqualTo(pending + 1);
+        fileDeletionQueue.drain();
+        assertThat(blobStore.exists(path)).isFalse();
+    }
+
+    @Test
+    void rolledBackChangesLeaveCountsUnchanged() throws IOException {
+        Long first = create("롤백", "rollback");
+        create("롤백", "rollback");
+        String path = thumbnail(first);
+        String token = stage("rollback");
+        int pending = fileDeletionQueue.pending();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(fileStorageService.claimStaged(token)).isEqualTo(path);
+            assertThat(fileStorageService.deleteFile(path)).isFalse();
+            // 참조를 모두 놓으면 행이 지워지고 삭제 예약 (커밋되면)
+            assertThat(fileStorageService.deleteFiles(List.of(path, path))).isEqualTo(1);
+            assertThat(refCount(path)).isNull();
+            status.setRollbackOnly();
+        });
+
+        assertThat(refCount(path)).isEqualTo(2);
+        assertThat(fileDeletionQueue.pending()).isEqualTo(pending);
+        fileDeletionQueue.drain();
+        assertThat(blobStore.exists(path)).isTrue();
+    }
+
+    /* 같은 content 면 같은 경로로 확정된다 */
+    private Long create(String name, String content) throws IOException {
+        ProductRequest request = ProductRequest.builder()
+                .productName("참조 수 원두 " + name)
+                .basePrice(15000)
+                .thumbnailToken(stage(content))
+                .options(List.of(
+                        ProductRequest.OptionRequest.builder().optionValue("200g").extraPrice(0).stock(10).build()))
+                .build();
+        return productService.createProduct(request).getProductId();
+    }
+
+    private String stage(String content) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(("참조 수 " + content).getBytes(StandardCharsets.UTF_8))) {
+            return fileStorageService.stageStream(in, "thumbnail", ".png");
+        }
+    }
+
+    // 2차 캐시를 거치지 않고 DB 값
+    private String thumbnail(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT thumbnail_img FROM product WHERE product_id = ?", String.class, productId);
+    }
+
+    private Integer refCount(String path) {
+        List<Integer> counts = jdbcTemplate.queryForList(
+                "SELECT ref_count FROM upload_blob WHERE path = ?", Integer.class, path);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+}
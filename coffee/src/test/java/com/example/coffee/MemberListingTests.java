@@ -0,0 +1,135 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.MemberPageResponse;
+import com.example.coffee.dto.MemberRequest;
+import com.example.coffee.dto.MemberResponse;
+import com.example.coffee.dto.MemberSearchResponse;
+import com.example.coffee.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 목록 / 키셋 페이지 / 검색 트라이. 시드 회원은 1 ~ 1000 (member{X}@example.com, 회원{X}).
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-members;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class MemberListingTests {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void listKeepsAscendingIdOrder() {
+        List<MemberResponse> members = memberService.getAllMembers();
+
+        assertThat(members).hasSizeGreaterThanOrEqualTo(1000);
+        assertThat(members.get(0).getMemberId()).isEqualTo(1L);
+        assertThat(members).extracting(MemberResponse::getMemberId).isSorted();
+    }
+
+    @Test
+    void keysetPagesEndExactlyAtTheLastRow() {
+        // 남은 행이 페이지 크기와 같으면 다음 페이지가 없다
+        MemberPageResponse last = memberService.getMemberPage(21L, 20);
+        assertThat(last.getMembers()).extracting(MemberResponse::getMemberId).startsWith(20L).endsWith(1L);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+
+        // 한 행 더 있으면 다음 페이지가 있고, cursor 는 이 페이지의 마지막 id
+        MemberPageResponse full = memberService.getMemberPage(22L, 20);
+        assertThat(full.getMembers()).hasSize(20);
+        assertThat(full.isHasNext()).isTrue();
+        assertThat(full.getNextCursor()).isEqualTo(2L);
+        MemberPageResponse rest = memberService.getMemberPage(full.getNextCursor(), 20);
+        assertThat(rest.getMembers()).extracting(MemberResponse::getMemberId).containsExactly(1L);
+        assertThat(rest.isHasNext()).isFalse();
+
+        // 첫 id 보다 앞이면 빈 페이지
+        MemberPageResponse empty = memberService.getMemberPage(1L, 20);
+        assertThat(empty.getMembers()).isEmpty();
+        assertThat(empty.isHasNext()).isFalse();
+        assertThat(empty.getNextCursor()).isNull();
+    }
+
+    @Test
+    void keysetPagesCoverEveryMemberOnceAndClampSize() {
+        assertThat(memberService.getMemberPage(500L, 0).getMembers()).hasSize(1);
+        assertThat(memberService.getMemberPage(500L, 1000).getMembers()).hasSize(100);
+
+        Set<Long> seen = new HashSet<>();
+        List<Long> order = new ArrayList<>();
+        Long cursor = 1001L;
+        MemberPageResponse page;
+        do {
+            page = memberService.getMemberPage(cursor, 100);
+            for (MemberResponse member : page.getMembers()) {
+                assertThat(seen.add(member.getMemberId())).isTrue();
+                order.add(member.getMemberId());
+            }
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertThat(seen).hasSize(1000);
+        assertThat(order).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void searchFollowsCommittedChangesOnly() {
+        MemberResponse created = memberService.createMember(request("trie-a@example.com", "검색 테스트", "010-5555-0001"));
+        Long id = created.getMemberId();
+        assertThat(ids(memberService.searchMembers("trie-a", 10))).containsExactly(id);
+        assertThat(ids(memberService.searchMembers("테스트", 10))).contains(id);
+        assertThat(ids(memberService.searchMembers("0105555", 10))).contains(id);
+
+        // 수정: 옛 키로는 더 이상 찾지 않는다
+        memberService.updateMember(id, request("trie-b@example.com", "이름 바뀜", "010-5555-0002"));
+        assertThat(memberService.searchMembers("trie-a", 10)).isEmpty();
+        assertThat(ids(memberService.searchMembers("trie-b", 10))).containsExactly(id);
+        assertThat(ids(memberService.searchMembers("바뀜", 10))).contains(id);
+        assertThat(ids(memberService.searchMembers("테스트", 10))).doesNotContain(id);
+
+        // 롤백된 생성 / 수정 / 삭제는 반영하지 않는다
+        transactionTemplate.executeWithoutResult(status -> {
+            memberService.createMember(request("trie-rollback@example.com", "롤백 회원", null));
+            memberService.updateMember(id, request("trie-c@example.com", "롤백 이름", null));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            memberService.deleteMember(id);
+            status.setRollbackOnly();
+        });
+        assertThat(memberService.searchMembers("trie-rollback", 10)).isEmpty();
+        assertThat(memberService.searchMembers("trie-c", 10)).isEmpty();
+        assertThat(ids(memberService.searchMembers("trie-b", 10))).containsExactly(id);
+
+        // 삭제: 모든 키에서 빠진다
+        memberService.deleteMember(id);
+        assertThat(memberService.searchMembers("trie-b", 10)).isEmpty();
+        assertThat(ids(memberService.searchMembers("바뀜", 10))).doesNotContain(id);
+        assertThat(ids(memberService.searchMembers("0105555", 10))).doesNotContain(id);
+    }
+
+    private static List<Long> ids(List<MemberSearchResponse> entries) {
+        return entries.stream().map(MemberSearchResponse::getMemberId).toList();
+    }
+
+    private static MemberRequest request(String email, String name, String phone) {
+        return MemberRequest.builder()
+                .email(email).password("password").name(name).phone(phone).address("서울특별시 중구")
+                .build();
+    }
+}
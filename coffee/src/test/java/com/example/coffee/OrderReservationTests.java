@@ -0,0 +1,115 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 주문 재고 예약 / 반환. 재고는 출고 전(PENDING / PAID) 주문만 잡고 있어서 생성 / 취소 되돌리기에서 예약하고,
+ * 출고 전 주문의 취소 / 삭제에서만 돌려놓는다. 시드 재고는 variant X 마다 X x 7 mod 200.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-reservation;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class OrderReservationTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reserveFailsWithoutTouchingStock() {
+        // variant 150: 재고 50, variant 151: 57
+        Long orderId = orderService.createOrder(order(3, 150L, 151L)).getOrderId();
+        assertThat(stock(150L)).isEqualTo(47);
+        assertThat(stock(151L)).isEqualTo(54);
+
+        // 한 품목이라도 모자라면 주문 전체가 롤백된다
+        assertThatThrownBy(() -> orderService.createOrder(order(50, 150L, 151L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stock(150L)).isEqualTo(47);
+        assertThat(stock(151L)).isEqualTo(54);
+
+        assertThatThrownBy(() -> orderService.createOrder(order(1, 999_999L)))
+                .isInstanceOf(RuntimeException.class);
+
+        orderService.deleteOrder(orderId);
+        assertThat(stock(150L)).isEqualTo(50);
+        assertThat(stock(151L)).isEqualTo(57);
+    }
+
+    @Test
+    void cancelAndUncancelBeforeShipping() {
+        // variant 152: 재고 64
+        Long orderId = orderService.createOrder(order(4, 152L)).getOrderId();
+        orderService.updateOrderStatus(orderId, "PAID");
+        assertThat(stock(152L)).isEqualTo(60);
+
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+        assertThat(stock(152L)).isEqualTo(64);
+        // 이미 취소된 주문을 다시 취소해도 두 번 돌려놓지 않는다
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+        assertThat(stock(152L)).isEqualTo(64);
+
+        orderService.updateOrderStatus(orderId, "PENDING");
+        assertThat(stock(152L)).isEqualTo(60);
+
+        // 취소된 주문은 삭제해도 재고가 그대로
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+        orderService.deleteOrder(orderId);
+        assertThat(stock(152L)).isEqualTo(64);
+    }
+
+    @Test
+    void shippedOrdersKeepTheirStock() {
+        // variant 153: 재고 71, 154: 78
+        Long cancelled = orderService.createOrder(order(5, 153L)).getOrderId();
+        orderService.updateOrderStatus(cancelled, "SHIPPING");
+        orderService.updateOrderStatus(cancelled, "CANCELLED");
+        assertThat(stock(153L)).isEqualTo(66);
+
+        // 출고 상태로 바로 되돌릴 수는 없고, 출고 전 상태로 되돌리면 다시 예약한다
+        assertThatThrownBy(() -> orderService.updateOrderStatus(cancelled, "SHIPPING"))
+                .isInstanceOf(IllegalArgumentException.class);
+        orderService.updateOrderStatus(cancelled, "PENDING");
+        assertThat(stock(153L)).isEqualTo(61);
+
+        Long completed = orderService.createOrder(order(6, 154L)).getOrderId();
+        orderService.updateOrderStatus(completed, "COMPLETED");
+        orderService.deleteOrder(completed);
+        assertThat(stock(154L)).isEqualTo(72);
+
+        assertThatThrownBy(() -> orderService.deleteOrder(completed))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    // 2차 캐시를 거치지 않고 DB 값
+    private int stock(long variantId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock FROM product_variant WHERE variant_id = ?", Integer.class, variantId);
+    }
+
+    private static OrderRequest order(int quantity, Long... variantIds) {
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Long variantId : variantIds) {
+            items.add(OrderRequest.OrderItemRequest.builder().variantId(variantId).quantity(quantity).build());
+        }
+        return OrderRequest.builder()
+                .memberId(7L)
+                .shippingAddress("서울특별시 중구 세종대로 110")
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.coffee;
+
+import com.example.coffee.entity.Member;
+import com.example.coffee.entity.OrderStatus;
+import com.example.coffee.entity.Product;
+import com.example.coffee.entity.ProductOption;
+import com.example.coffee.repository.*;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리포지토리 쿼리 실행 계획 회귀 테스트.
+ *
+ * Flyway 마이그레이션으로 만든 스키마에 시드 데이터(it-seed.sql)를 넣고, 리포지토리의 쿼리 메서드를 하나씩
+ * 실행해 Hibernate 가 보낸 SQL 을 모은 뒤 같은 SQL 을 EXPLAIN 한다. 어느 테이블이든 전체 스캔(H2 의 tableScan)이
+ * 있으면 실패한다. 실행은 롤백되는 트랜잭션 안에서 하므로 시드 데이터는 바뀌지 않는다.
+ * 리포지토리에 쿼리 메서드를 추가했는데 여기 경우가 없으면 everyQueryMethodIsChecked 가 실패한다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-plan;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class QueryPlanTests {
+
+    private static final SqlRecorder RECORDER = new SqlRecorder();
+
+    // 전체 스캔이 정상이거나 EXPLAIN 대상이 아닌 메서드
+    private static final Map<String, String> NOT_CHECKED = Map.of(
+            "MemberRepository.findAllResponses", "회원 전체 목록 (모든 행을 읽는다)",
+            "OrderRepository.findAllWithMember", "주문 전체 목록 + 회원 (모든 행을 읽는다)",
+            "UploadBlobRepository.acquire", "PK 로 INSERT ... ON DUPLICATE KEY UPDATE",
+            "UploadBlobRepository.adopt", "PK 로 INSERT ... ON DUPLICATE KEY UPDATE");
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            MemberRepository.class, OrderRepository.class, OrderItemRepository.class,
+            ProductRepository.class, ProductOptionRepository.class, ProductVariantRepository.class,
+            ProductImageRepository.class, UploadBlobRepository.class, UploadSessionRepository.class);
+
+    @TestConfiguration
+    static class RecorderConfig {
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, RECORDER);
+        }
+    }
+
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductOptionRepository optionRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private ProductImageRepository imageRepository;
+    @Autowired private UploadBlobRepository uploadBlobRepository;
+    @Autowired private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final Set<String> checked = new HashSet<>();
+
+    /* =========================
+       회원
+       ========================= */
+    @Test
+    @Order(1)
+    void members() throws SQLException {
+        check("MemberRepository.findByEmail", () -> memberRepository.findByEmail("member7@example.com"));
+        check("MemberRepository.existsByEmail", () -> memberRepository.existsByEmail("member8@example.com"));
+        check("MemberRepository.findResponsesBefore",
+                () -> memberRepository.findResponsesBefore(500L, PageRequest.of(0, 20)));
+        check("MemberRepository.findSearchEntriesAfter",
+                () -> memberRepository.findSearchEntriesAfter(500L, PageRequest.of(0, 20)));
+    }
+
+    /* =========================
+       주문
+       ========================= */
+    @Test
+    @Order(2)
+    void orders() throws SQLException {
+        check("OrderRepository.findByMember", () -> orderRepository.findByMember(member(7)));
+        check("OrderRepository.findByStatus", () -> orderRepository.findByStatus(OrderStatus.PAID));
+        check("OrderRepository.findAllByOrderByOrderDateDesc", () -> orderRepository.findAllByOrderByOrderDateDesc());
+
+        check("OrderItemRepository.findByOrder", () -> orderItemRepository.findByOrder(order(10)));
+        check("OrderItemRepository.findByOrderWithDetails", () -> orderItemRepository.findByOrderWithDetails(order(11)));
+        // 파생 delete 는 조회 후 엔티티마다 삭제한다. flush 하지 않으므로 조회만 확인된다 (삭제는 PK)
+        check("OrderItemRepository.deleteByOrder", () -> orderItemRepository.deleteByOrder(order(12)));
+        check("OrderItemRepository.sumQuantities",
+                () -> orderItemRepository.sumQuantities(List.of(14L, 15L), List.of(OrderStatus.PENDING, OrderStatus.PAID)));
+        check("OrderItemRepository.deleteByOrderIds", () -> orderItemRepository.deleteByOrderIds(List.of(16L, 17L)));
+        // 품목이 남은 주문은 외래 키로 실패하므로 없는 id (계획만 본다)
+        check("OrderRepository.deleteByIds", () -> orderRepository.deleteByIds(List.of(999_998L, 999_999L)));
+    }
+
+    /* =========================
+       상품
+       ========================= */
+    @Test
+    @Order(3)
+    void products() throws SQLException {
+        check("ProductRepository.updateThumbnailWidths",
+                () -> productRepository.updateThumbnailWidths("thumbnail/seed-1.jpg", "320"));
+        check("ProductRepository.renameThumbnail",
+                () -> productRepository.renameThumbnail("thumbnail/seed-2.jpg", "thumbnail/renamed.jpg"));
+        check("ProductRepository.findReferencedThumbnails",
+                () -> productRepository.findReferencedThumbnails(List.of("thumbnail/seed-3.jpg", "thumbnail/none.jpg")));
+        check("ProductRepository.findPageAfter", () -> productRepository.findPageAfter(100L, PageRequest.of(0, 50)));
+        check("ProductRepository.findThumbnailsByIds", () -> productRepository.findThumbnailsByIds(List.of(15L, 16L)));
+
+        // 일괄 삭제: 시드 상품은 모두 주문 품목이 참조해서 외래 키로 실패하므로 없는 id (계획만 본다)
+        List<Long> missing = List.of(999_998L, 999_999L);
+        check("ProductRepository.deleteByIds", () -> productRepository.deleteByIds(missing));
+        check("ProductOptionRepository.deleteByProductIds", () -> optionRepository.deleteByProductIds(missing));
+        check("ProductVariantRepository.deleteByProductIds", () -> variantRepository.deleteByProductIds(missing));
+        check("ProductImageRepository.deleteByProductIds", () -> imageRepository.deleteByProductIds(missing));
+
+        check("ProductOptionRepository.findByProduct", () -> optionRepository.findByProduct(product(4)));
+        check("ProductOptionRepository.deleteByProduct", () -> optionRepository.deleteByProduct(product(5)));
+
+        // 상품 6 의 옵션은 16, 17, 18
+        check("ProductVariantRepository.findByProductAndOption",
+                () -> variantRepository.findByProductAndOption(product(6), option(16)));
+        check("ProductVariantRepository.findByProduct", () -> variantRepository.findByProduct(product(7)));
+        check("ProductVariantRepository.deleteByOption", () -> variantRepository.deleteByOption(option(25)));
+        check("ProductVariantRepository.findAllForReservation",
+                () -> variantRepository.findAllForReservation(List.of(31L, 32L)));
+        check("ProductVariantRepository.findOrderedProductIds",
+                () -> variantRepository.findOrderedProductIds(List.of(17L, 18L)));
+        check("ProductVariantRepository.findStockEntriesAfter",
+                () -> variantRepository.findStockEntriesAfter(500L, PageRequest.of(0, 20)));
+        check("ProductVariantRepository.findPriceRowsAfter",
+                () -> variantRepository.findPriceRowsAfter(500L, PageRequest.of(0, 20)));
+        check("ProductVariantRepository.findWithOptionByProductIds",
+                () -> variantRepository.findWithOptionByProductIds(List.of(10L, 11L, 12L)));
+
+        check("ProductImageRepository.findByProductOrderBySortOrder",
+                () -> imageRepository.findByProductOrderBySortOrder(product(8)));
+        check("ProductImageRepository.deleteByProduct", () -> imageRepository.deleteByProduct(product(9)));
+        check("ProductImageRepository.updateWidths", () -> imageRepository.updateWidths("detail/seed-1.jpg", "320"));
+        check("ProductImageRepository.renameImageUrl",
+                () -> imageRepository.renameImageUrl("detail/seed-2.jpg", "detail/renamed.jpg"));
+        check("ProductImageRepository.findReferencedUrls",
+                () -> imageRepository.findReferencedUrls(List.of("detail/seed-3.jpg", "detail/none.jpg")));
+        check("ProductImageRepository.findByProductIds", () -> imageRepository.findByProductIds(List.of(13L, 14L)));
+        check("ProductImageRepository.findUrlsByProductIds",
+                () -> imageRepository.findUrlsByProductIds(List.of(19L, 20L)));
+    }
+
+    /* =========================
+       업로드
+       ========================= */
+    @Test
+    @Order(4)
+    void uploads() throws SQLException {
+        check("UploadBlobRepository.renamePath", () -> uploadBlobRepository.renamePath("detail/a.jpg", "detail/b.jpg"));
+        check("UploadBlobRepository.findExistingPaths",
+                () -> uploadBlobRepository.findExistingPaths(List.of("detail/a.jpg", "detail/b.jpg")));
+        check("UploadBlobRepository.retain", () -> uploadBlobRepository.retain("detail/a.jpg"));
+        check("UploadBlobRepository.findLockedByPath", () -> uploadBlobRepository.findLockedByPath("detail/a.jpg"));
+        check("UploadBlobRepository.release", () -> uploadBlobRepository.release("detail/a.jpg"));
+        check("UploadBlobRepository.deleteIfUnreferenced", () -> uploadBlobRepository.deleteIfUnreferenced("detail/a.jpg"));
+        List<String> paths = List.of("detail/a.jpg", "detail/b.jpg");
+        check("UploadBlobRepository.releaseAll", () -> uploadBlobRepository.releaseAll(paths, 2));
+        check("UploadBlobRepository.findUnreferencedPaths", () -> uploadBlobRepository.findUnreferencedPaths(paths));
+        check("UploadBlobRepository.deleteUnreferenced", () -> uploadBlobRepository.deleteUnreferenced(paths));
+
+        check("UploadSessionRepository.findExpiredIds",
+                () -> uploadSessionRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, 100)));
+    }
+
+    @Test
+    @Order(5)
+    void everyQueryMethodIsChecked() {
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!method.isSynthetic() && !checked.contains(name) && !NOT_CHECKED.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        assertThat(missing).as("EXPLAIN 확인이 없는 리포지토리 메서드").isEmpty();
+    }
+
+    /* 쿼리를 롤백되는 트랜잭션에서 실행하고, 실행된 SQL 마다 EXPLAIN 해서 전체 스캔이 없는지 본다 */
+    private void check(String name, Runnable query) throws SQLException {
+        RECORDER.statements.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        List<String> statements = List.copyOf(RECORDER.statements);
+        assertThat(statements).as(name + " 가 SQL 을 실행하지 않음").isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan).as(name + " 의 실행 계획에 전체 스캔이 있음\n" + plan).doesNotContainIgnoringCase("tableScan");
+        }
+        checked.add(name);
+    }
+
+    /* 파라미터는 값과 무관하게 계획만 보도록 컬럼 타입에 맞는 아무 값으로 채운다.
+       H2 는 타입을 모르는 파라미터(LIMIT 등)를 VARCHAR 로 알려 주므로 숫자로도 바뀌는 "1" 을 쓴다 */
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                switch (parameters.getParameterType(i)) {
+                    case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR -> statement.setString(i, "1");
+                    case Types.TIMESTAMP, Types.DATE -> statement.setTimestamp(i, Timestamp.valueOf("2025-01-01 00:00:00"));
+                    default -> statement.setLong(i, 1);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private Member member(long id) {
+        return memberRepository.getReferenceById(id);
+    }
+
+    private com.example.coffee.entity.Order order(long id) {
+        return orderRepository.getReferenceById(id);
+    }
+
+    private Product product(long id) {
+        return productRepository.getReferenceById(id);
+    }
+
+    private ProductOption option(long id) {
+        return optionRepository.getReferenceById(id);
+    }
+
+    /* Hibernate 가 실행하는 SQL (파라미터는 ? 그대로) */
+    static class SqlRecorder implements StatementInspector {
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.coffee;
+
+import com.example.coffee.config.ReplicaRoutingDataSource;
+import com.example.coffee.dto.MemberRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 읽기 복제본 라우팅. primary 와 복제본을 서로 다른 H2 DB 로 띄우고
+ * 1번 회원의 이름이 어느 쪽 값으로 나오는지로 라우팅을 확인한다 (application-replica.properties).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"it", "replica"})
+class ReadReplicaRoutingTests {
+
+    private static final String STICKY_COOKIE = "rw-primary-until";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Test
+    void readOnlyTransactionsGoToReplica() throws Exception {
+        mockMvc.perform(get("/api/members/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("replica-copy"));
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() throws Exception {
+        // 라운드로빈이라 두 번 이상 읽으면 연결할 수 없는 복제본도 한 번은 차례가 온다
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/members/{id}", 1))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("replica-copy"));
+        }
+        assertThat(replicaRoutingDataSource.availableReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void readsAfterWriteStickToPrimary() throws Exception {
+        MemberRequest request = MemberRequest.builder()
+                .email("member1@example.com").password("password").name("updated-on-primary")
+                .build();
+        MvcResult written = mockMvc.perform(put("/api/members/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie sticky = written.getResponse().getCookie(STICKY_COOKIE);
+        assertThat(sticky).isNotNull();
+
+        // 쓴 클라이언트는 primary 에서 읽는다
+        mockMvc.perform(get("/api/members/{id}", 1).cookie(sticky))
+                .andExpect(jsonPath("$.name").value("updated-on-primary"));
+        // 다른 클라이언트는 그대로 복제본
+        mockMvc.perform(get("/api/members/{id}", 1))
+                .andExpect(jsonPath("$.name").value("replica-copy"));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaIsAvailable() throws Exception {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:coffee-rw-fallback");
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(unreachable), 0, 60_000);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).startsWith("jdbc:h2:mem:coffee-rw-fallback");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(routing.availableReplicas()).isZero();
+    }
+
+    @Test
+    void connectionWithCredentialsIsRoutedTheSameWay() throws Exception {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:coffee-rw-credentials-primary");
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:coffee-rw-credentials-replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), 0, 60_000);
+
+        // 트랜잭션 밖은 primary
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL()).startsWith("jdbc:h2:mem:coffee-rw-credentials-primary");
+            assertThat(connection.getMetaData().getUserName()).isEqualToIgnoringCase("sa");
+        }
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL()).startsWith("jdbc:h2:mem:coffee-rw-credentials-replica");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
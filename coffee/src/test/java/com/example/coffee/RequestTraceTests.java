@@ -0,0 +1,99 @@
+package com.example.coffee;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 요청 추적. threshold-ms=0 으로 모든 요청을 남기고 /api/admin/traces 로 읽어 확인한다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coffee-trace;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.trace.enabled=true",
+        "app.trace.threshold-ms=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class RequestTraceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clear() throws Exception {
+        mockMvc.perform(delete("/api/admin/traces").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void recordsSqlPerRequestWithHandler() throws Exception {
+        mockMvc.perform(get("/api/orders/{id}", 10)).andExpect(status().isOk());
+
+        JsonNode summary = latest();
+        assertThat(summary.get("handler").asText()).isEqualTo("OrderController#getOrder");
+        assertThat(summary.get("uri").asText()).isEqualTo("/api/orders/10");
+        assertThat(summary.get("sqlCount").asInt()).isPositive();
+
+        JsonNode detail = json(get("/api/admin/traces/{id}", summary.get("id").asLong()).with(admin()));
+        assertThat(detail.get("statements")).hasSize(summary.get("sqlCount").asInt());
+        JsonNode first = detail.get("statements").get(0);
+        // 리터럴 없이 정규화되고, 조회한 행 수가 남는다
+        assertThat(first.get("sql").asText()).startsWith("select").doesNotContain("  ");
+        assertThat(first.get("rows").asLong()).isEqualTo(1);
+        assertThat(detail.get("sqlGroups")).isNotEmpty();
+    }
+
+    @Test
+    void recordsStorageIo() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "detail.png", "image/png", new byte[4096]);
+        mockMvc.perform(multipart("/api/images").file(file).param("type", "detail")).andExpect(status().is2xxSuccessful());
+
+        JsonNode detail = json(get("/api/admin/traces/{id}", latest().get("id").asLong()).with(admin()));
+        assertThat(detail.get("summary").get("sqlCount").asInt()).isZero();
+        JsonNode put = null;
+        for (JsonNode io : detail.get("storageIo")) {
+            if (io.get("operation").asText().equals("storage.put")) put = io;
+        }
+        assertThat(put).isNotNull();
+        assertThat(put.get("bytes").asLong()).isGreaterThanOrEqualTo(4096);
+    }
+
+    @Test
+    void traceListItselfIsNotRecorded() throws Exception {
+        json(get("/api/admin/traces").with(admin()));
+        assertThat(json(get("/api/admin/traces").with(admin()))).isEmpty();
+    }
+
+    private JsonNode latest() throws Exception {
+        JsonNode traces = json(get("/api/admin/traces").with(admin()));
+        assertThat(traces).isNotEmpty();
+        return traces.get(0);
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // /api/admin/** 는 ADMIN 권한이 필요하다
+    private static RequestPostProcessor admin() {
+        return user("admin").roles("ADMIN");
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ?fields= / ?expand=. 고르지 않은 하위 리소스는 응답에서 빠지고, 그 조회(쿼리 / 지연 로딩)도 나가지 않는다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-fields;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class ResponseFieldsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void productFieldsSkipImageAndOptionQueries() throws Exception {
+        JsonNode products = json(get("/api/products").param("fields", "productId,productName,basePrice,thumbnailImg"));
+
+        assertThat(products).hasSizeGreaterThanOrEqualTo(300);
+        assertThat(fieldNames(products.get(0))).containsExactly("productId", "productName", "basePrice", "thumbnailImg");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(loads("ProductImage") + loads("ProductOption") + loads("ProductVariant")).isZero();
+    }
+
+    @Test
+    void productExpandLoadsOnlyTheChosenSubResource() throws Exception {
+        JsonNode products = json(get("/api/products").param("expand", "options"));
+
+        JsonNode first = products.get(0);
+        assertThat(first.has("detailImages")).isFalse();
+        assertThat(first.get("options")).hasSize(3);
+        assertThat(first.get("type").asText()).isNotBlank();
+        assertThat(loads("ProductImage")).isZero();
+    }
+
+    @Test
+    void orderFieldsSkipItemsAndMember() throws Exception {
+        JsonNode orders = json(get("/api/orders").param("fields", "orderId,status,totalAmount"));
+
+        assertThat(orders).hasSizeGreaterThanOrEqualTo(2000);
+        assertThat(fieldNames(orders.get(0))).containsExactly("orderId", "status", "totalAmount");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(loads("OrderItem") + loads("Member")).isZero();
+    }
+
+    @Test
+    void orderExpandItemsWithoutMember() throws Exception {
+        JsonNode order = json(get("/api/orders/{id}", 10).param("expand", "items"));
+
+        assertThat(order.has("member")).isFalse();
+        assertThat(order.get("items")).hasSize(3);
+        assertThat(order.get("items").get(0).get("productName").asText()).isNotBlank();
+        assertThat(loads("Member")).isZero();
+
+        // 아무 파라미터도 없으면 기존 응답 그대로
+        JsonNode full = json(get("/api/orders/{id}", 10));
+        assertThat(full.get("member").get("name").asText()).isEqualTo("회원10");
+        assertThat(full.get("items")).hasSize(3);
+    }
+
+    @Test
+    void nullFieldsStayInDefaultResponse() throws Exception {
+        Long productId = productService.createProduct(ProductRequest.builder()
+                .productName("썸네일 없는 원두")
+                .basePrice(15000)
+                .build()).getProductId();
+
+        // 파라미터가 없으면 기존 응답 그대로: null 필드도 null 로 나간다
+        JsonNode product = find(json(get("/api/products")), productId);
+        assertThat(product.has("thumbnailImg")).isTrue();
+        assertThat(product.get("thumbnailImg").isNull()).isTrue();
+        assertThat(product.has("type")).isTrue();
+
+        // 고른 필드는 값이 null 이어도 나간다
+        JsonNode selected = find(json(get("/api/products").param("fields", "productId,thumbnailImg")), productId);
+        assertThat(fieldNames(selected)).containsExactly("productId", "thumbnailImg");
+        assertThat(selected.get("thumbnailImg").isNull()).isTrue();
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        // 오타로 필드가 조용히 빠지지 않도록
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/products").param("fields", "productNmae")))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    /* DB 에서 읽어 만든 엔티티 수 (쿼리 결과 포함, 2차 캐시 적중 제외) */
+    private long loads(String entity) {
+        return statistics.getEntityStatistics("com.example.coffee.entity." + entity).getLoadCount();
+    }
+
+    private static JsonNode find(JsonNode products, Long productId) {
+        for (JsonNode product : products) {
+            if (product.get("productId").asLong() == productId) return product;
+        }
+        throw new AssertionError("상품 없음: " + productId);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+}
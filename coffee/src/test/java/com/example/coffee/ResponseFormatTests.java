@@ -0,0 +1,81 @@
+package com.example.coffee;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 응답 형식 협상(JSON / CBOR / Smile)과 gzip 압축. 압축은 Tomcat 이 하므로 실제 포트로 요청한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:coffee-format;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class ResponseFormatTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void binaryFormatsCarryTheSameListAsJson() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(send("/api/products", "application/json", null).body());
+
+        HttpResponse<byte[]> cbor = send("/api/products", "application/cbor", null);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValueSatisfying(t -> assertThat(t).startsWith("application/cbor"));
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.body())).isEqualTo(json);
+
+        HttpResponse<byte[]> smile = send("/api/products?format=smile", null, null);
+        assertThat(smile.headers().firstValue("Content-Type")).hasValueSatisfying(t -> assertThat(t).startsWith("application/x-jackson-smile"));
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.body())).isEqualTo(json);
+        assertThat(smile.body().length).isLessThan(json.toString().length());
+    }
+
+    @Test
+    void largeJsonIsGzipped() throws Exception {
+        HttpResponse<byte[]> plain = send("/api/products", "application/json", null);
+        HttpResponse<byte[]> gzipped = send("/api/products", "application/json", "gzip");
+
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzipped.body().length).isLessThan(plain.body().length);
+        assertThat(gunzip(gzipped.body())).isEqualTo(plain.body());
+    }
+
+    @Test
+    void smallResponsesAreNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = send("/api/members/1", "application/json", "gzip");
+
+        assertThat(response.body().length).isLessThan(1400);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private HttpResponse<byte[]> send(String path, String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (accept != null) request.header("Accept", accept);
+        if (acceptEncoding != null) request.header("Accept-Encoding", acceptEncoding);
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.coffee;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway 도입 전 ddl-auto=update 로 만든 운영 DB 를 baseline-on-migrate 로 받아 마이그레이션하면
+ * 빈 DB 에 V1 부터 적용한 것과 같은 스키마가 된다 (application.properties 와 같은 설정, vendor 는 h2).
+ */
+class SchemaMigrationTests {
+
+    @Test
+    void legacyDatabaseIsBaselinedAndMigratedToTheCurrentSchema() {
+        DataSource legacy = dataSource("coffee-legacy");
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        new ResourceDatabasePopulator(new ClassPathResource("legacy-schema.sql")).execute(legacy);
+        // 기존 앱이 AUTO_INCREMENT 로 넣은 행
+        jdbc.update("INSERT INTO product (product_name, base_price, thumbnail_img) VALUES ('기존 원두', 15000, 'thumbnail/old.jpg')");
+        Long legacyId = jdbc.queryForObject("SELECT product_id FROM product", Long.class);
+
+        migrate(legacy);
+
+        // V1 은 건너뛰고 (기준선) V2 부터 적용
+        assertThat(jdbc.queryForList("SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank",
+                String.class)).containsExactly("1", "2", "3", "4", "5");
+        assertThat(jdbc.queryForObject("SELECT type FROM flyway_schema_history WHERE version = '1'", String.class))
+                .isEqualTo("BASELINE");
+
+        // 기준선 이후에 생긴 테이블 / 컬럼을 쓸 수 있다
+        jdbc.update("UPDATE product SET thumbnail_widths = '320,640' WHERE product_id = ?", legacyId);
+        jdbc.update("INSERT INTO upload_blob (path, digest, size, ref_count, created_at) VALUES ('thumbnail/a.jpg', 'a', 1, 1, NOW())");
+        jdbc.update("INSERT INTO upload_session (id, sub_dir, ext, total_size, chunk_size, created_at) "
+                + "VALUES ('s', 'detail', '.jpg', 10, 5, NOW())");
+        jdbc.update("INSERT INTO id_block (name, next_val) VALUES ('product', ?)", legacyId + 1);
+        assertThat(jdbc.queryForObject("SELECT product_name FROM product WHERE product_id = ?", String.class, legacyId))
+                .isEqualTo("기존 원두");
+
+        DataSource fresh = dataSource("coffee-fresh");
+        migrate(fresh);
+        assertThat(columns(legacy)).isEqualTo(columns(fresh));
+        assertThat(indexes(legacy)).containsAll(indexes(fresh).stream().filter(name -> name.startsWith("IDX_")).toList());
+        assertThat(columns(fresh)).noneMatch(column -> column.endsWith("identity"));
+    }
+
+    private static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    /* 테이블.컬럼 타입(길이) null 여부 [identity] — 컬럼 순서와 제약 이름은 DB 마다 다르므로 보지 않는다 */
+    private static List<String> columns(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList(
+                "SELECT LOWER(table_name) || '.' || LOWER(column_name) || ' ' || data_type"
+                        + " || COALESCE('(' || character_maximum_length || ')', '') || ' ' || is_nullable"
+                        + " || CASE WHEN is_identity = 'YES' THEN ' identity' ELSE '' END"
+                        + " FROM information_schema.columns WHERE table_schema = 'PUBLIC'"
+                        + " AND LOWER(table_name) <> 'flyway_schema_history' ORDER BY 1",
+                String.class);
+    }
+
+    private static List<String> indexes(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList(
+                "SELECT UPPER(index_name) FROM information_schema.indexes WHERE table_schema = 'PUBLIC' ORDER BY 1",
+                String.class);
+    }
+
+    private static DataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.LowStockResponse;
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.StockAlertResponse;
+import com.example.coffee.repository.ProductVariantRepository;
+import com.example.coffee.service.LowStockIndex;
+import com.example.coffee.service.StockAlertFeed;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 재고 부족 인덱스와 알림. 시드 데이터의 variant 재고는 (variant id x 7) mod 200 이고 임계값은 기본 10.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-stock;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class StockAlertTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private StockAlertFeed alertFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lowStockIsOrderedByStock() throws Exception {
+        JsonNode low = json(get("/api/admin/stock/low").param("below", "3").param("limit", "50").with(admin()));
+
+        // 재고 0 (200, 400, 600, 800), 1 (143, 343, 543, 743), 2 (86, 286, 486, 686, 886)
+        assertThat(low).hasSize(13);
+        int previous = Integer.MIN_VALUE;
+        for (JsonNode entry : low) {
+            int stock = entry.get("stock").asInt();
+            assertThat(stock).isLessThan(3).isGreaterThanOrEqualTo(previous);
+            previous = stock;
+        }
+        assertThat(low.get(0).get("productName").asText()).isNotBlank();
+    }
+
+    @Test
+    void orderCrossingThresholdPublishesAlert() throws Exception {
+        long last = lastAlertId();
+
+        // variant 5: 재고 35 -> 8
+        order(5L, 27);
+
+        JsonNode alerts = json(get("/api/admin/stock/alerts").param("after", String.valueOf(last)).with(admin()));
+        assertThat(alerts).hasSize(1);
+        JsonNode alert = alerts.get(0);
+        assertThat(alert.get("type").asText()).isEqualTo("LOW");
+        assertThat(alert.get("variantId").asLong()).isEqualTo(5);
+        assertThat(alert.get("previousStock").asInt()).isEqualTo(35);
+        assertThat(alert.get("stock").asInt()).isEqualTo(8);
+
+        JsonNode low = json(get("/api/admin/stock/low").param("below", "9").with(admin()));
+        assertThat(low.findValuesAsText("variantId")).contains("5");
+
+        // 이미 부족한 상태에서 더 줄어드는 것은 알리지 않는다
+        order(5L, 1);
+        assertThat(json(get("/api/admin/stock/alerts").param("after", String.valueOf(alert.get("id").asLong()))
+                .with(admin())))
+                .isEmpty();
+    }
+
+    @Test
+    void resyncKeepsChangesAppliedWhileReading() throws Exception {
+        // DB 를 읽는 도중에 변경을 끼워 넣도록 첫 페이지를 읽은 직후 멈추는 인덱스를 따로 만든다
+        ProductVariantRepository repository = mock(ProductVariantRepository.class,
+                AdditionalAnswers.delegatesTo(variantRepository));
+        LowStockIndex index = new LowStockIndex(repository, alertFeed, new SimpleMeterRegistry(), transactionTemplate);
+        ReflectionTestUtils.setField(index, "threshold", 10);
+        index.load();
+
+        // variant 8: 재고 56 -> 4 (읽은 페이지에는 56). 새 상품은 읽은 범위 밖의 id
+        LowStockResponse created = new LowStockResponse(9_000_001L, 9_000_000L, "스캔 중 등록 원두", "200g", 3);
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            List<LowStockResponse> page = variantRepository.findStockEntriesAfter(
+                    invocation.getArgument(0), invocation.getArgument(1));
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    jdbcTemplate.update("UPDATE product_variant SET stock = 4 WHERE variant_id = 8");
+                    index.stockChanged(8L, 4);
+                    index.replaceProduct(created.getProductId(), List.of(created));
+                }).get();
+            }
+            return page;
+        }).when(repository).findStockEntriesAfter(anyLong(), any());
+
+        long last = lastAlertId();
+        try {
+            index.resync();
+        } finally {
+            jdbcTemplate.update("UPDATE product_variant SET stock = 56 WHERE variant_id = 8");
+        }
+
+        // 끼어든 변경의 LOW 두 건만. 읽어 둔 옛 재고(56)로 되돌리며 RESTOCKED 를 내지 않는다
+        List<StockAlertResponse> alerts = alertFeed.after(last, 100);
+        assertThat(alerts).extracting(StockAlertResponse::getType).containsOnly("LOW");
+        assertThat(alerts).extracting(StockAlertResponse::getVariantId)
+                .containsExactlyInAnyOrder(8L, created.getVariantId());
+
+        List<LowStockResponse> low = index.below(10, 1000);
+        assertThat(low).filteredOn(entry -> entry.getVariantId() == 8L)
+                .extracting(LowStockResponse::getStock).containsExactly(4);
+        assertThat(low).contains(created);
+    }
+
+    private void order(Long variantId, int quantity) throws Exception {
+        OrderRequest request = OrderRequest.builder()
+                .memberId(3L)
+                .shippingAddress("서울특별시 중구 세종대로 110")
+                .items(List.of(OrderRequest.OrderItemRequest.builder().variantId(variantId).quantity(quantity).build()))
+                .build();
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private long lastAlertId() throws Exception {
+        long last = 0;
+        for (JsonNode alert : json(get("/api/admin/stock/alerts").param("limit", "1000").with(admin()))) {
+            last = alert.get("id").asLong();
+        }
+        return last;
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // /api/admin/** 는 ADMIN 권한이 필요하다
+    private static RequestPostProcessor admin() {
+        return user("admin").roles("ADMIN");
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.repository.ProductImageRepository;
+import com.example.coffee.repository.ProductRepository;
+import com.example.coffee.repository.UploadBlobRepository;
+import com.example.coffee.service.FileDeletionQueue;
+import com.example.coffee.service.FileStorageService;
+import com.example.coffee.service.ProductService;
+import com.example.coffee.service.UploadGarbageCollector;
+import com.example.coffee.service.UploadLayout;
+import com.example.coffee.service.UploadLayoutMigrator;
+import com.example.coffee.storage.BlobInfo;
+import com.example.coffee.storage.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * flat → sharded 배치 마이그레이션. 중간에 실패한 배치가 있어도 다시 돌리면 끝까지 옮겨지고,
+ * 옮기기 전의 flat 경로는 그동안 계속 서빙된다. 커밋 전에 GC 가 돌아도 새 경로의 파일은 지워지지 않는다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coffee-layout;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.upload.layout=sharded"})
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+class UploadLayoutMigrationTests {
+
+    private static final int PRODUCTS = 5;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UploadLayoutMigrator migrator;
+    @Autowired private ProductService productService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductImageRepository productImageRepository;
+    @Autowired private UploadBlobRepository uploadBlobRepository;
+    @Autowired private FileStorageService fileStorageService;
+    @Autowired private FileDeletionQueue fileDeletionQueue;
+    @Autowired private UploadGarbageCollector garbageCollector;
+    @Autowired private UploadLayout uploadLayout;
+    @Autowired private BlobStore blobStore;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resumedRunConvergesWhileFlatPathsKeepServing() throws Exception {
+        // 상품마다 flat 썸네일 1 + 상세 1, 썸네일은 upload_blob 기록도 있다. 0번 썸네일은 리사이즈 버전도 있다
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String thumbnail = "thumbnail/layout-" + i + ".jpg";
+            String detail = "detail/layout-" + i + ".jpg";
+            put(thumbnail);
+            put(detail);
+            jdbcTemplate.update("INSERT INTO upload_blob (path, digest, size, ref_count, created_at) "
+                    + "VALUES (?, ?, ?, 1, CURRENT_TIMESTAMP)", thumbnail, "d" + i, thumbnail.length());
+            ids.add(productService.importProduct(product(i), thumbnail, List.of(detail)));
+        }
+        put("thumbnail/layout-0_w320.jpg");
+
+        // 여기까지 올린 파일은 아래 GC 에서 유예 시간이 지난 것으로 본다
+        Thread.sleep(300);
+        long copiedFrom = System.currentTimeMillis();
+        // 어디서도 가리키지 않는 새 파일 (옮기되 참조 수 기록은 만들지 않는다)
+        put("detail/orphan.jpg");
+
+        // 1) DB 경로 변경 도중 실패한 배치: 복사본은 남지만 DB 는 롤백되고 flat 파일은 지워지지 않는다
+        ProductImageRepository failing = mock(ProductImageRepository.class,
+                AdditionalAnswers.delegatesTo(productImageRepository));
+        doThrow(new IllegalStateException("중단"))
+                .when(failing).renameImageUrl(eq("thumbnail/layout-1.jpg"), anyString());
+        UploadLayoutMigrator interrupted = migrator(failing);
+        int pending = fileDeletionQueue.pending();
+
+        assertThatThrownBy(() -> interrupted.migrateBatch(3)).hasMessageContaining("중단");
+        assertThat(blobStore.exists(sharded("thumbnail/layout-0.jpg"))).isTrue();
+        assertThat(thumbnail(ids.get(0))).isEqualTo("thumbnail/layout-0.jpg");
+        assertThat(blobPath("d0")).isEqualTo("thumbnail/layout-0.jpg");
+        assertThat(fileDeletionQueue.pending()).isEqualTo(pending);
+        assertServed("thumbnail/layout-0.jpg");
+
+        // 2) 다시 실행. 커밋 전(새 경로를 아직 아무도 가리키지 않을 때) 다른 스레드에서 GC 와 삭제 큐가 돌아도
+        //    복사본은 방금 만든 파일이라 유예 시간에 걸린다. 원본(flat)은 유예 시간이 지났지만 DB 가 가리킨다
+        ProductImageRepository racing = mock(ProductImageRepository.class,
+                AdditionalAnswers.delegatesTo(productImageRepository));
+        Object grace = ReflectionTestUtils.getField(garbageCollector, "graceMillis");
+        doAnswer(invocation -> {
+            ReflectionTestUtils.setField(garbageCollector, "graceMillis",
+                    System.currentTimeMillis() - copiedFrom + 150);
+            CompletableFuture.runAsync(() -> {
+                garbageCollector.sweep();
+                fileDeletionQueue.drain();
+            }).get(10, TimeUnit.SECONDS);
+            return productImageRepository.renameImageUrl(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(racing).renameImageUrl(eq("thumbnail/layout-0.jpg"), anyString());
+        try {
+            assertThat(migrator(racing).migrateBatch(2)).isEqualTo(2);
+        } finally {
+            ReflectionTestUtils.setField(garbageCollector, "graceMillis", grace);
+        }
+        fileDeletionQueue.drain();
+        assertServed(sharded("thumbnail/layout-0.jpg"));
+        assertServed(sharded("thumbnail/layout-1.jpg"));
+
+        //    한 배치만 돌린 상태에서도 남은 flat 경로는 그대로 서빙된다
+        assertThat(thumbnail(ids.get(0))).isEqualTo(sharded("thumbnail/layout-0.jpg"));
+        assertThat(thumbnail(ids.get(2))).isEqualTo("thumbnail/layout-2.jpg");
+        assertServed("thumbnail/layout-2.jpg");
+        assertServed("detail/layout-0.jpg");
+
+        // 3) 옮길 것이 batchSize 보다 적게 남을 때까지 반복하면 수렴한다
+        //    (flat 파일이 남은 작업이라 운영에서는 스케줄러가, 여기서는 직접 삭제 큐를 비운다)
+        int runs = 0;
+        int migrated;
+        do {
+            migrated = migrator.migrateBatch(2);
+            fileDeletionQueue.drain();
+            assertThat(++runs).isLessThanOrEqualTo(PRODUCTS * 2);
+        } while (migrated == 2);
+        assertThat(migrator.migrateBatch(2)).isZero();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            String thumbnail = sharded("thumbnail/layout-" + i + ".jpg");
+            String detail = sharded("detail/layout-" + i + ".jpg");
+            assertThat(thumbnail(ids.get(i))).isEqualTo(thumbnail);
+            assertThat(jdbcTemplate.queryForList("SELECT image_url FROM product_image WHERE product_id = ?",
+                    String.class, ids.get(i))).containsExactly(detail);
+            assertThat(blobPath("d" + i)).isEqualTo(thumbnail);
+            // 참조 수 기록이 없던 상세 이미지는 옮기면서 기록이 생긴다
+            assertThat(refCount(detail)).isEqualTo(1);
+            assertServed(thumbnail);
+            assertServed(detail);
+        }
+        // 기존 flat 파일(+ 리사이즈 버전)은 커밋 후 삭제 큐로 지워진다
+        assertThat(blobStore.exists(sharded("thumbnail/layout-0_w320.jpg"))).isTrue();
+        assertThat(blobStore.exists(sharded("detail/orphan.jpg"))).isTrue();
+        assertThat(refCount(sharded("detail/orphan.jpg"))).isNull();
+        assertThat(flatKeys("thumbnail")).isEmpty();
+        assertThat(flatKeys("detail")).isEmpty();
+    }
+
+    private UploadLayoutMigrator migrator(ProductImageRepository productImages) {
+        UploadLayoutMigrator migrator = new UploadLayoutMigrator(productRepository, productImages,
+                uploadBlobRepository, fileStorageService, fileDeletionQueue, uploadLayout, blobStore, transactionManager);
+        migrator.init();
+        return migrator;
+    }
+
+    private String sharded(String flatPath) {
+        int slash = flatPath.indexOf('/');
+        return uploadLayout.pathFor(flatPath.substring(0, slash), flatPath.substring(slash + 1));
+    }
+
+    private void assertServed(String path) throws Exception {
+        mockMvc.perform(get("/uploads/" + path))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(contentOf(flatName(path))));
+    }
+
+    /* 옮긴 파일도 내용은 원래 flat 경로 기준 */
+    private static String flatName(String path) {
+        String[] parts = path.split("/");
+        return parts[0] + "/" + parts[parts.length - 1];
+    }
+
+    private static byte[] contentOf(String flatPath) {
+        return ("내용 " + flatPath).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void put(String flatPath) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(contentOf(flatPath))) {
+            blobStore.put(flatPath, in);
+        }
+    }
+
+    private List<String> flatKeys(String subDir) throws IOException {
+        try (Stream<BlobInfo> blobs = blobStore.list(subDir + "/")) {
+            return blobs.map(BlobInfo::key)
+                    .filter(key -> key.indexOf('/', subDir.length() + 1) < 0)
+                    .toList();
+        }
+    }
+
+    // 2차 캐시를 거치지 않고 DB 값
+    private String thumbnail(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT thumbnail_img FROM product WHERE product_id = ?", String.class, productId);
+    }
+
+    private String blobPath(String digest) {
+        return jdbcTemplate.queryForObject("SELECT path FROM upload_blob WHERE digest = ?", String.class, digest);
+    }
+
+    private Integer refCount(String path) {
+        List<Integer> counts = jdbcTemplate.queryForList(
+                "SELECT ref_count FROM upload_blob WHERE path = ?", Integer.class, path);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    private static ProductRequest product(int i) {
+        return ProductRequest.builder()
+                .productName("배치 이동 원두 " + i)
+                .basePrice(15000)
+                .options(List.of(
+                        ProductRequest.OptionRequest.builder().optionValue("200g").extraPrice(0).stock(10).build()))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.coffee;
+
+import com.example.coffee.dto.OrderRequest;
+import com.example.coffee.dto.OrderResponse;
+import com.example.coffee.dto.ProductRequest;
+import com.example.coffee.dto.ProductResponse;
+import com.example.coffee.service.OrderService;
+import com.example.coffee.service.ProductService;
+import com.example.coffee.service.VariantPriceTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 주문 가격표. 시드 상품 X 의 기본가는 12000 + (X mod 20) x 500, 옵션 추가금은 200g 0 / 500g 8000 / 1kg 16000.
+ * 상품 변경은 커밋된 뒤에만 표에 들어가고, 주문 가격/응답은 표에서 읽는다.
+ */
+// 다른 it 컨텍스트와 DB 를 나눠 쓰지 않도록 별도 H2
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-prices;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("it")
+class VariantPriceTableTests {
+
+    @Autowired
+    private VariantPriceTable priceTable;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void loadsSeedCatalog() {
+        VariantPriceTable.Snapshot table = priceTable.snapshot();
+        assertThat(table.size()).isGreaterThanOrEqualTo(900);
+
+        // variant 5 = 상품 2 (13000) 의 500g (+8000)
+        int slot = table.indexOf(5L);
+        assertThat(table.price(slot)).isEqualTo(21000);
+        assertThat(table.productName(slot)).isEqualTo("싱글오리진 원두 2");
+        assertThat(table.optionValue(slot)).isEqualTo("500g");
+        assertThat(table.indexOf(999_999L)).isEqualTo(-1);
+    }
+
+    @Test
+    void renameIsAppliedAfterCommitOnly() {
+        // 상품 7 = variant 19, 20, 21
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(7L, edit("롤백될 이름", 50000));
+            assertThat(priceTable.snapshot().productName(priceTable.snapshot().indexOf(20L)))
+                    .isEqualTo("싱글오리진 원두 7");
+            status.setRollbackOnly();
+        });
+        assertThat(priceTable.snapshot().price(priceTable.snapshot().indexOf(20L))).isEqualTo(23500);
+
+        productService.updateProduct(7L, edit("게이샤 7", 30000));
+        VariantPriceTable.Snapshot table = priceTable.snapshot();
+        assertThat(table.price(table.indexOf(19L))).isEqualTo(30000);
+        assertThat(table.price(table.indexOf(21L))).isEqualTo(46000);
+
+        OrderResponse order = orderService.createOrder(order(20L, 2));
+        assertThat(order.getTotalAmount()).isEqualTo(2 * 38000);
+        assertThat(order.getItems().get(0).getProductName()).isEqualTo("게이샤 7");
+        assertThat(order.getItems().get(0).getOptionValue()).isEqualTo("500g");
+        assertThat(orderService.getOrder(order.getOrderId(), null, null).getItems().get(0).getUnitPrice()).isEqualTo(38000);
+    }
+
+    @Test
+    void replacedOptionsSwapVariants() {
+        ProductResponse created = productService.createProduct(ProductRequest.builder()
+                .productName("가격표 원두")
+                .basePrice(15000)
+                .options(List.of(option("200g", 0), option("1kg", 20000)))
+                .build());
+        Long old200g = variantId(created, "200g");
+        assertThat(priceTable.snapshot().price(priceTable.snapshot().indexOf(old200g))).isEqualTo(15000);
+
+        ProductRequest replace = edit("가격표 원두", 15000);
+        replace.setOptions(List.of(option("250g", 1000)));
+        ProductResponse updated = productService.updateProduct(created.getProductId(), replace);
+        Long new250g = variantId(updated, "250g");
+
+        VariantPriceTable.Snapshot table = priceTable.snapshot();
+        assertThat(table.indexOf(old200g)).isEqualTo(-1);
+        assertThat(table.indexOf(variantId(created, "1kg"))).isEqualTo(-1);
+        assertThat(table.price(table.indexOf(new250g))).isEqualTo(16000);
+
+        assertThat(orderService.createOrder(order(new250g, 1)).getTotalAmount()).isEqualTo(16000);
+    }
+
+    private static Long variantId(ProductResponse product, String optionValue) {
+        return product.getOptions().stream()
+                .filter(option -> option.getOptionValue().equals(optionValue))
+                .findFirst().orElseThrow()
+                .getVariantId();
+    }
+
+    private static ProductRequest edit(String name, int basePrice) {
+        return ProductRequest.builder()
+                .productName(name)
+                .basePrice(basePrice)
+                .type("워시드")
+                .continent("아프리카")
+                .nationality("에티오피아")
+                .build();
+    }
+
+    private static ProductRequest.OptionRequest option(String value, int extraPrice) {
+        return ProductRequest.OptionRequest.builder().optionValue(value).extraPrice(extraPrice).stock(50).build();
+    }
+
+    private static OrderRequest order(Long variantId, int quantity) {
+        return OrderRequest.builder()
+                .memberId(3L)
+                .shippingAddress("서울특별시 중구 세종대로 110")
+                .items(List.of(OrderRequest.OrderItemRequest.builder().variantId(variantId).quantity(quantity).build()))
+                .build();
+    }
+}
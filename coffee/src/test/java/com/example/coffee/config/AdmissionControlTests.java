@@ -0,0 +1,200 @@
+package com.example.coffee.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 입장 제한. Bulkhead 의 한도 / 대기열 / AIMD 와, 필터가 거절 사유를 429 / 503 으로 돌려주는지.
+ * 스프링 컨텍스트 없이 돈다.
+ */
+class AdmissionControlTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void fullQueueIsRejectedWithoutWaiting() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("t", 1, 2, 0, 500);
+
+        assertThat(bulkhead.acquire(1000)).isEqualTo(Bulkhead.Admission.ADMITTED);
+        assertThat(bulkhead.acquire(1000)).isEqualTo(Bulkhead.Admission.ADMITTED);
+        long start = System.nanoTime();
+        assertThat(bulkhead.acquire(1000)).isEqualTo(Bulkhead.Admission.QUEUE_FULL);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bulkhead.inflight()).isEqualTo(2);
+    }
+
+    @Test
+    void queuedRequestTimesOutOrGetsTheReleasedSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("t", 1, 1, 1, 500);
+        assertThat(bulkhead.acquire(0)).isEqualTo(Bulkhead.Admission.ADMITTED);
+
+        assertThat(bulkhead.acquire(50)).isEqualTo(Bulkhead.Admission.TIMED_OUT);
+        assertThat(bulkhead.waiting()).isZero();
+
+        CompletableFuture<Bulkhead.Admission> queued = CompletableFuture.supplyAsync(() -> acquire(bulkhead, 5000));
+        await(() -> bulkhead.waiting() == 1);
+        // 대기열 1 칸이 찼다
+        assertThat(bulkhead.acquire(5000)).isEqualTo(Bulkhead.Admission.QUEUE_FULL);
+
+        bulkhead.release(FAST, false);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(Bulkhead.Admission.ADMITTED);
+        assertThat(bulkhead.inflight()).isEqualTo(1);
+        assertThat(bulkhead.waiting()).isZero();
+    }
+
+    @Test
+    void slowOrFailedRequestsBackOffDownToMin() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("t", 5, 10, 0, 500);
+
+        bulkhead.acquire(0);
+        bulkhead.release(SLOW, false);
+        assertThat(bulkhead.limit()).isEqualTo(9);
+
+        // 같은 혼잡으로 끝난 요청은 그 처리 시간 안에 한도를 다시 깎지 않는다
+        bulkhead.acquire(0);
+        bulkhead.release(SLOW, false);
+        assertThat(bulkhead.limit()).isEqualTo(9);
+
+        // 5xx 는 지연과 무관하게 줄인다. min 아래로는 줄지 않는다
+        for (int i = 0; i < 50; i++) {
+            bulkhead.acquire(0);
+            bulkhead.release(0, true);
+        }
+        assertThat(bulkhead.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void fastRequestsGrowTheLimitBackOnlyWhileBusy() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("t", 2, 10, 0, 500);
+        bulkhead.acquire(0);
+        bulkhead.release(SLOW, false);
+        assertThat(bulkhead.limit()).isEqualTo(9);
+
+        // 한도의 절반도 안 쓰고 있으면 늘리지 않는다
+        for (int i = 0; i < 100; i++) {
+            bulkhead.acquire(0);
+            bulkhead.release(FAST, false);
+        }
+        assertThat(bulkhead.limit()).isEqualTo(9);
+
+        // 한도까지 채워 빠르게 끝내기를 반복하면 max 까지 돌아오고, 넘지는 않는다
+        for (int round = 0; round < 20; round++) {
+            int admitted = 0;
+            while (bulkhead.acquire(0) == Bulkhead.Admission.ADMITTED) admitted++;
+            assertThat(admitted).isLessThanOrEqualTo(10);
+            for (int i = 0; i < admitted; i++) bulkhead.release(FAST, false);
+        }
+        assertThat(bulkhead.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void filterAnswers429ForFullQueueAnd503AfterTimeout() throws Exception {
+        AdmissionControlFilter filter = filter(20, 1, 1);
+        CountDownLatch hold = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                hold.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<MockHttpServletResponse> running = CompletableFuture.supplyAsync(() -> order(filter, blocking));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 한도 1 은 차 있고 대기열 1 칸에서 queue-timeout 까지 기다린다
+        CompletableFuture<MockHttpServletResponse> queued = CompletableFuture.supplyAsync(() -> order(filter, blocking));
+        Bulkhead orders = (Bulkhead) ReflectionTestUtils.getField(filter, "orders");
+        await(() -> orders.waiting() == 1);
+
+        MockHttpServletResponse full = order(filter, blocking);
+        assertThat(full.getStatus()).isEqualTo(429);
+        assertThat(full.getHeader("Retry-After")).isEqualTo("1");
+
+        MockHttpServletResponse timedOut = queued.get(5, TimeUnit.SECONDS);
+        assertThat(timedOut.getStatus()).isEqualTo(503);
+        assertThat(timedOut.getHeader("Retry-After")).isEqualTo("1");
+
+        hold.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(orders.inflight()).isZero();
+    }
+
+    @Test
+    void limitsAreDerivedFromThePoolAndMayNotExceedIt() {
+        AdmissionControlFilter filter = filter(20, 0, 100);
+        assertThat(((Bulkhead) ReflectionTestUtils.getField(filter, "orders")).limit()).isEqualTo(6);
+        assertThat(((Bulkhead) ReflectionTestUtils.getField(filter, "uploads")).limit()).isEqualTo(2);
+        assertThat(((Bulkhead) ReflectionTestUtils.getField(filter, "general")).limit()).isEqualTo(12);
+
+        assertThatThrownBy(() -> AdmissionControlFilter.checkPoolSize(20, 6, 2, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("합계 108");
+        assertThatThrownBy(() -> filter(2, 0, 100))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /* @Value 기본값 대신 직접 채운다. ordersMax 0 = 풀 크기에서 계산 */
+    private static AdmissionControlFilter filter(int poolSize, int ordersMax, int ordersQueue) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "queueTimeoutMillis", 1000L);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(filter, "paths", List.of("/api/orders/**"));
+        ReflectionTestUtils.setField(filter, "poolSize", poolSize);
+        ReflectionTestUtils.setField(filter, "maxQueue", 100);
+        ReflectionTestUtils.setField(filter, "targetLatencyMillis", 500L);
+        ReflectionTestUtils.setField(filter, "ordersMaxConcurrent", ordersMax);
+        ReflectionTestUtils.setField(filter, "ordersMaxQueue", ordersQueue);
+        ReflectionTestUtils.setField(filter, "ordersTargetLatencyMillis", 500L);
+        ReflectionTestUtils.setField(filter, "uploadsMinConcurrent", 1);
+        ReflectionTestUtils.setField(filter, "uploadsMaxQueue", 4);
+        ReflectionTestUtils.setField(filter, "uploadsTargetLatencyMillis", 30000L);
+        ReflectionTestUtils.setField(filter, "uploadsRetryAfterSeconds", 5);
+        filter.init();
+        return filter;
+    }
+
+    private static MockHttpServletResponse order(AdmissionControlFilter filter, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static Bulkhead.Admission acquire(Bulkhead bulkhead, long timeoutMillis) {
+        try {
+            return bulkhead.acquire(timeoutMillis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리다 시간 초과").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
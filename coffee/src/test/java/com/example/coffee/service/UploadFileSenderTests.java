@@ -0,0 +1,163 @@
+package com.example.coffee.service;
+
+import com.example.coffee.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업로드 파일 전송의 조건부 / 범위 요청. 메모리 저장소라 본문은 스트림 복사 경로로 나간다.
+ */
+class UploadFileSenderTests {
+
+    private static final String HASH = "0123456789abcdef".repeat(4);
+    private static final String KEY = "thumbnail/" + HASH + ".jpg";
+    private static final String ETAG = "\"" + HASH + "\"";
+    private static final int SIZE = 100;
+
+    private InMemoryBlobStore blobStore;
+    private UploadFileSender sender;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new InMemoryBlobStore();
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) content[i] = (byte) i;
+        blobStore.put(KEY, new ByteArrayInputStream(content));
+
+        sender = new UploadFileSender(blobStore);
+        ReflectionTestUtils.setField(sender, "maxAge", 31536000L);
+        ReflectionTestUtils.setField(sender, "metadataCacheSize", 4);
+        ReflectionTestUtils.setField(sender, "metadataTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(sender, "sendfileThreshold", 49152L);
+    }
+
+    @Test
+    void fullResponseCarriesValidators() throws IOException {
+        MockHttpServletResponse response = send(null, null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("Cache-Control")).contains("immutable");
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+
+        assertThat(send("thumbnail/missing.jpg", request(null, null, null)).getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws IOException {
+        for (String ifNoneMatch : new String[]{ETAG, "W/" + ETAG, "\"other\", " + ETAG, "*"}) {
+            MockHttpServletResponse response = send(null, null, ifNoneMatch);
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+        }
+        // If-None-Match 가 맞으면 Range 보다 먼저 304
+        assertThat(send("bytes=0-9", null, ETAG).getStatus()).isEqualTo(304);
+        assertThat(send(null, null, "\"other\"").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void satisfiableRangesArePartial() throws IOException {
+        assertRange("bytes=10-19", 10, 19);
+        assertRange("bytes=-5", 95, 99);
+        assertRange("bytes=90-", 90, 99);
+        // 끝이 파일 밖이면 파일 끝까지
+        assertRange("bytes=90-500", 90, 99);
+        assertRange("bytes=0-99999999999999999999", 0, 99);
+        // suffix 가 파일보다 길면 전체
+        assertRange("bytes=-99999999999999999999", 0, 99);
+    }
+
+    @Test
+    void unsatisfiableRangesAre416() throws IOException {
+        for (String range : new String[]{"bytes=100-", "bytes=20-10", "bytes=99999999999999999999-",
+                "bytes=99999999999999999999-99999999999999999999"}) {
+            MockHttpServletResponse response = send(range, null, null);
+            assertThat(response.getStatus()).as(range).isEqualTo(416);
+            assertThat(response.getHeader("Content-Range")).as(range).isEqualTo("bytes */" + SIZE);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+    }
+
+    @Test
+    void rangeIsIgnoredUnlessIfRangeMatchesOrFormIsSupported() throws IOException {
+        assertPartial(send("bytes=10-19", ETAG, null), 10, 19);
+
+        // 바뀐 파일의 일부를 이어 붙이지 않도록 전체를 준다
+        MockHttpServletResponse stale = send("bytes=10-19", "\"other\"", null);
+        assertThat(stale.getStatus()).isEqualTo(200);
+        assertThat(stale.getContentAsByteArray()).isEqualTo(content);
+
+        // 다중 구간 / 형식이 다른 Range 는 전체 응답
+        for (String range : new String[]{"bytes=0-1,5-6", "bytes=-", "items=0-9"}) {
+            MockHttpServletResponse response = send(range, null, null);
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void headSendsRangeHeadersWithoutBody() throws IOException {
+        MockHttpServletRequest request = request("bytes=10-19", null, null);
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = send(KEY, request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 10-19/" + SIZE);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void metadataCacheStaysBounded() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            String key = "detail/" + i + ".jpg";
+            blobStore.put(key, new ByteArrayInputStream(new byte[]{(byte) i}));
+            assertThat(send(key, request(null, null, null)).getStatus()).isEqualTo(200);
+        }
+        Map<?, ?> metadata = (Map<?, ?>) ReflectionTestUtils.getField(sender, "metadata");
+        assertThat(metadata).hasSizeLessThanOrEqualTo(4);
+    }
+
+    private void assertRange(String range, int start, int end) throws IOException {
+        assertPartial(send(range, null, null), start, end);
+    }
+
+    private void assertPartial(MockHttpServletResponse response, int start, int end) {
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes " + start + "-" + end + "/" + SIZE);
+        assertThat(response.getContentLengthLong()).isEqualTo(end - start + 1);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, start, end + 1));
+    }
+
+    private MockHttpServletResponse send(String range, String ifRange, String ifNoneMatch) throws IOException {
+        return send(KEY, request(range, ifRange, ifNoneMatch));
+    }
+
+    private MockHttpServletResponse send(String key, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sender.send(key, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String range, String ifRange, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + KEY);
+        if (range != null) request.addHeader("Range", range);
+        if (ifRange != null) request.addHeader("If-Range", ifRange);
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.coffee.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 목록 조회는 prefix 가 가리키지 않는 . 디렉토리(.tmp / .staging / .chunks)에 들어가지 않는다.
+ * 로컬 / 메모리 저장소가 같은 결과를 낸다.
+ */
+class BlobStoreListTests {
+
+    private static final List<String> KEYS = List.of(
+            "thumbnail/a.jpg",
+            "detail/ab/cd/b.jpg",
+            ".staging/token/c.jpg",
+            ".chunks/upload/0",
+            ".chunks/upload/1",
+            "detail/ab/.hidden/d.jpg");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void localStoreSkipsDotDirectoriesOutsideThePrefix() throws IOException {
+        LocalBlobStore store = new LocalBlobStore();
+        ReflectionTestUtils.setField(store, "uploadDir", dir.toString());
+        store.init();
+        put(store);
+        // 원자적 쓰기에 쓰는 임시 디렉토리
+        Files.write(dir.resolve(".tmp/e.part"), new byte[]{1});
+
+        assertListing(store);
+    }
+
+    @Test
+    void memoryStoreSkipsDotDirectoriesOutsideThePrefix() throws IOException {
+        InMemoryBlobStore store = new InMemoryBlobStore();
+        put(store);
+
+        assertListing(store);
+    }
+
+    @Test
+    void localStoreListsNothingWhenThePrefixDirectoryIsGone() throws IOException {
+        LocalBlobStore store = new LocalBlobStore();
+        ReflectionTestUtils.setField(store, "uploadDir", dir.toString());
+        store.init();
+        put(store);
+        store.delete(".chunks/upload/0");
+        store.delete(".chunks/upload/1");
+
+        assertThat(keys(store, ".chunks/upload/")).isEmpty();
+        assertThat(keys(store, "")).containsExactlyInAnyOrder("thumbnail/a.jpg", "detail/ab/cd/b.jpg");
+    }
+
+    private static void assertListing(BlobStore store) throws IOException {
+        assertThat(keys(store, "")).containsExactlyInAnyOrder("thumbnail/a.jpg", "detail/ab/cd/b.jpg");
+        assertThat(keys(store, "detail/")).containsExactly("detail/ab/cd/b.jpg");
+        assertThat(keys(store, ".chunks/upload/")).containsExactlyInAnyOrder(".chunks/upload/0", ".chunks/upload/1");
+        assertThat(keys(store, ".staging/")).containsExactly(".staging/token/c.jpg");
+        assertThat(keys(store, "detail/ab/.hidden/")).containsExactly("detail/ab/.hidden/d.jpg");
+        assertThat(keys(store, ".tmp/")).isEmpty();
+    }
+
+    private static void put(BlobStore store) throws IOException {
+        for (String key : KEYS) {
+            store.put(key, new ByteArrayInputStream(key.getBytes()));
+        }
+    }
+
+    private static List<String> keys(BlobStore store, String prefix) throws IOException {
+        try (Stream<BlobInfo> blobs = store.list(prefix)) {
+            return blobs.map(BlobInfo::key).toList();
+        }
+    }
+}
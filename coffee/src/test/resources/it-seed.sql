@@ -0,0 +1,45 @@
+-- EndpointQueryBudgetTests 용 시드 데이터 (H2 SYSTEM_RANGE 로 생성)
+-- 회원 1000명, 상품 300개 (옵션/재고 3개, 상세 이미지 4장), 주문 2000건 (품목 3개)
+-- id 는 1 부터 연속 (컬럼에 AUTO_INCREMENT 가 없으므로 직접 지정, 이후 발급은 IdAllocator 가 MAX 다음부터).
+
+INSERT INTO member (member_id, email, password, name, phone, address, created_at, updated_at)
+SELECT X, CONCAT('member', X, '@example.com'), 'password', CONCAT('회원', X),
+       CONCAT('010-0000-', LPAD(CAST(X AS VARCHAR), 4, '0')), CONCAT('서울특별시 강남구 테헤란로 ', X),
+       TIMESTAMP '2025-01-01 00:00:00', TIMESTAMP '2025-01-01 00:00:00'
+FROM SYSTEM_RANGE(1, 1000) ORDER BY X;
+
+INSERT INTO product (product_id, product_name, base_price, type, continent, nationality, thumbnail_img, thumbnail_widths)
+SELECT X, CONCAT('싱글오리진 원두 ', X), 12000 + MOD(X, 20) * 500,
+       CASE MOD(X, 3) WHEN 0 THEN '워시드' WHEN 1 THEN '내추럴' ELSE '허니' END,
+       '아프리카', '에티오피아', CONCAT('thumbnail/seed-', X, '.jpg'), '320,640'
+FROM SYSTEM_RANGE(1, 300) ORDER BY X;
+
+INSERT INTO product_option (option_id, product_id, option_value, extra_price)
+SELECT X, (X - 1) / 3 + 1,
+       CASE MOD(X - 1, 3) WHEN 0 THEN '200g' WHEN 1 THEN '500g' ELSE '1kg' END,
+       MOD(X - 1, 3) * 8000
+FROM SYSTEM_RANGE(1, 900) ORDER BY X;
+
+INSERT INTO product_variant (variant_id, product_id, option_id, stock)
+SELECT X, (X - 1) / 3 + 1, X, MOD(X * 7, 200)
+FROM SYSTEM_RANGE(1, 900) ORDER BY X;
+
+INSERT INTO product_image (image_id, image_url, widths, sort_order, product_id)
+SELECT X, CONCAT('detail/seed-', X, '.jpg'), '320,640', MOD(X - 1, 4) + 1, (X - 1) / 4 + 1
+FROM SYSTEM_RANGE(1, 1200) ORDER BY X;
+
+INSERT INTO orders (order_id, member_id, status, total_amount, shipping_address, order_date, updated_at)
+SELECT X, MOD(X - 1, 1000) + 1,
+       CASE MOD(X, 5) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'PAID' WHEN 2 THEN 'SHIPPING'
+                      WHEN 3 THEN 'COMPLETED' ELSE 'CANCELLED' END,
+       0, CONCAT('서울특별시 강남구 테헤란로 ', X),
+       DATEADD('MINUTE', X, TIMESTAMP '2025-01-01 09:00:00'),
+       DATEADD('MINUTE', X + 30, TIMESTAMP '2025-01-01 09:00:00')
+FROM SYSTEM_RANGE(1, 2000) ORDER BY X;
+
+INSERT INTO order_item (order_item_id, order_id, variant_id, quantity, unit_price)
+SELECT X, (X - 1) / 3 + 1, MOD(X * 37, 900) + 1, MOD(X, 3) + 1, 15000
+FROM SYSTEM_RANGE(1, 6000) ORDER BY X;
+
+UPDATE orders o
+SET total_amount = (SELECT SUM(i.unit_price * i.quantity) FROM order_item i WHERE i.order_id = o.order_id);
@@ -0,0 +1,18 @@
+-- Flyway 도입 전 앱이 ddl-auto=update (MySQLDialect) 로 만든 스키마. SchemaMigrationTests 가 이 DB 에서 마이그레이션을 시작한다.
+-- Hibernate 가 만든 DDL 그대로 (컬럼 순서 / 제약 이름 포함). engine=InnoDB 만 H2 에 맞춰 뺐다.
+
+create table member (member_id bigint not null auto_increment, address varchar(255), created_at datetime(6), email varchar(100) not null, name varchar(50) not null, password varchar(255) not null, phone varchar(20), updated_at datetime(6), primary key (member_id));
+create table order_item (order_item_id bigint not null auto_increment, quantity integer not null, unit_price integer not null, order_id bigint not null, variant_id bigint not null, primary key (order_item_id));
+create table orders (order_id bigint not null auto_increment, order_date datetime(6), shipping_address varchar(255), status enum ('PENDING','PAID','SHIPPING','COMPLETED','CANCELLED') not null, total_amount integer not null, updated_at datetime(6), member_id bigint not null, primary key (order_id));
+create table product (product_id bigint not null auto_increment, base_price integer not null, continent varchar(50), nationality varchar(100), product_name varchar(200) not null, thumbnail_img varchar(250), type varchar(100), primary key (product_id));
+create table product_image (image_id bigint not null auto_increment, image_url varchar(250), sort_order integer, product_id bigint, primary key (image_id));
+create table product_option (option_id bigint not null auto_increment, extra_price integer not null, option_value varchar(50) not null, product_id bigint not null, primary key (option_id));
+create table product_variant (variant_id bigint not null auto_increment, stock integer not null, option_id bigint not null, product_id bigint not null, primary key (variant_id));
+alter table member add constraint UK_mbmcqelty0fbrvxp1q58dn57t unique (email);
+alter table order_item add constraint FKt4dc2r9nbvbujrljv3e23iibt foreign key (order_id) references orders (order_id);
+alter table order_item add constraint FK5wqg0o1qbd0sa9bn9q8c2m0xb foreign key (variant_id) references product_variant (variant_id);
+alter table orders add constraint FKpktxwhj3x9m4gth5ff6bkqgeb foreign key (member_id) references member (member_id);
+alter table product_image add constraint FK6oo0cvcdtb6qmwsga468uuukk foreign key (product_id) references product (product_id);
+alter table product_option add constraint FKgqsjw3rcsqc6jwkfe3xnvbqfl foreign key (product_id) references product (product_id);
+alter table product_variant add constraint FKoq6j0ae6ulwb0qjqv3pwyhpgo foreign key (option_id) references product_option (option_id);
+alter table product_variant add constraint FKgrbbs9t374m9gg43l6tq1xwdj foreign key (product_id) references product (product_id);
@@ -0,0 +1,15 @@
+-- ReadReplicaRoutingTests 용 복제본 (H2 INIT 으로 커넥션마다 실행되므로 여러 번 실행해도 같은 결과여야 함)
+CREATE TABLE IF NOT EXISTS member (
+    member_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    phone VARCHAR(20),
+    address VARCHAR(255),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+MERGE INTO member (member_id, email, password, name, phone, address, created_at, updated_at) KEY (member_id)
+VALUES (1, 'member1@example.com', 'password', 'replica-copy', NULL, NULL,
+        TIMESTAMP '2025-01-01 00:00:00', TIMESTAMP '2025-01-01 00:00:00');